@@ -0,0 +1,199 @@
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Hands out the run's phone-number accounts to tabs, one tab per account at a time.
+ *
+ * A tab leases an account for each course and gives it back afterwards. A tab gets
+ * its own previous account again when it is free, so with no more tabs than
+ * accounts every tab keeps one login for the whole run; with more tabs, waiting
+ * tabs are served first-come first-served and the accounts are worked in turn.
+ * Logins are timed and counted per account, and an account whose logins keep
+ * failing (too many in a row, or too high a share) is taken out of rotation.
+ */
+class AccountPool {
+
+    /** Login statistics and lease state of one phone number. */
+    static class Account {
+        final String phone;
+        int logins;
+        int loginFailures;
+        int consecutiveFailures;
+        long loginMsTotal;
+        int courses;
+        boolean healthy = true;
+        String unhealthyReason;
+
+        // tab that holds the lease now (-1 for none) and the tab that logged in last
+        int holder = -1;
+        int lastHolder = -1;
+        long releasedAt;
+
+        Account(String phone) {
+            this.phone = phone;
+        }
+
+        long averageLoginMs() {
+            int succeeded = logins - loginFailures;
+            return succeeded > 0 ? loginMsTotal / succeeded : 0;
+        }
+
+        double failureRate() {
+            return logins > 0 ? loginFailures / (double) logins : 0;
+        }
+    }
+
+    /** One tab's hold on one account; give it back with release(). */
+    class Lease {
+        final Account account;
+        final int tab;
+        private final boolean needsLogin;
+        private boolean released;
+
+        private Lease(Account account, int tab, boolean needsLogin) {
+            this.account = account;
+            this.tab = tab;
+            this.needsLogin = needsLogin;
+        }
+
+        String phone() {
+            return account.phone;
+        }
+
+        /** True when another tab (or nobody yet) used the account since this tab last logged in with it. */
+        boolean needsLogin() {
+            return needsLogin;
+        }
+
+        void loginSucceeded(long ms) {
+            synchronized (AccountPool.this) {
+                account.logins++;
+                account.consecutiveFailures = 0;
+                account.loginMsTotal += ms;
+                account.lastHolder = tab;
+            }
+        }
+
+        void loginFailed(String reason) {
+            synchronized (AccountPool.this) {
+                account.logins++;
+                account.loginFailures++;
+                account.consecutiveFailures++;
+                account.lastHolder = -1;
+                if (account.healthy && account.consecutiveFailures >= maxConsecutiveFailures) {
+                    retire(account, account.consecutiveFailures + " failed logins in a row (" + reason + ")");
+                } else if (account.healthy && account.logins >= MIN_LOGINS_FOR_RATE && account.failureRate() > maxFailureRate) {
+                    retire(account, Math.round(account.failureRate() * 100) + "% of logins failed (" + reason + ")");
+                }
+            }
+        }
+
+        void courseDone() {
+            synchronized (AccountPool.this) {
+                account.courses++;
+            }
+        }
+
+        void release() {
+            synchronized (AccountPool.this) {
+                if (released) return;
+                released = true;
+                account.holder = -1;
+                account.releasedAt = RunClock.monotonicMs();
+                AccountPool.this.notifyAll();
+            }
+        }
+    }
+
+    private static final int MIN_LOGINS_FOR_RATE = 3;
+
+    private final List<Account> accounts = new ArrayList<>();
+    private final int maxConsecutiveFailures;
+    private final double maxFailureRate;
+    private final Deque<Integer> waiting = new ArrayDeque<>();
+
+    AccountPool(String[] phones, int maxConsecutiveFailures, double maxFailureRate) {
+        for (String phone : phones) {
+            if (!phone.trim().isEmpty()) {
+                accounts.add(new Account(phone.trim()));
+            }
+        }
+        this.maxConsecutiveFailures = Math.max(1, maxConsecutiveFailures);
+        this.maxFailureRate = maxFailureRate;
+    }
+
+    /**
+     * Blocks until this tab's turn comes and a healthy account is free. Returns
+     * null once there is no work left or no healthy account remains.
+     */
+    synchronized Lease acquire(int tab, BooleanSupplier workLeft) throws InterruptedException {
+        waiting.addLast(tab);
+        try {
+            while (true) {
+                if (!workLeft.getAsBoolean() || healthyCount() == 0) return null;
+                if (waiting.peekFirst() == tab) {
+                    Account account = pick(tab);
+                    if (account != null) {
+                        account.holder = tab;
+                        return new Lease(account, tab, account.lastHolder != tab);
+                    }
+                }
+                wait(1000);
+            }
+        } finally {
+            waiting.remove(tab);
+            notifyAll();
+        }
+    }
+
+    // the tab's own account first, then one nobody has used, then the least recently used
+    private Account pick(int tab) {
+        Account best = null;
+        for (Account account : accounts) {
+            if (!account.healthy || account.holder != -1) continue;
+            if (account.lastHolder == tab) return account;
+            if (best == null || rank(account) < rank(best)) best = account;
+        }
+        return best;
+    }
+
+    private static long rank(Account account) {
+        return account.lastHolder == -1 && account.logins == 0 ? Long.MIN_VALUE : account.releasedAt;
+    }
+
+    private void retire(Account account, String reason) {
+        account.healthy = false;
+        account.unhealthyReason = reason;
+        Log.warn("🚫 Account {} taken out of rotation: {} ({} healthy left)", account.phone, reason, healthyCount());
+        notifyAll();
+    }
+
+    synchronized int healthyCount() {
+        int healthy = 0;
+        for (Account account : accounts) {
+            if (account.healthy) healthy++;
+        }
+        return healthy;
+    }
+
+    synchronized int size() {
+        return accounts.size();
+    }
+
+    /** Snapshot of every account's statistics, in configuration order. */
+    synchronized List<Account> accounts() {
+        List<Account> copy = new ArrayList<>();
+        for (Account account : accounts) {
+            Account snapshot = new Account(account.phone);
+            snapshot.logins = account.logins;
+            snapshot.loginFailures = account.loginFailures;
+            snapshot.consecutiveFailures = account.consecutiveFailures;
+            snapshot.loginMsTotal = account.loginMsTotal;
+            snapshot.courses = account.courses;
+            snapshot.healthy = account.healthy;
+            snapshot.unhealthyReason = account.unhealthyReason;
+            copy.add(snapshot);
+        }
+        return copy;
+    }
+}
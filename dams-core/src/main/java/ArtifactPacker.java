@@ -0,0 +1,297 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+/**
+ * Packs the screenshots of a run into a few zip archives with a manifest, so CI
+ * uploads a handful of files instead of thousands of small PNGs.
+ *
+ * Files are split into chunks of about artifact.chunk.mb in file order and each
+ * chunk is written by its own worker, on a pool sized to the machine's cores.
+ * Images are stored as they are (PNG and JPEG are compressed already, deflating
+ * them again costs time and saves nothing); everything else is deflated. Thumbnails
+ * stay outside the archives so the HTML report still shows previews before anything
+ * is unpacked. Entries keep their path (screenshots/QR_...png), so unzipping an
+ * archive next to the report makes its full-size links work.
+ *
+ * manifest.json lists every archive (name, files, bytes) and every file with its
+ * course, package, tab, SHA-256, size and the archive it went into.
+ */
+class ArtifactPacker {
+
+    static final String DEFAULT_DIR = "artifacts";
+    static final String MANIFEST = "manifest.json";
+    static final int DEFAULT_CHUNK_MB = 50;
+
+    private static final Set<String> STORED = new HashSet<>(Arrays.asList("png", "jpg", "jpeg", "gif", "webp", "zip"));
+
+    /** One packed file. */
+    static class Entry {
+        final String file;
+        final long size;
+        String course;
+        Integer packageNumber;
+        Integer tab;
+        String sha256;
+        String archive;
+
+        Entry(String file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("file", file);
+            json.put("course", course);
+            json.put("package", packageNumber);
+            json.put("tab", tab);
+            json.put("sha256", sha256);
+            json.put("size", size);
+            json.put("archive", archive);
+            return json;
+        }
+    }
+
+    /** What a pack run produced: the archives with their sizes, and every packed file. */
+    static class Manifest {
+        final Map<String, Long> archives = new LinkedHashMap<>();
+        final List<Entry> entries = new ArrayList<>();
+
+        long inputBytes() {
+            long total = 0;
+            for (Entry entry : entries) total += entry.size;
+            return total;
+        }
+
+        long archiveBytes() {
+            long total = 0;
+            for (long bytes : archives.values()) total += bytes;
+            return total;
+        }
+    }
+
+    /**
+     * Packs every file under sourceDir (thumbnails excepted) into outDir/&lt;prefix&gt;-NN.zip
+     * and writes outDir/manifest.json. labels maps a file path to its course, package
+     * and tab (the keys "course", "package" and "tab" of a results record); unlabelled
+     * files are packed too. Returns an empty manifest when there is nothing to pack.
+     */
+    static Manifest pack(File sourceDir, File outDir, String prefix, long chunkBytes,
+                         Map<String, Map<String, Object>> labels) throws IOException {
+        long start = RunClock.millis();
+        Manifest manifest = new Manifest();
+
+        List<Entry> entries = listFiles(sourceDir);
+        if (entries.isEmpty()) {
+            Log.info("📦 Nothing to pack in {}", sourceDir);
+            return manifest;
+        }
+        for (Entry entry : entries) {
+            Map<String, Object> label = labels.get(entry.file);
+            if (label == null) continue;
+            entry.course = (String) label.get("course");
+            entry.packageNumber = asInteger(label.get("package"));
+            entry.tab = asInteger(label.get("tab"));
+        }
+
+        List<List<Entry>> chunks = chunk(entries, chunkBytes);
+        outDir.mkdirs();
+        ExecutorService pool = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(chunks.size(), Runtime.getRuntime().availableProcessors())), runnable -> {
+                Thread thread = new Thread(runnable, "artifact-packer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        try {
+            Map<String, Future<Long>> pending = new LinkedHashMap<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                String name = String.format("%s-%02d.zip", prefix, i + 1);
+                List<Entry> chunk = chunks.get(i);
+                File archive = new File(outDir, name);
+                pending.put(name, pool.submit(() -> writeArchive(archive, chunk)));
+            }
+            for (Map.Entry<String, Future<Long>> archive : pending.entrySet()) {
+                try {
+                    manifest.archives.put(archive.getKey(), archive.getValue().get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while packing " + archive.getKey());
+                } catch (ExecutionException e) {
+                    throw new IOException("could not write " + archive.getKey() + ": " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        manifest.entries.addAll(entries);
+        writeManifest(new File(outDir, MANIFEST), manifest);
+
+        Log.info("📦 Packed {} files ({} MB) into {} archive(s) ({} MB) in {} ms",
+            entries.size(), megabytes(manifest.inputBytes()), manifest.archives.size(),
+            megabytes(manifest.archiveBytes()), RunClock.millis() - start);
+        return manifest;
+    }
+
+    /**
+     * Unpacks the archives listed in packDir/manifest.json into targetDir and checks
+     * each file against its hash. Returns the number of files restored (0 when there
+     * is no manifest); files that fail the check are deleted and logged.
+     */
+    static int unpack(File packDir, File targetDir) throws IOException {
+        File manifestFile = new File(packDir, MANIFEST);
+        if (!manifestFile.exists()) return 0;
+
+        Map<String, Object> manifest = Json.parseObject(
+            new String(Files.readAllBytes(manifestFile.toPath()), StandardCharsets.UTF_8));
+        Map<String, String> hashes = new HashMap<>();
+        for (Object item : (List<?>) manifest.getOrDefault("files", Collections.emptyList())) {
+            Map<?, ?> file = (Map<?, ?>) item;
+            hashes.put((String) file.get("file"), (String) file.get("sha256"));
+        }
+
+        Path root = targetDir.toPath().toAbsolutePath().normalize();
+        int restored = 0;
+        for (Object item : (List<?>) manifest.getOrDefault("archives", Collections.emptyList())) {
+            String name = (String) ((Map<?, ?>) item).get("name");
+            try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(new FileInputStream(new File(packDir, name))))) {
+                ZipEntry zipEntry;
+                while ((zipEntry = zip.getNextEntry()) != null) {
+                    if (zipEntry.isDirectory()) continue;
+                    Path target = root.resolve(zipEntry.getName()).normalize();
+                    if (!target.startsWith(root)) {
+                        Log.warn("⚠️  Skipping {} in {}: outside the target directory", zipEntry.getName(), name);
+                        continue;
+                    }
+                    if (target.getParent() != null) Files.createDirectories(target.getParent());
+                    Files.copy(zip, target, StandardCopyOption.REPLACE_EXISTING);
+
+                    String expected = hashes.get(zipEntry.getName());
+                    if (expected != null && !expected.equals(RunResultsStore.sha256(target.toString()))) {
+                        Log.warn("⚠️  {} in {} does not match its manifest hash, dropped", zipEntry.getName(), name);
+                        Files.delete(target);
+                        continue;
+                    }
+                    restored++;
+                }
+            }
+        }
+        Log.info("📦 Unpacked {} files from {}", restored, packDir);
+        return restored;
+    }
+
+    private static List<Entry> listFiles(File sourceDir) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!sourceDir.isDirectory()) return entries;
+
+        Path base = sourceDir.toPath();
+        Path thumbs = base.resolve("thumbs");
+        List<Path> files = new ArrayList<>();
+        try (java.util.stream.Stream<Path> walk = Files.walk(base)) {
+            walk.filter(Files::isRegularFile).filter(path -> !path.startsWith(thumbs)).forEach(files::add);
+        }
+        // name order keeps the chunking, and with it each archive's contents, stable between runs
+        Collections.sort(files);
+        for (Path file : files) {
+            // the path as the results records hold it, e.g. screenshots/QR_...png
+            String name = sourceDir.getPath().replace(File.separatorChar, '/') + "/"
+                + base.relativize(file).toString().replace(File.separatorChar, '/');
+            entries.add(new Entry(name, Files.size(file)));
+        }
+        return entries;
+    }
+
+    /** Consecutive runs of files of about chunkBytes each; a file larger than that gets a chunk of its own. */
+    private static List<List<Entry>> chunk(List<Entry> entries, long chunkBytes) {
+        List<List<Entry>> chunks = new ArrayList<>();
+        List<Entry> current = new ArrayList<>();
+        long size = 0;
+        for (Entry entry : entries) {
+            if (!current.isEmpty() && size + entry.size > chunkBytes) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                size = 0;
+            }
+            current.add(entry);
+            size += entry.size;
+        }
+        if (!current.isEmpty()) chunks.add(current);
+        return chunks;
+    }
+
+    /** Writes one archive, hashing each file on the way, and returns the archive's size. */
+    private static long writeArchive(File archive, List<Entry> entries) throws Exception {
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(archive), 256 * 1024))) {
+            zip.setLevel(Deflater.BEST_SPEED);
+            for (Entry entry : entries) {
+                byte[] bytes = Files.readAllBytes(Paths.get(entry.file));
+                entry.sha256 = hex(MessageDigest.getInstance("SHA-256").digest(bytes));
+                entry.archive = archive.getName();
+
+                ZipEntry zipEntry = new ZipEntry(entry.file);
+                if (STORED.contains(extension(entry.file))) {
+                    CRC32 crc = new CRC32();
+                    crc.update(bytes);
+                    zipEntry.setMethod(ZipEntry.STORED);
+                    zipEntry.setSize(bytes.length);
+                    zipEntry.setCompressedSize(bytes.length);
+                    zipEntry.setCrc(crc.getValue());
+                }
+                zip.putNextEntry(zipEntry);
+                zip.write(bytes);
+                zip.closeEntry();
+            }
+        }
+        return archive.length();
+    }
+
+    private static void writeManifest(File file, Manifest manifest) throws IOException {
+        Map<String, Long> fileCounts = new HashMap<>();
+        List<Object> files = new ArrayList<>();
+        for (Entry entry : manifest.entries) {
+            fileCounts.merge(entry.archive, 1L, Long::sum);
+            files.add(entry.toJson());
+        }
+        List<Object> archives = new ArrayList<>();
+        for (Map.Entry<String, Long> archive : manifest.archives.entrySet()) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("name", archive.getKey());
+            json.put("files", fileCounts.getOrDefault(archive.getKey(), 0L));
+            json.put("bytes", archive.getValue());
+            archives.add(json);
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("generated", RunClock.now().toString());
+        json.put("inputBytes", manifest.inputBytes());
+        json.put("archiveBytes", manifest.archiveBytes());
+        json.put("archives", archives);
+        json.put("files", files);
+        Files.write(file.toPath(), Json.write(json).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Integer asInteger(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+
+    private static String extension(String file) {
+        int dot = file.lastIndexOf('.');
+        return dot < 0 ? "" : file.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String hex(byte[] digest) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    static String megabytes(long bytes) {
+        return String.format(Locale.ROOT, "%.1f", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,68 @@
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Tells a dead or hung browser session apart from an ordinary page failure.
+ *
+ * The heartbeat is the cheapest WebDriver command there is (asking for the
+ * current window handle), run on a separate thread with a timeout so that a
+ * ChromeDriver that no longer answers counts as dead instead of blocking the tab.
+ * Code that finds the session gone throws SessionLost with the point it reached,
+ * and the tab replaces the browser and carries on from there.
+ */
+class BrowserWatchdog {
+
+    /** The browser died; work should resume at packageIndex of the current course. */
+    static class SessionLost extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int packageIndex;
+
+        SessionLost(int packageIndex, Throwable cause) {
+            super("browser session lost at package " + (packageIndex + 1)
+                + (cause != null && cause.getMessage() != null ? ": " + firstLine(cause.getMessage()) : ""), cause);
+            this.packageIndex = packageIndex;
+        }
+    }
+
+    private static final ExecutorService PROBES = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "browser-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static volatile Duration timeout = Duration.ofSeconds(10);
+
+    static void setTimeout(Duration heartbeatTimeout) {
+        timeout = heartbeatTimeout;
+    }
+
+    /** True when the session still answers a trivial command within the heartbeat timeout. */
+    static boolean isAlive(WebDriver driver) {
+        if (driver == null) return false;
+        Future<String> probe = PROBES.submit(driver::getWindowHandle);
+        try {
+            return probe.get(timeout.toMillis(), TimeUnit.MILLISECONDS) != null;
+        } catch (Exception e) {
+            probe.cancel(true);
+            return false;
+        }
+    }
+
+    /** Quits a session that may already be dead or hung, giving up after the heartbeat timeout. */
+    static void quitQuietly(Runnable quit) {
+        Future<?> closing = PROBES.submit(quit);
+        try {
+            closing.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            closing.cancel(true);
+        }
+    }
+
+    private static String firstLine(String message) {
+        int newline = message.indexOf('\n');
+        return newline >= 0 ? message.substring(0, newline) : message;
+    }
+}
@@ -0,0 +1,189 @@
+import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * AIMD (additive increase, multiplicative decrease) control of how many tabs work
+ * at once.
+ *
+ * Tabs report each finished package: its step durations and whether it failed.
+ * After every window of packages the controller compares the window's median
+ * step latency with a baseline, a moving average of the earlier windows' medians,
+ * and looks at the failure rate. The average moves a fifth of the way towards
+ * each new window, so one unusually fast window (a cached page, an idle site)
+ * cannot set the bar for the rest of the run, and a site that is slower all day
+ * becomes the new normal after a few windows.
+ * A healthy window adds one tab; a slow or failing one (the site starting to
+ * throttle) halves the count, never going below the minimum or above the
+ * maximum. Only the lowest-numbered live tabs up to the limit take work; the
+ * others finish their current course and wait, and pick up work again when the
+ * limit grows or a tab ahead of them stops. Every decision is logged and handed
+ * to a listener so the run history shows why the level changed.
+ */
+class ConcurrencyController {
+
+    // how far the baseline moves towards each window's median
+    static final double BASELINE_WEIGHT = 0.2;
+
+    /** One limit decision, kept for the audit trail. */
+    static class Decision {
+        final int from;
+        final int to;
+        final String reason;
+        final long latencyMs;
+        final long baselineMs;
+        final double errorRate;
+        final int samples;
+
+        Decision(int from, int to, String reason, long latencyMs, long baselineMs, double errorRate, int samples) {
+            this.from = from;
+            this.to = to;
+            this.reason = reason;
+            this.latencyMs = latencyMs;
+            this.baselineMs = baselineMs;
+            this.errorRate = errorRate;
+            this.samples = samples;
+        }
+    }
+
+    private final int min;
+    private final int max;
+    private final int initial;
+    private final double latencyTolerance;
+    private final double errorThreshold;
+    private final Set<String> ignoredSteps;
+    private final Consumer<Decision> listener;
+
+    private int limit;
+    private int peak;
+    private long baselineMs = -1;
+    private final List<Long> windowLatencies = new ArrayList<>();
+    private int windowFailures;
+    private final TreeSet<Integer> liveTabs = new TreeSet<>();
+
+    /**
+     * @param latencyTolerance how much slower than the baseline (0.5 = 50%) still counts as healthy
+     * @param errorThreshold   failure rate in a window that triggers a decrease
+     * @param ignoredSteps     fixed waits (e.g. qr_wait) that say nothing about site latency
+     */
+    ConcurrencyController(int min, int max, int initial, double latencyTolerance, double errorThreshold,
+                          Collection<String> ignoredSteps, Consumer<Decision> listener) {
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.initial = Math.max(this.min, Math.min(this.max, initial));
+        this.limit = this.initial;
+        this.peak = this.initial;
+        this.latencyTolerance = latencyTolerance;
+        this.errorThreshold = errorThreshold;
+        this.ignoredSteps = new HashSet<>(ignoredSteps);
+        this.listener = listener;
+    }
+
+    synchronized int limit() {
+        return limit;
+    }
+
+    int min() {
+        return min;
+    }
+
+    int max() {
+        return max;
+    }
+
+    int initial() {
+        return initial;
+    }
+
+    /** Highest limit reached so far. */
+    synchronized int peak() {
+        return peak;
+    }
+
+    /** Records one finished package; decides on a new limit once a full window has been seen. */
+    void observe(Map<String, Long> stepDurations, boolean failed) {
+        Decision decision;
+        synchronized (this) {
+            long latency = 0;
+            for (Map.Entry<String, Long> step : stepDurations.entrySet()) {
+                if (!ignoredSteps.contains(step.getKey())) {
+                    latency += step.getValue();
+                }
+            }
+            windowLatencies.add(latency);
+            if (failed) windowFailures++;
+
+            // one package per active tab, so each tab has had a say in the window
+            if (windowLatencies.size() < Math.max(2, limit)) return;
+            decision = decide();
+            notifyAll();
+        }
+
+        // holds are frequent once the level settles, so only changes are logged at info
+        Log.log(decision.from != decision.to ? Log.Level.INFO : Log.Level.DEBUG,
+            "🎚️  Concurrency {} → {} ({}: latency {}ms vs baseline {}ms, errors {}%, {} packages)",
+            decision.from, decision.to, decision.reason, decision.latencyMs, decision.baselineMs,
+            Math.round(decision.errorRate * 100), decision.samples);
+        if (listener != null) {
+            listener.accept(decision);
+        }
+    }
+
+    private Decision decide() {
+        List<Long> sorted = new ArrayList<>(windowLatencies);
+        Collections.sort(sorted);
+        long median = sorted.get(sorted.size() / 2);
+        int samples = sorted.size();
+        double errorRate = windowFailures / (double) samples;
+        windowLatencies.clear();
+        windowFailures = 0;
+
+        if (baselineMs < 0) {
+            baselineMs = median;
+        }
+        long baseline = baselineMs;
+        // judged against the earlier windows, then folded in
+        baselineMs = Math.round(baselineMs + BASELINE_WEIGHT * (median - baselineMs));
+
+        int from = limit;
+        String reason;
+        if (errorRate > errorThreshold) {
+            limit = Math.max(min, limit / 2);
+            reason = "decrease, failures";
+        } else if (median > baseline * (1 + latencyTolerance)) {
+            limit = Math.max(min, limit / 2);
+            reason = "decrease, latency";
+        } else if (limit < max) {
+            limit++;
+            peak = Math.max(peak, limit);
+            reason = "increase";
+        } else {
+            reason = "hold at max";
+        }
+        return new Decision(from, limit, reason, median, baseline, errorRate, samples);
+    }
+
+    /** Registers a tab as able to take work; tabs are ranked by number. */
+    synchronized void join(int tabNumber) {
+        liveTabs.add(tabNumber);
+        notifyAll();
+    }
+
+    /** Removes a tab that has stopped (finished or crashed) so the next one moves up. */
+    synchronized void leave(int tabNumber) {
+        liveTabs.remove(tabNumber);
+        notifyAll();
+    }
+
+    /**
+     * Blocks a tab while its rank among the live tabs is beyond the limit. Returns
+     * false once there is no work left, so parked tabs exit instead of waiting.
+     */
+    synchronized boolean awaitTurn(int tabNumber, BooleanSupplier workLeft) throws InterruptedException {
+        while (liveTabs.headSet(tabNumber).size() >= limit) {
+            if (!workLeft.getAsBoolean()) return false;
+            wait(1000);
+        }
+        return workLeft.getAsBoolean();
+    }
+}
@@ -0,0 +1,19 @@
+/** The final outcome of one CBT course: a row of the CBT report. */
+class CourseResult {
+    String courseName;
+    String status;
+    String timestamp;
+    String screenshotPath;
+    String errorMessage;
+    String qrPayload;
+    String qrStatus;
+    int qrAttempts;
+
+    CourseResult(String name, String status, String time, String screenshot, String error) {
+        this.courseName = name;
+        this.status = status;
+        this.timestamp = time;
+        this.screenshotPath = screenshot;
+        this.errorMessage = error;
+    }
+}
@@ -0,0 +1,381 @@
+import org.openqa.selenium.*;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The automation both runners are built on: browser setup, login, waits, the
+ * checkout steps around a flow, results and the report lifecycle.
+ *
+ * DAMSParallel (courses and packages over several tabs) and DamsDelhiLogin (CBT
+ * courses in one browser) keep only what differs between them: how they get to a
+ * course, and their flow file under flows/. Everything the two did the same way is
+ * here once, with one set of timings, so a speed-up or a fix applies to both.
+ *
+ * A null NetworkGovernor means a single browser with nothing to serialize against.
+ */
+final class DamsCore {
+
+    static final String HOME_URL = "https://www.damsdelhi.com/";
+
+    private static final NetworkGovernor.Permit NO_PERMIT = () -> {};
+
+    // JVM start to the first ChromeDriver, the startup cost the class-data archive (see Launcher) cuts
+    private static final AtomicLong firstDriverMs = new AtomicLong(-1);
+
+    private DamsCore() {}
+
+    // ---- driver lifecycle ----
+
+    static ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+
+        // GitHub Actions environment detection
+        String ciEnv = System.getenv("CI");
+        if ("true".equals(ciEnv)) {
+            Log.info("🔧 Detected GitHub Actions environment");
+            options.addArguments("--headless=new");
+            options.addArguments("--no-sandbox");
+            options.addArguments("--disable-dev-shm-usage");
+            options.addArguments("--disable-gpu");
+            options.addArguments("--window-size=1920,1080");
+
+            // Use system ChromeDriver in GitHub Actions
+            System.setProperty("webdriver.chrome.driver", "/usr/local/bin/chromedriver");
+        } else {
+            // Local environment
+            System.setProperty("webdriver.chrome.driver", "chromedriver.exe");
+            options.addArguments("--start-maximized");
+        }
+
+        options.addArguments("--remote-allow-origins=*");
+        options.addArguments("--disable-blink-features=AutomationControlled");
+        options.addArguments("--disable-extensions");
+        options.addArguments("--disable-software-rasterizer");
+        options.addArguments("--disable-notifications");
+
+        return options;
+    }
+
+    /** A new Chrome with page events attached, so waits wake on what the page does. */
+    static WebDriver openDriver() {
+        WebDriver driver = new ChromeDriver(chromeOptions());
+        driverReady();
+        PageEvents.attach(driver);
+        return driver;
+    }
+
+    static void closeDriver(WebDriver driver) {
+        if (driver == null) return;
+        PageEvents.detach(driver);
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            Log.debug("Driver already gone: {}", e.getMessage());
+        }
+    }
+
+    // ---- startup ----
+
+    /** Milliseconds since this JVM started (wall clock, not RunClock: this measures the process). */
+    static long sinceJvmStartMs() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    /** Notes the first ChromeDriver of the process; called by whatever created it. */
+    static void driverReady() {
+        if (firstDriverMs.compareAndSet(-1, sinceJvmStartMs())) {
+            String archive = classDataArchive();
+            Log.info("🚀 First ChromeDriver ready {}ms after JVM start ({})", firstDriverMs.get(),
+                archive != null ? "class-data archive " + archive : "no class-data archive");
+        }
+    }
+
+    /** JVM start to the first ChromeDriver in ms, or -1 when none was opened yet. */
+    static long firstDriverMs() {
+        return firstDriverMs.get();
+    }
+
+    /** The AppCDS archive this JVM was started with, or null. */
+    static String classDataArchive() {
+        for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (arg.startsWith("-XX:SharedArchiveFile=")) return arg.substring("-XX:SharedArchiveFile=".length());
+        }
+        return null;
+    }
+
+    // ---- waits ----
+
+    static WebDriverWait waitFor(WebDriver driver) {
+        return PageEvents.waitFor(driver, Duration.ofSeconds(30));
+    }
+
+    /** Up to the given seconds for the page to finish what the last action started (see PageEvents.settle). */
+    static void settle(WebDriver driver, int seconds) {
+        PageEvents.settle(driver, seconds * 1000L);
+    }
+
+    static void sleep(int seconds) {
+        try {
+            Thread.sleep(seconds * 1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** The governor's permit, or one that holds nothing when there is no governor. */
+    static NetworkGovernor.Permit permit(NetworkGovernor network) {
+        return network != null ? network.acquire() : NO_PERMIT;
+    }
+
+    @SuppressWarnings("try")
+    static void home(WebDriver driver, NetworkGovernor network) {
+        try (NetworkGovernor.Permit permit = permit(network)) {
+            driver.get(HOME_URL);
+            settle(driver, 3);
+        }
+    }
+
+    // ---- steps ----
+
+    /** Logs in with the phone number and OTP; false when any step of the login failed. */
+    static boolean login(WebDriver driver, String phoneNumber, String otp, NetworkGovernor network) {
+        try {
+            Log.info("🔐 Logging in with {}...", phoneNumber);
+
+            WebDriverWait wait = waitFor(driver);
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+
+            home(driver, network);
+
+            try {
+                WebElement signInBtn = Locators.await(wait, Locators.SIGN_IN_BUTTON);
+                js.executeScript("arguments[0].click();", signInBtn);
+                sleep(2);
+            } catch (Exception e) {
+                try {
+                    WebElement signInBtn = Locators.await(wait, Locators.SIGN_IN_LINK);
+                    js.executeScript("arguments[0].click();", signInBtn);
+                    sleep(2);
+                } catch (Exception e2) {
+                    Log.warn("⚠️  Sign in button not found");
+                }
+            }
+
+            WebElement phoneInput = Locators.await(wait, Locators.PHONE_INPUT);
+            phoneInput.clear();
+            phoneInput.sendKeys(phoneNumber);
+            sleep(1);
+
+            WebElement otpBtn = Locators.await(wait, Locators.BOTTOM_BUTTON);
+            js.executeScript("arguments[0].click();", otpBtn);
+            settle(driver, 2);
+
+            WebElement logoutBtn = Locators.first(driver, Locators.LOGOUT_OTHER_SESSION);
+            if (logoutBtn != null) {
+                js.executeScript("arguments[0].click();", logoutBtn);
+                sleep(2);
+            }
+
+            WebElement otpInput = Locators.await(wait, Locators.OTP_INPUT);
+            otpInput.clear();
+            otpInput.sendKeys(otp);
+            sleep(1);
+
+            WebElement submitBtn = Locators.await(wait, Locators.BOTTOM_BUTTON);
+            js.executeScript("arguments[0].click();", submitBtn);
+            settle(driver, 5);
+
+            Log.info("✓ Login successful");
+            return true;
+
+        } catch (Exception e) {
+            Log.error("❌ Login failed for {}: {}", phoneNumber, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Closes the payment window and whatever the site shows after it (feedback,
+     * modals). cacheKey is the SelectorCache key the close button is remembered under.
+     */
+    static void closePaymentWindow(WebDriver driver, String cacheKey) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        try {
+            WebElement closeBtn = SelectorCache.findNow(driver, cacheKey, Locators.PAYMENT_CLOSE);
+
+            if (closeBtn != null) {
+                try {
+                    js.executeScript("arguments[0].click();", closeBtn);
+                    Log.info("    ✓ Closed payment window");
+                    settle(driver, 8);
+                } catch (Exception e) {}
+            }
+
+            WebElement skipBtn = Locators.firstOf(driver, Locators.FEEDBACK_SKIP);
+            if (skipBtn != null) {
+                js.executeScript("arguments[0].click();", skipBtn);
+                sleep(2);
+            }
+
+            WebElement modalBtn = Locators.firstOf(driver, Locators.MODAL_CLOSE);
+            if (modalBtn != null) {
+                js.executeScript("arguments[0].click();", modalBtn);
+                sleep(2);
+            }
+
+        } catch (Exception e) {
+            Log.warn("    ⚠️  Issue closing payment: {}", e.getMessage());
+        }
+    }
+
+    // ---- checkout ----
+
+    /** What a checkout flow captured: the QR image (screenshot or network image) and/or the UPI payload. */
+    static class Capture {
+        final String filepath;
+        final String timestamp;
+        final String upi;
+        // the QR image saved from the network, when there was one; may be filepath itself
+        final String networkImage;
+
+        Capture(String filepath, String timestamp, String upi, String networkImage) {
+            this.filepath = filepath;
+            this.timestamp = timestamp;
+            this.upi = upi;
+            this.networkImage = networkImage;
+        }
+    }
+
+    /**
+     * A flow context with the checkout handlers every flow uses: captureScreenshot,
+     * saveScreenshot and closePaymentWindow, plus the QR capture set up for the
+     * configured mode. Files are named imagePrefix_&lt;stamp&gt;.png (and _net for a
+     * QR read from the network). Runner-specific handlers and variables are added
+     * by the caller.
+     */
+    static Flow.Context checkout(WebDriver driver, StepTimer timer, NetworkGovernor network,
+                                 String imagePrefix, String paymentCloseKey) {
+        Flow.Context context = new Flow.Context(driver, timer, network)
+            .handler("captureScreenshot", flow -> {
+                String timestamp = RunClock.uniqueStamp();
+                flow.set("timestamp", timestamp);
+                flow.set("filename", imagePrefix + "_" + timestamp + ".png");
+                flow.set("capture", ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE));
+            })
+            .handler("saveScreenshot", flow -> {
+                Files.copy(((File) flow.get("capture")).toPath(), new File(flow.getString("filename")).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+                Log.info("    📸 Screenshot saved: {}", flow.getString("filename"));
+            })
+            .handler("closePaymentWindow", flow -> closePaymentWindow(driver, paymentCloseKey));
+        return QrCapture.attach(context, imagePrefix + "_" + RunClock.uniqueStamp() + "_net");
+    }
+
+    /** Runs a checkout flow and returns what it captured; an image QR from the network stands in for a missing screenshot. */
+    static Capture runCheckout(Flow flow, Flow.Context context) throws Exception {
+        flow.run(context);
+        QrCapture.Payload payload = (QrCapture.Payload) context.get("qrPayload");
+        String filename = context.getString("filename");
+        String networkImage = payload != null && payload.kind.equals("image") ? payload.value : null;
+        if (filename == null) {
+            filename = networkImage;
+        }
+        String timestamp = context.getString("timestamp");
+        return new Capture(filename, timestamp != null ? timestamp : RunClock.uniqueStamp(),
+                           payload != null && payload.kind.equals("upi") ? payload.value : null, networkImage);
+    }
+
+    /** Deletes the files of a capture that is about to be retried, so only the final attempt's are reported and packed. */
+    static void discardCapture(String... files) {
+        for (String file : new LinkedHashSet<>(Arrays.asList(files))) {
+            if (file == null) continue;
+            try {
+                if (Files.deleteIfExists(new File(file).toPath())) {
+                    Log.info("    🗑️  Discarded rejected capture {}", file);
+                }
+            } catch (IOException e) {
+                Log.warn("    ⚠️  Could not discard {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /** File-name-safe form of a course name. */
+    static String fileSafe(String name) {
+        return name.replaceAll("[^a-zA-Z0-9]", "_");
+    }
+
+    // ---- results ----
+
+    /** Appends the run record (start, duration and the runner's own fields) and closes the store. */
+    static void recordRun(RunResultsStore store, long startMillis, Map<String, Object> fields) {
+        if (store == null) return;
+
+        Map<String, Object> record = store.record("run");
+        record.put("start", java.time.Instant.ofEpochMilli(startMillis).toString());
+        record.put("durationMs", RunClock.millis() - startMillis);
+        record.put("firstDriverMs", firstDriverMs() >= 0 ? firstDriverMs() : null);
+        record.put("classDataArchive", classDataArchive());
+        record.put("logLinesLost", Log.lost());
+        record.putAll(fields);
+        store.append(record);
+        store.close();
+        Log.info("🗂️  Results appended to {}", store.getPath());
+    }
+
+    // ---- reporting ----
+
+    /** Starts a live report; null (and a warning) when it cannot be written. */
+    static StreamingReportWriter startReport(String filename, String head) {
+        try {
+            StreamingReportWriter writer = new StreamingReportWriter(filename);
+            writer.begin(head);
+            Log.info("📄 Live report: {}\n", writer.getFilename());
+            return writer;
+        } catch (Exception e) {
+            Log.warn("⚠️  Could not start live report: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Finishes a live report, or writes a fresh one under fallbackName when none was started;
+     * sortByKey puts the sections in key order instead of the order they were appended.
+     */
+    static void finishReport(StreamingReportWriter writer, String fallbackName, String head, String tail,
+                             boolean sortByKey) {
+        Log.info("\n📄 Generating HTML report...");
+        try {
+            if (writer == null) {
+                writer = new StreamingReportWriter(fallbackName);
+            }
+            writer.finish(head, tail, sortByKey);
+            Log.info("✅ Report saved: {}", writer.getFilename());
+        } catch (Exception e) {
+            Log.error("❌ Report generation failed: {}", e.getMessage(), e);
+        }
+    }
+
+    static String formatDuration(long seconds) {
+        long hours = seconds / 3600;
+        long minutes = (seconds % 3600) / 60;
+        long secs = seconds % 60;
+
+        if (hours > 0) {
+            return String.format("%dh %dm %ds", hours, minutes, secs);
+        } else if (minutes > 0) {
+            return String.format("%dm %ds", minutes, secs);
+        } else {
+            return String.format("%ds", secs);
+        }
+    }
+}
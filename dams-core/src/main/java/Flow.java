@@ -0,0 +1,468 @@
+import org.openqa.selenium.*;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A checkout flow read from a JSON definition (see flows/) and compiled once at
+ * startup into a step graph.
+ *
+ * Each step names an action (click, clickNth, waitFor, sleep or call, which runs a
+ * handler supplied by the runner), its locators, timeout, pauses and whether it is
+ * optional. A step depends on the step listed before it unless "after" names its
+ * dependencies. Steps marked "concurrent" run in the background and only the
+ * steps that depend on them wait, so independent work overlaps. Browser steps
+ * always run on the calling thread, because a WebDriver session handles one
+ * command at a time; only sleep and call steps may be concurrent.
+ *
+ * Locators are written as "xpath:...", "css:...", "id:..." or "class:..."; css is the
+ * faster choice when a locator tests no text. Each one is registered with Locators
+ * as flow.step for the hit and miss counts. Timing lives in the file, so tuning a
+ * wait or pause needs no recompile.
+ */
+class Flow {
+
+    interface Handler {
+        void run(Context context) throws Exception;
+    }
+
+    /** Everything a running flow needs: the tab's driver, its step timer, variables and handlers. */
+    static class Context {
+        final WebDriver driver;
+        final JavascriptExecutor js;
+        final StepTimer timer;
+        final NetworkGovernor network;
+        private final Map<String, Object> vars = new ConcurrentHashMap<>();
+        private final Map<String, Handler> handlers = new HashMap<>();
+
+        Context(WebDriver driver, StepTimer timer, NetworkGovernor network) {
+            this.driver = driver;
+            this.js = (JavascriptExecutor) driver;
+            this.timer = timer;
+            this.network = network;
+        }
+
+        Context set(String name, Object value) {
+            if (value == null) vars.remove(name);
+            else vars.put(name, value);
+            return this;
+        }
+
+        Object get(String name) {
+            return vars.get(name);
+        }
+
+        String getString(String name) {
+            Object value = vars.get(name);
+            return value != null ? value.toString() : null;
+        }
+
+        int getInt(String name) {
+            Object value = vars.get(name);
+            return value instanceof Number ? ((Number) value).intValue() : 0;
+        }
+
+        boolean isSet(String name) {
+            Object value = vars.get(name);
+            return value instanceof Boolean ? (Boolean) value : value != null;
+        }
+
+        Context handler(String name, Handler handler) {
+            handlers.put(name, handler);
+            return this;
+        }
+    }
+
+    private static class Step {
+        String id;
+        String action;
+        String timer;
+        String cache;
+        By[] locators = new By[0];
+        long timeoutMs;
+        boolean visible;
+        boolean scroll;
+        long settleMs;
+        long pauseMs;
+        boolean network;
+        boolean optional;
+        String index;
+        boolean strictIndex;
+        String when;
+        String handler;
+        boolean concurrent;
+        String announce;
+        String log;
+        String skipLog;
+        Log.Level skipLevel = Log.Level.INFO;
+        final List<Step> after = new ArrayList<>();
+    }
+
+    private static final Set<String> ACTIONS = new HashSet<>(Arrays.asList(
+        "click", "clickNth", "waitFor", "sleep", "call"));
+
+    private static final ExecutorService BACKGROUND = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "flow-step");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String name;
+    private final List<Step> steps;
+
+    private Flow(String name, List<Step> steps) {
+        this.name = name;
+        this.steps = steps;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /** Reads and compiles a flow definition, failing fast on anything malformed. */
+    static Flow load(String path) throws IOException {
+        String text = read(path);
+        Map<String, Object> definition;
+        try {
+            definition = Json.parseObject(text);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid flow " + path + ": " + e.getMessage());
+        }
+
+        String flowName = str(definition.get("name"), new File(path).getName().replaceAll("\\.json$", ""));
+        Map<String, Object> defaults = map(definition.get("defaults"));
+        Map<String, Step> byId = new LinkedHashMap<>();
+        Map<String, Map<String, Object>> rawById = new HashMap<>();
+        List<Step> steps = new ArrayList<>();
+
+        Object rawSteps = definition.get("steps");
+        if (!(rawSteps instanceof List) || ((List<?>) rawSteps).isEmpty()) {
+            throw new IOException("Flow " + flowName + " has no steps");
+        }
+
+        for (Object item : (List<?>) rawSteps) {
+            Map<String, Object> raw = new HashMap<>(defaults);
+            Map<String, Object> own = map(item);
+            String like = str(own.get("like"), null);
+            if (like != null) {
+                if (!rawById.containsKey(like)) {
+                    throw new IOException("Flow " + flowName + ": 'like' refers to unknown step " + like);
+                }
+                raw.putAll(rawById.get(like));
+                raw.remove("after");
+            }
+            raw.putAll(own);
+
+            Step step = compile(flowName, raw);
+            if (byId.containsKey(step.id)) {
+                throw new IOException("Flow " + flowName + ": duplicate step id " + step.id);
+            }
+
+            Object after = raw.get("after");
+            if (after instanceof List) {
+                for (Object dependency : (List<?>) after) {
+                    Step previous = byId.get(String.valueOf(dependency));
+                    if (previous == null) {
+                        throw new IOException("Flow " + flowName + ": step " + step.id
+                            + " runs after unknown or later step " + dependency);
+                    }
+                    step.after.add(previous);
+                }
+            } else if (!steps.isEmpty()) {
+                step.after.add(steps.get(steps.size() - 1));
+            }
+
+            byId.put(step.id, step);
+            rawById.put(step.id, raw);
+            steps.add(step);
+        }
+
+        return new Flow(flowName, Collections.unmodifiableList(steps));
+    }
+
+    /** The flow file at path, or the resource of that name on the classpath (the flows packaged in the jar). */
+    private static String read(String path) throws IOException {
+        File file = new File(path);
+        if (file.exists()) {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        }
+        try (InputStream in = Flow.class.getClassLoader().getResourceAsStream(path.replace(File.separatorChar, '/'))) {
+            if (in == null) throw new FileNotFoundException("No flow file or resource " + path);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Step compile(String flowName, Map<String, Object> raw) throws IOException {
+        Step step = new Step();
+        step.id = str(raw.get("id"), null);
+        if (step.id == null) throw new IOException("Flow " + flowName + ": step without id");
+
+        step.action = str(raw.get("action"), "click");
+        if (!ACTIONS.contains(step.action)) {
+            throw new IOException("Flow " + flowName + ": step " + step.id + " has unknown action " + step.action);
+        }
+
+        Object locators = raw.get("locators");
+        if (locators instanceof List) {
+            List<By> compiled = new ArrayList<>();
+            List<?> raws = (List<?>) locators;
+            for (int i = 0; i < raws.size(); i++) {
+                String locatorName = flowName + "." + step.id + (raws.size() > 1 ? "[" + i + "]" : "");
+                compiled.add(Locators.register(locatorName, toBy(flowName, step.id, String.valueOf(raws.get(i)))));
+            }
+            step.locators = compiled.toArray(new By[0]);
+        }
+        boolean needsLocators = step.action.equals("click") || step.action.equals("clickNth")
+            || step.action.equals("waitFor");
+        if (needsLocators && step.locators.length == 0) {
+            throw new IOException("Flow " + flowName + ": step " + step.id + " needs locators");
+        }
+
+        step.timer = str(raw.get("timer"), null);
+        step.cache = str(raw.get("cache"), flowName + "." + step.id);
+        step.timeoutMs = millis(raw.get("timeoutSeconds"));
+        step.visible = bool(raw.get("visible"));
+        step.scroll = bool(raw.get("scroll"));
+        step.settleMs = millis(raw.get("settleSeconds"));
+        step.pauseMs = millis(raw.get("pauseSeconds"));
+        step.network = bool(raw.get("network"));
+        step.optional = bool(raw.get("optional"));
+        step.index = str(raw.get("index"), null);
+        step.strictIndex = bool(raw.get("strictIndex"));
+        step.when = str(raw.get("when"), null);
+        step.handler = str(raw.get("handler"), null);
+        step.concurrent = bool(raw.get("concurrent"));
+        step.announce = str(raw.get("announce"), null);
+        step.log = str(raw.get("log"), null);
+        step.skipLog = str(raw.get("skipLog"), null);
+        if ("warn".equalsIgnoreCase(str(raw.get("skipLevel"), ""))) {
+            step.skipLevel = Log.Level.WARN;
+        }
+
+        if (step.action.equals("call") && step.handler == null) {
+            throw new IOException("Flow " + flowName + ": call step " + step.id + " needs a handler");
+        }
+        if (step.concurrent && !(step.action.equals("call") || step.action.equals("sleep"))) {
+            throw new IOException("Flow " + flowName + ": browser step " + step.id + " cannot be concurrent");
+        }
+        return step;
+    }
+
+    /**
+     * Runs the step graph. Concurrent steps are started in the background and
+     * joined by the first step that depends on them, or at the end of the flow.
+     */
+    void run(Context context) throws Exception {
+        for (Step step : steps) {
+            if (step.handler != null && !context.handlers.containsKey(step.handler)) {
+                throw new IllegalStateException("Flow " + name + ": no handler registered for " + step.handler);
+            }
+        }
+
+        Map<Step, Future<?>> background = new HashMap<>();
+        int tab = Log.getTab();
+        for (Step step : steps) {
+            for (Step dependency : step.after) {
+                await(background.remove(dependency));
+            }
+            if (step.when != null && !context.isSet(step.when)) {
+                continue;
+            }
+            context.timer.checkDeadline();
+
+            if (step.concurrent) {
+                background.put(step, BACKGROUND.submit(() -> {
+                    Log.setTab(tab);
+                    try {
+                        execute(step, context);
+                    } finally {
+                        Log.setTab(0);
+                    }
+                    return null;
+                }));
+            } else {
+                execute(step, context);
+            }
+        }
+
+        for (Future<?> pending : background.values()) {
+            await(pending);
+        }
+    }
+
+    private void execute(Step step, Context context) throws Exception {
+        if (step.timer != null && !step.concurrent) {
+            context.timer.begin(step.timer);
+        }
+        if (step.announce != null) {
+            Log.info(step.announce);
+        }
+
+        try {
+            switch (step.action) {
+                case "click":
+                    click(step, context, locate(step, context));
+                    break;
+                case "clickNth":
+                    click(step, context, locateNth(step, context));
+                    break;
+                case "waitFor":
+                    locate(step, context);
+                    finish(step, context);
+                    break;
+                case "sleep":
+                    pause(step.pauseMs);
+                    break;
+                case "call":
+                    context.handlers.get(step.handler).run(context);
+                    finish(step, context);
+                    break;
+            }
+        } catch (Exception e) {
+            if (!step.optional) throw e;
+            if (step.skipLog != null) {
+                Log.log(step.skipLevel, step.skipLog);
+            }
+        }
+    }
+
+    private WebElement locate(Step step, Context context) {
+        WebElement element;
+        // a wait never outlasts the step's deadline
+        Duration timeout = Duration.ofMillis(Math.max(1, Math.min(step.timeoutMs, context.timer.remainingMs())));
+
+        if (step.locators.length > 1) {
+            if (step.timeoutMs > 0) {
+                element = SelectorCache.find(context.driver, step.cache, timeout, step.visible, step.locators);
+            } else if (step.visible) {
+                List<WebElement> displayed = SelectorCache.findAllDisplayed(context.driver, step.cache, step.locators);
+                element = displayed.isEmpty() ? null : displayed.get(0);
+            } else {
+                element = SelectorCache.findNow(context.driver, step.cache, step.locators);
+            }
+        } else {
+            try {
+                if (step.timeoutMs > 0) {
+                    element = PageEvents.waitFor(context.driver, timeout).until(step.visible
+                        ? ExpectedConditions.visibilityOfElementLocated(step.locators[0])
+                        : ExpectedConditions.presenceOfElementLocated(step.locators[0]));
+                } else {
+                    element = context.driver.findElement(step.locators[0]);
+                    if (step.visible && !element.isDisplayed()) element = null;
+                }
+            } catch (RuntimeException e) {
+                Locators.miss(step.locators[0]);
+                throw e;
+            }
+            if (element != null) Locators.hit(step.locators[0]);
+            else Locators.miss(step.locators[0]);
+        }
+
+        if (element == null) {
+            throw new NoSuchElementException("Flow " + name + ": nothing matched step " + step.id);
+        }
+        return element;
+    }
+
+    private WebElement locateNth(Step step, Context context) {
+        List<WebElement> elements = Locators.all(context.driver, step.locators[0]);
+        int index = step.index != null ? context.getInt(step.index) : 0;
+
+        if (index >= elements.size()) {
+            if (step.strictIndex || elements.isEmpty()) {
+                throw new NoSuchElementException("Flow " + name + ": step " + step.id
+                    + " found no element at index " + index);
+            }
+            index = elements.size() - 1;
+        }
+        return elements.get(index);
+    }
+
+    @SuppressWarnings("try")
+    private void click(Step step, Context context, WebElement element) throws Exception {
+        if (step.scroll) {
+            context.js.executeScript("arguments[0].scrollIntoView({block: 'center'});", element);
+            pause(step.settleMs);
+        }
+
+        if (step.network && context.network != null) {
+            try (NetworkGovernor.Permit permit = context.network.acquire()) {
+                context.js.executeScript("arguments[0].click();", element);
+                finish(step, context);
+            }
+        } else {
+            context.js.executeScript("arguments[0].click();", element);
+            finish(step, context);
+        }
+    }
+
+    private void finish(Step step, Context context) {
+        if (step.log != null) {
+            Log.info(step.log);
+        }
+        // after a network action the pause ends as soon as the page is quiet
+        if (step.network && step.pauseMs > 0) {
+            PageEvents.settle(context.driver, step.pauseMs);
+        } else {
+            pause(step.pauseMs);
+        }
+    }
+
+    private static void await(Future<?> pending) throws Exception {
+        if (pending == null) return;
+        try {
+            pending.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            throw e;
+        }
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static By toBy(String flowName, String stepId, String locator) throws IOException {
+        int colon = locator.indexOf(':');
+        String kind = colon > 0 ? locator.substring(0, colon) : "";
+        String value = colon > 0 ? locator.substring(colon + 1) : locator;
+        switch (kind) {
+            case "xpath": return By.xpath(value);
+            case "css": return By.cssSelector(value);
+            case "id": return By.id(value);
+            case "class": return By.className(value);
+            default:
+                throw new IOException("Flow " + flowName + ": step " + stepId
+                    + " has locator without xpath:/css:/id:/class: prefix: " + locator);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : new HashMap<>();
+    }
+
+    private static String str(Object value, String fallback) {
+        return value != null ? value.toString() : fallback;
+    }
+
+    private static boolean bool(Object value) {
+        return value instanceof Boolean ? (Boolean) value : "true".equals(String.valueOf(value));
+    }
+
+    private static long millis(Object seconds) {
+        return seconds instanceof Number ? Math.round(((Number) seconds).doubleValue() * 1000) : 0;
+    }
+}
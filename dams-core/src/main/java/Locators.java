@@ -0,0 +1,248 @@
+import org.openqa.selenium.*;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Every locator the runners use, built once when the class loads, with hit and
+ * miss counts per locator.
+ *
+ * Locators that only test tag, id, class or attributes are CSS selectors, which
+ * Chrome answers natively; XPath is kept where matching needs text or axes. Locators
+ * that depend on a value (a course name) are built through literal(), so names with
+ * quotes or apostrophes still produce valid XPath, and each value is built only once.
+ *
+ * A hit is a lookup that found the element, a miss one that found nothing; for a
+ * list of candidates the one that matched counts a hit and a lookup where none
+ * matched counts a miss for each of them. Flow steps register their compiled
+ * locators here too, so the end-of-run table covers the checkout flows as well.
+ */
+class Locators {
+
+    /** Lookup counts of one locator (shared by every value of a parameterized one). */
+    static class Stats {
+        final String name;
+        final String selector;
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+
+        Stats(String name, String selector) {
+            this.name = name;
+            this.selector = selector;
+        }
+    }
+
+    private static final Map<String, Stats> STATS = new ConcurrentHashMap<>();
+    private static final Map<String, By> COURSE_OPTIONS = new ConcurrentHashMap<>();
+
+    // Login
+    static final By SIGN_IN_BUTTON = register("login.signIn.button",
+        By.xpath("//button[contains(text(), 'Sign in') or contains(text(), 'Sign In')]"));
+    static final By SIGN_IN_LINK = register("login.signIn.link",
+        By.xpath("//a[contains(text(), 'Sign in') or contains(text(), 'Sign In')]"));
+    static final By PHONE_INPUT = register("login.phone",
+        By.cssSelector("input[type='tel'], input[type='number'], input[placeholder*='number']"));
+    static final By OTP_INPUT = register("login.otp",
+        By.cssSelector("input[type='text'], input[type='number'], input[placeholder*='OTP']"));
+    static final By BOTTOM_BUTTON = register("login.bottomButton", By.className("common-bottom-btn"));
+    static final By LOGOUT_OTHER_SESSION = register("login.logoutPopup",
+        By.xpath("//button[contains(@class, 'btndata') and contains(text(), 'Logout')]"));
+
+    // Course dropdown
+    static final By COURSE_DROPDOWN = register("course.dropdown", By.cssSelector("button[class*='SelectCat']"));
+    static final By COURSE_DROPDOWN_FMGE = register("course.dropdown.fmge",
+        By.xpath("//button[contains(@class, 'SelectCat') and contains(text(), 'FMGE')]"));
+    static final By DROPDOWN_SCROLLABLES = register("course.dropdown.scrollables",
+        By.cssSelector("div[class*='ant-modal-body'], div[class*='ant-dropdown']"));
+    static final By[] DROPDOWN_COURSE_NAMES = {
+        register("course.dropdown.names",
+            By.xpath("//div[contains(@class, 'ant-dropdown') or contains(@class, 'ant-modal')]//span[string-length(normalize-space(text())) > 2]")),
+        register("course.dropdown.names.modal",
+            By.xpath("//div[contains(@class, 'ant-modal-body')]//span[string-length(normalize-space(text())) > 2]"))
+    };
+    static final By NEET_PG_OPTION = register("course.neetPg",
+        By.xpath("//span[contains(text(), 'NEET PG')] | //div[contains(text(), 'NEET PG')]"));
+    static final By MODAL_CLOSE_BUTTON = register("modal.closeButton",
+        By.cssSelector("button[type='button'][aria-label='Close'][class*='ant-modal-close']"));
+    static final By MODAL_CLOSE_ANY = register("modal.closeAny",
+        By.cssSelector("button[type='button'][aria-label='Close'], span[class*='ant-modal-close']"));
+    static final By BODY = register("page.body", By.tagName("body"));
+
+    // Packages
+    static final By GO_PRO = register("packages.goPro", By.xpath("//strong[contains(text(), 'Go Pro')]"));
+    static final By[] PACKAGE_BUTTONS = {
+        register("packages.buttons.create", By.cssSelector("button[type='button'][class*='BtnNewCreate']")),
+        register("packages.buttons.text",
+            By.xpath("//button[contains(text(), 'Buy') or contains(text(), 'Select') or contains(text(), 'Choose')]")),
+        register("packages.buttons.link",
+            By.xpath("//a[contains(text(), 'Buy') or contains(text(), 'Select') or contains(text(), 'Choose')]")),
+        register("packages.buttons.btn",
+            By.xpath("//*[contains(@class, 'btn') and (contains(text(), 'Buy') or contains(text(), 'Select'))]"))
+    };
+    static final By PACKAGE_CARD_CONTROLS = register("packages.cardControls",
+        By.cssSelector("div[class*='card'] button, div[class*='col'] button, div[class*='card'] a, div[class*='col'] a"));
+
+    // Payment window
+    static final By[] PAYMENT_CLOSE = {
+        register("payment.close.cross", By.cssSelector("span#app-close-btn[class*='ptm-cross']")),
+        register("payment.close.id", By.id("app-close-btn")),
+        register("payment.close.anyCross", By.cssSelector("span[class*='ptm-cross']"))
+    };
+    static final By[] FEEDBACK_SKIP = {
+        register("payment.feedbackSkip", By.xpath("//button[contains(@class, 'ptm-feedback-btn') and contains(text(), 'Skip')]")),
+        register("payment.skip", By.xpath("//button[contains(text(), 'Skip')]"))
+    };
+    static final By[] MODAL_CLOSE = {
+        register("modal.closeX", By.cssSelector("span[class*='ant-modal-close-x']")),
+        register("modal.close", By.cssSelector("button[class*='ant-modal-close']"))
+    };
+
+    // CBT section
+    static final By HAMBURGER = register("cbt.hamburger", By.className("humburgerIcon"));
+    static final By CBT_CATEGORY_DIV = register("cbt.menu.categoryDiv",
+        By.xpath("//div[contains(@class, 'Categories')]//div[contains(text(), 'CBT')]"));
+    static final By CBT_CATEGORY_ANY = register("cbt.menu.categoryAny",
+        By.xpath("//div[contains(@class, 'Categories')]//*[contains(text(), 'CBT')]"));
+    static final By CBT_BUTTON = register("cbt.menu.button", By.xpath("//button[contains(., 'CBT')]"));
+    static final By CBT_ROLE_BUTTON = register("cbt.menu.roleButton", By.xpath("//*[@role='button' and contains(., 'CBT')]"));
+    static final By CBT_TEXT = register("cbt.menu.text",
+        By.xpath("//*[contains(text(), 'CBT') and not(contains(text(), 'NEET'))]"));
+    static final By[] CBT_MENU_ENTRY = {CBT_CATEGORY_DIV, CBT_CATEGORY_ANY, CBT_BUTTON, CBT_ROLE_BUTTON, CBT_TEXT};
+    static final By[] CBT_MENU_ENTRY_RETURN = {CBT_CATEGORY_DIV, CBT_CATEGORY_ANY, CBT_TEXT};
+    static final By CBT_OK = register("cbt.ok",
+        By.xpath("//button[@type='button' and contains(@class, 'btn-danger') and contains(text(), 'OK')]"));
+    static final By CBT_BUY_NOW = register("cbt.buyNow",
+        By.cssSelector("button[type='button'][class*='butBtn'][class*='modal_show']"));
+    static final By CBT_CARD = register("cbt.card", By.xpath("./ancestor::div[contains(@class, 'col')]"));
+    static final By CBT_CARD_TITLE = register("cbt.card.title",
+        By.cssSelector("h3, h4, h5, [class*='title'], [class*='heading']"));
+    static final By CBT_CARD_LINK = register("cbt.card.link", By.xpath(".//a[string-length(normalize-space(text())) > 15]"));
+    static final By CBT_POPUP = register("cbt.popup", By.xpath("//div[@class='popup' and .//div[@id='cbt_hide']]"));
+    static final By CBT_POPUP_OPTION = register("cbt.popup.option",
+        By.xpath(".//label[contains(normalize-space(), 'CBT (Center Based Test)')]"));
+    static final By CBT_POPUP_OK = register("cbt.popup.ok", By.xpath(".//button[normalize-space()='OK']"));
+
+    /** Adds a locator to the registry under a name; a selector registered twice keeps its first name. */
+    static By register(String name, By locator) {
+        STATS.putIfAbsent(locator.toString(), new Stats(name, locator.toString()));
+        return locator;
+    }
+
+    /** The dropdown entry whose text is exactly the course name. */
+    static By courseOption(String courseName) {
+        return COURSE_OPTIONS.computeIfAbsent(courseName, name -> {
+            By locator = By.xpath("//span[normalize-space(text())=" + literal(name) + "]");
+            STATS.putIfAbsent(locator.toString(), new Stats("course.option", "//span[normalize-space(text())=<course>]"));
+            return locator;
+        });
+    }
+
+    /**
+     * The value as an XPath string literal. XPath 1.0 has no escapes, so a value
+     * with both kinds of quote is split into pieces joined with concat().
+     */
+    static String literal(String value) {
+        if (value.indexOf('\'') < 0) return "'" + value + "'";
+        if (value.indexOf('"') < 0) return "\"" + value + "\"";
+
+        StringBuilder concat = new StringBuilder("concat(");
+        String[] parts = value.split("'", -1);
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) concat.append(", \"'\", ");
+            concat.append('\'').append(parts[i]).append('\'');
+        }
+        return concat.append(')').toString();
+    }
+
+    static void hit(By locator) {
+        Stats stats = STATS.get(locator.toString());
+        if (stats != null) stats.hits.incrementAndGet();
+    }
+
+    static void miss(By locator) {
+        Stats stats = STATS.get(locator.toString());
+        if (stats != null) stats.misses.incrementAndGet();
+    }
+
+    /** Waits for the element to be present, counting the outcome. */
+    static WebElement await(WebDriverWait wait, By locator) {
+        try {
+            WebElement element = wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+            hit(locator);
+            return element;
+        } catch (RuntimeException e) {
+            miss(locator);
+            throw e;
+        }
+    }
+
+    /** The first element matching now, or null, counting the outcome. */
+    static WebElement first(SearchContext context, By locator) {
+        List<WebElement> found = all(context, locator);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /** The first element present now for the first candidate that has one, or null. */
+    static WebElement firstOf(SearchContext context, By... candidates) {
+        for (By locator : candidates) {
+            try {
+                WebElement element = context.findElement(locator);
+                hit(locator);
+                return element;
+            } catch (NoSuchElementException e) {
+                miss(locator);
+            }
+        }
+        return null;
+    }
+
+    /** Every element matching now, counting an empty result as a miss. */
+    static List<WebElement> all(SearchContext context, By locator) {
+        List<WebElement> found = context.findElements(locator);
+        if (found.isEmpty()) miss(locator);
+        else hit(locator);
+        return found;
+    }
+
+    /** Lookup counts of the locators used at least once, busiest first. */
+    static List<Stats> used() {
+        Map<String, Stats> byName = new LinkedHashMap<>();
+        for (Stats stats : STATS.values()) {
+            if (stats.hits.get() + stats.misses.get() == 0) continue;
+            Stats total = byName.computeIfAbsent(stats.name, name -> new Stats(name, stats.selector));
+            total.hits.addAndGet(stats.hits.get());
+            total.misses.addAndGet(stats.misses.get());
+        }
+        List<Stats> used = new ArrayList<>(byName.values());
+        used.sort((a, b) -> Long.compare(b.hits.get() + b.misses.get(), a.hits.get() + a.misses.get()));
+        return used;
+    }
+
+    /** Appends one "locator" record per locator used to the run's history. */
+    static void record(RunResultsStore store) {
+        if (store == null) return;
+        for (Stats stats : used()) {
+            Map<String, Object> record = store.record("locator");
+            record.put("name", stats.name);
+            record.put("selector", stats.selector);
+            record.put("hits", stats.hits.get());
+            record.put("misses", stats.misses.get());
+            store.append(record);
+        }
+    }
+
+    /** Logs the hit and miss counts; locators that never hit are the ones worth a look. */
+    static void logStats() {
+        List<Stats> used = used();
+        if (used.isEmpty()) return;
+        Log.info("🎯 Locator lookups ({} locators used):", used.size());
+        for (Stats stats : used) {
+            Log.info("  {}: {} hits, {} misses{}", stats.name, stats.hits.get(), stats.misses.get(),
+                stats.hits.get() == 0 ? " ⚠️ never matched" : "");
+        }
+    }
+}
@@ -0,0 +1,314 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous console logger shared by the runners.
+ *
+ * Callers only do a level check and a lock-free enqueue into a bounded ring buffer;
+ * message formatting and all console I/O happen on one background drain thread, so
+ * logging never blocks a tab thread and lines from different tabs never interleave
+ * mid-line. When the buffer is full the line is dropped and counted rather than
+ * making the tab wait.
+ *
+ * Arguments that may still change (anything but strings, boxed primitives, enums
+ * and Throwables) are turned into strings when logged, so a line shows the values
+ * of that moment. A line whose formatting fails on the drain thread is written as
+ * its bare template instead; lost() counts lines that never reached the console.
+ *
+ * Messages use {} placeholders. A trailing Throwable argument is printed with its
+ * stack trace. The tab number set with setTab() prefixes every line of that thread
+ * ("[Tab 3] ...") or becomes a "tab" field in JSON output.
+ *
+ * Configuration: log.level (DEBUG, INFO, WARN, ERROR) and log.format (text, json),
+ * either through configure() or as -D system properties.
+ */
+final class Log {
+
+    enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final class Event {
+        final long time;
+        final Level level;
+        final int tab;
+        final String thread;
+        final String template;
+        final Object[] args;
+
+        Event(Level level, int tab, String template, Object[] args) {
+            this.time = System.currentTimeMillis();
+            this.level = level;
+            this.tab = tab;
+            this.thread = Thread.currentThread().getName();
+            this.template = template;
+            this.args = args;
+        }
+    }
+
+    private static final int CAPACITY = 1 << 14;
+    private static final int MASK = CAPACITY - 1;
+
+    // Bounded MPSC ring: a slot is free for position p when its sequence is p,
+    // and holds the event for p when its sequence is p + 1.
+    private static final Event[] slots = new Event[CAPACITY];
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong tail = new AtomicLong();
+    private static long head;
+
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong lostTotal = new AtomicLong();
+    private static final ThreadLocal<Integer> tabContext = new ThreadLocal<>();
+
+    private static volatile Level minLevel = parseLevel(System.getProperty("log.level"), Level.INFO);
+    private static volatile boolean json = "json".equalsIgnoreCase(System.getProperty("log.format"));
+
+    private static final Thread drainer;
+    private static final Writer out = new BufferedWriter(
+        new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 64 * 1024);
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            sequences.set(i, i);
+        }
+        drainer = new Thread(Log::drainLoop, "log-drain");
+        drainer.setDaemon(true);
+        drainer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-flush"));
+    }
+
+    private Log() {}
+
+    static void configure(String level, String format) {
+        minLevel = parseLevel(level, minLevel);
+        if (format != null && !format.trim().isEmpty()) {
+            // lines already queued keep the format they were logged under
+            flush();
+            json = "json".equalsIgnoreCase(format.trim());
+        }
+    }
+
+    /** Tab number of the current thread's lines, 0 when none is set. */
+    static int getTab() {
+        Integer tab = tabContext.get();
+        return tab != null ? tab : 0;
+    }
+
+    /** Sets the tab number reported for lines logged by the current thread (0 clears it). */
+    static void setTab(int tabNumber) {
+        if (tabNumber > 0) {
+            tabContext.set(tabNumber);
+        } else {
+            tabContext.remove();
+        }
+    }
+
+    static boolean isEnabled(Level level) {
+        return level.compareTo(minLevel) >= 0;
+    }
+
+    static void debug(String template, Object... args) { log(Level.DEBUG, template, args); }
+    static void info(String template, Object... args) { log(Level.INFO, template, args); }
+    static void warn(String template, Object... args) { log(Level.WARN, template, args); }
+    static void error(String template, Object... args) { log(Level.ERROR, template, args); }
+
+    static void log(Level level, String template, Object... args) {
+        if (!isEnabled(level)) return;
+        Integer tab = tabContext.get();
+        if (!offer(new Event(level, tab != null ? tab : 0, template, snapshot(args)))) {
+            dropped.incrementAndGet();
+            lostTotal.incrementAndGet();
+        }
+    }
+
+    /** Lines dropped (buffer full) or not written (console error) since startup. */
+    static long lost() {
+        return lostTotal.get();
+    }
+
+    /** The arguments with every mutable one replaced by its current toString(). */
+    private static Object[] snapshot(Object[] args) {
+        if (args == null) return null;
+        Object[] copy = null;
+        for (int i = 0; i < args.length; i++) {
+            if (isImmutable(args[i])) continue;
+            if (copy == null) copy = args.clone();
+            try {
+                copy[i] = String.valueOf(args[i]);
+            } catch (RuntimeException e) {
+                copy[i] = "<" + args[i].getClass().getName() + ".toString() failed: " + e + ">";
+            }
+        }
+        return copy != null ? copy : args;
+    }
+
+    private static final Set<Class<?>> IMMUTABLE = new HashSet<>(Arrays.asList(
+        String.class, Integer.class, Long.class, Double.class, Float.class, Short.class, Byte.class,
+        Boolean.class, Character.class, java.math.BigDecimal.class, java.math.BigInteger.class));
+
+    // AtomicLong and friends are Numbers too, so boxed types are matched exactly
+    private static boolean isImmutable(Object arg) {
+        return arg == null || IMMUTABLE.contains(arg.getClass()) || arg instanceof Enum || arg instanceof Throwable;
+    }
+
+    /** Blocks until everything enqueued so far has been written. For end of run / shutdown. */
+    static void flush() {
+        long target = tail.get();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (drainedUpTo() < target && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+
+    private static volatile long drained;
+
+    private static long drainedUpTo() {
+        return drained;
+    }
+
+    private static boolean offer(Event event) {
+        long pos = tail.get();
+        while (true) {
+            int idx = (int) (pos & MASK);
+            long diff = sequences.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots[idx] = event;
+                    sequences.lazySet(idx, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    private static Event poll() {
+        int idx = (int) (head & MASK);
+        if (sequences.get(idx) != head + 1) return null;
+        Event event = slots[idx];
+        slots[idx] = null;
+        sequences.lazySet(idx, head + CAPACITY);
+        head++;
+        return event;
+    }
+
+    private static void drainLoop() {
+        while (true) {
+            Event event = poll();
+            if (event == null) {
+                try {
+                    long lost = dropped.getAndSet(0);
+                    if (lost > 0) {
+                        out.write("⚠️  " + lost + " log lines dropped (buffer full)\n");
+                    }
+                    out.flush();
+                } catch (IOException e) {}
+                drained = head;
+                LockSupport.parkNanos(2_000_000);
+                continue;
+            }
+            String line;
+            try {
+                line = json ? formatJson(event) : formatText(event);
+            } catch (RuntimeException e) {
+                line = "⚠️  Log line could not be formatted (" + e + "): " + event.template;
+            }
+            try {
+                out.write(line);
+                out.write('\n');
+            } catch (IOException e) {
+                lostTotal.incrementAndGet();
+            }
+        }
+    }
+
+    private static String formatText(Event event) {
+        Throwable thrown = throwableOf(event);
+        String message = format(event.template, event.args);
+        if (event.tab > 0) {
+            message = prefixLines(message, "[Tab " + event.tab + "] ");
+        }
+        if (thrown != null) {
+            message += "\n" + stackTrace(thrown);
+        }
+        return message;
+    }
+
+    private static String formatJson(Event event) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("ts", Instant.ofEpochMilli(event.time).toString());
+        line.put("level", event.level.name());
+        if (event.tab > 0) line.put("tab", event.tab);
+        line.put("thread", event.thread);
+        line.put("msg", format(event.template, event.args).trim());
+        Throwable thrown = throwableOf(event);
+        if (thrown != null) line.put("stack", stackTrace(thrown));
+        return Json.write(line);
+    }
+
+    /** Keeps leading blank lines (used as spacing in the console) ahead of the tab prefix. */
+    private static String prefixLines(String message, String prefix) {
+        int start = 0;
+        while (start < message.length() && message.charAt(start) == '\n') start++;
+        return message.substring(0, start) + prefix + message.substring(start);
+    }
+
+    private static Throwable throwableOf(Event event) {
+        Object[] args = event.args;
+        if (args != null && args.length > 0 && args[args.length - 1] instanceof Throwable) {
+            int placeholders = countPlaceholders(event.template);
+            if (placeholders < args.length) return (Throwable) args[args.length - 1];
+        }
+        return null;
+    }
+
+    static String format(String template, Object[] args) {
+        if (args == null || args.length == 0) return template;
+        StringBuilder sb = new StringBuilder(template.length() + 32);
+        int argIdx = 0;
+        int i = 0;
+        while (i < template.length()) {
+            int next = template.indexOf("{}", i);
+            if (next < 0 || argIdx >= args.length) {
+                sb.append(template, i, template.length());
+                break;
+            }
+            sb.append(template, i, next);
+            sb.append(args[argIdx++]);
+            i = next + 2;
+        }
+        return sb.toString();
+    }
+
+    private static int countPlaceholders(String template) {
+        int count = 0;
+        int i = template.indexOf("{}");
+        while (i >= 0) {
+            count++;
+            i = template.indexOf("{}", i + 2);
+        }
+        return count;
+    }
+
+    private static String stackTrace(Throwable thrown) {
+        StringWriter sw = new StringWriter();
+        thrown.printStackTrace(new PrintWriter(sw));
+        return sw.toString().trim();
+    }
+
+    private static Level parseLevel(String value, Level fallback) {
+        if (value == null || value.trim().isEmpty()) return fallback;
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes network-heavy browser actions across tabs (page loads, checkout clicks)
+ * and measures how long tabs queue for it.
+ *
+ * Used with try-with-resources in place of a synchronized block:
+ * <pre>
+ *     try (NetworkGovernor.Permit permit = NETWORK.acquire()) { ... }
+ * </pre>
+ */
+class NetworkGovernor {
+
+    interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final Permit permit = lock::unlock;
+
+    Permit acquire() {
+        long start = System.nanoTime();
+        lock.lock();
+        waitNanos.addAndGet(System.nanoTime() - start);
+        acquisitions.incrementAndGet();
+        return permit;
+    }
+
+    /** Total time all tabs spent waiting for the governor, in seconds. */
+    double waitSeconds() {
+        return waitNanos.get() / 1e9;
+    }
+
+    long acquisitions() {
+        return acquisitions.get();
+    }
+
+    int queueLength() {
+        return lock.getQueueLength();
+    }
+}
@@ -0,0 +1,369 @@
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.support.ui.Sleeper;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wakes waiting steps on browser events instead of fixed polling intervals.
+ *
+ * Each tab's driver gets a DevTools (CDP) session listening to Page.loadEventFired,
+ * Network.requestWillBeSent / loadingFinished / loadingFailed, Runtime.consoleAPICalled
+ * and DOM mutations, which a MutationObserver in the page reports through a
+ * Runtime binding. Waits built with waitFor() check their condition again only
+ * when one of these events arrived (or after a long fallback interval), so a
+ * condition is seen within milliseconds of the page changing and an idle page
+ * costs no WebDriver round-trips. settle() replaces fixed sleeps after network
+ * actions: it returns once no request is in flight and nothing happened for the
+ * quiet window, and never later than the old sleep.
+ *
+ * Finished responses (documents, XHR/fetch and images) are remembered, the last
+ * couple of hundred of them, so their bodies can be read afterwards with
+ * responseBody() (see QrCapture).
+ *
+ * The session is bound to the driver's own page target (its window handle). With
+ * browser.mode=context every tab's driver talks to the same Chrome, and a session
+ * on whichever page Chrome lists first would follow, and read responses of,
+ * another tab; a second driver on a target that already has a session is refused
+ * and polls instead.
+ *
+ * The commands and events are sent by their CDP names, so no Chrome-version
+ * specific devtools classes are needed. A driver without CDP (or with page.events
+ * off) gets plain polling waits and full sleeps, exactly as before.
+ */
+class PageEvents {
+
+    /** A finished network response whose body can still be asked for. */
+    static class Response {
+        final long index;
+        final String requestId;
+        final String type;
+        final String url;
+        final String mimeType;
+
+        Response(long index, String requestId, String type, String url, String mimeType) {
+            this.index = index;
+            this.requestId = requestId;
+            this.type = type;
+            this.url = url;
+            this.mimeType = mimeType;
+        }
+    }
+
+    private static final String BINDING = "__damsMutation";
+
+    // reports at most one mutation batch per 100ms, so an animating page cannot flood the session
+    private static final String OBSERVER_SCRIPT =
+        "(() => {" +
+        "  if (window.__damsObserver || typeof window." + BINDING + " !== 'function') return;" +
+        "  let pending = false;" +
+        "  window.__damsObserver = new MutationObserver(() => {" +
+        "    if (pending) return;" +
+        "    pending = true;" +
+        "    setTimeout(() => { pending = false; try { window." + BINDING + "('m'); } catch (e) {} }, 100);" +
+        "  });" +
+        "  const start = () => window.__damsObserver.observe(document," +
+        "    {childList: true, subtree: true, attributes: true, characterData: true});" +
+        "  if (document.documentElement) start(); else document.addEventListener('DOMContentLoaded', start);" +
+        "})();";
+
+    // long-lived connections never finish, so they would keep the page from ever looking idle
+    private static final Set<String> UNTRACKED_TYPES = new HashSet<>(Arrays.asList(
+        "EventSource", "WebSocket", "Ping", "CSPViolationReport"));
+
+    private static final Set<String> KEPT_TYPES = new HashSet<>(Arrays.asList(
+        "Document", "XHR", "Fetch", "Image", "Other"));
+    private static final int KEPT_RESPONSES = 200;
+
+    private static final long BATCH_MS = 150;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+    private static final Duration FALLBACK_INTERVAL = Duration.ofSeconds(2);
+
+    private static final Map<WebDriver, PageEvents> ATTACHED = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = true;
+    private static volatile long quietMs = 500;
+
+    private final DevTools devTools;
+    private final String target;
+    private final Set<String> inFlight = new HashSet<>();
+    private final Map<String, Response> received = new HashMap<>();
+    private final Deque<Response> responses = new ArrayDeque<>();
+    private long responseCount;
+    private long sequence;
+    private long lastEventAt = RunClock.monotonicMs();
+
+    private PageEvents(DevTools devTools, String target) {
+        this.devTools = devTools;
+        this.target = target;
+    }
+
+    static void configure(boolean on, long quietWindowMs) {
+        enabled = on;
+        quietMs = quietWindowMs;
+    }
+
+    /**
+     * Opens the event session for a driver. Failure (no CDP, an unknown Chrome) is
+     * logged once per driver and leaves the driver on plain polling.
+     */
+    static void attach(WebDriver driver) {
+        if (!enabled || !(driver instanceof HasDevTools) || ATTACHED.containsKey(driver)) return;
+        try {
+            String target = driver.getWindowHandle();
+            for (PageEvents other : ATTACHED.values()) {
+                if (other.target.equals(target)) {
+                    Log.warn("⚠️  Page {} already has an event session, falling back to polling", target);
+                    return;
+                }
+            }
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne(target);
+            PageEvents events = new PageEvents(devTools, target);
+            events.listen();
+            ATTACHED.put(driver, events);
+        } catch (Exception e) {
+            Log.warn("⚠️  Page events unavailable, falling back to polling: {}", e.getMessage());
+        }
+    }
+
+    static void detach(WebDriver driver) {
+        PageEvents events = ATTACHED.remove(driver);
+        if (events == null) return;
+        try {
+            events.devTools.clearListeners();
+            events.devTools.close();
+        } catch (Exception e) {}
+    }
+
+    static boolean isAttached(WebDriver driver) {
+        return ATTACHED.containsKey(driver);
+    }
+
+    /** The page target the driver's event session is bound to, or null without one. */
+    static String target(WebDriver driver) {
+        PageEvents events = ATTACHED.get(driver);
+        return events != null ? events.target : null;
+    }
+
+    /** The CDP session id of the driver's event session, or null without one. */
+    static String session(WebDriver driver) {
+        PageEvents events = ATTACHED.get(driver);
+        return events != null && events.devTools.getCdpSession() != null ? events.devTools.getCdpSession().toString() : null;
+    }
+
+    /**
+     * A wait that checks its condition again whenever the page reports an event
+     * (and at least every couple of seconds), or a normal polling wait when the
+     * driver has no event session.
+     */
+    static WebDriverWait waitFor(WebDriver driver, Duration timeout) {
+        return waitFor(driver, timeout, POLL_INTERVAL);
+    }
+
+    /** Like waitFor(driver, timeout), polling at the given interval when there are no events. */
+    static WebDriverWait waitFor(WebDriver driver, Duration timeout, Duration pollInterval) {
+        PageEvents events = ATTACHED.get(driver);
+        if (events == null) {
+            return new WebDriverWait(driver, timeout, pollInterval);
+        }
+        return new WebDriverWait(driver, timeout, FALLBACK_INTERVAL, Clock.systemDefaultZone(), events.sleeper());
+    }
+
+    /** Waits until the page is idle for the quiet window, at most maxMs; just sleeps maxMs without events. */
+    static void settle(WebDriver driver, long maxMs) {
+        PageEvents events = ATTACHED.get(driver);
+        try {
+            if (events == null) {
+                Thread.sleep(maxMs);
+            } else {
+                events.awaitQuiet(maxMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Number of responses finished so far; pass it to responsesAfter() to see only newer ones. */
+    static long responseMark(WebDriver driver) {
+        PageEvents events = ATTACHED.get(driver);
+        if (events == null) return 0;
+        synchronized (events) {
+            return events.responseCount;
+        }
+    }
+
+    /** Remembered responses finished after the mark, oldest first. */
+    static List<Response> responsesAfter(WebDriver driver, long mark) {
+        PageEvents events = ATTACHED.get(driver);
+        List<Response> newer = new ArrayList<>();
+        if (events == null) return newer;
+        synchronized (events) {
+            for (Response response : events.responses) {
+                if (response.index > mark) newer.add(response);
+            }
+        }
+        return newer;
+    }
+
+    /** Body of a remembered response, or null when Chrome no longer has it. */
+    static byte[] responseBody(WebDriver driver, Response response) {
+        PageEvents events = ATTACHED.get(driver);
+        if (events == null) return null;
+        try {
+            Map<?, ?> result = events.devTools.send(new Command<Map<?, ?>>("Network.getResponseBody",
+                Map.of("requestId", response.requestId), Map.class));
+            String body = String.valueOf(result.get("body"));
+            return Boolean.TRUE.equals(result.get("base64Encoded"))
+                ? Base64.getDecoder().decode(body)
+                : body.getBytes(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /** Current event count; awaitEventAfter() returns once a later event arrived. */
+    static long eventMark(WebDriver driver) {
+        PageEvents events = ATTACHED.get(driver);
+        return events == null ? 0 : events.currentSequence();
+    }
+
+    /** Waits up to maxMs for an event after the mark; just sleeps without events. */
+    static void awaitEventAfter(WebDriver driver, long mark, long maxMs) {
+        PageEvents events = ATTACHED.get(driver);
+        try {
+            if (events == null) {
+                Thread.sleep(maxMs);
+            } else {
+                events.awaitEvent(mark, maxMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void listen() {
+        devTools.addListener(event("Page.loadEventFired"), params -> changed());
+        devTools.addListener(event("Network.requestWillBeSent"), params -> {
+            if (!UNTRACKED_TYPES.contains(String.valueOf(params.get("type")))) {
+                synchronized (this) {
+                    inFlight.add(String.valueOf(params.get("requestId")));
+                }
+            }
+            changed();
+        });
+        devTools.addListener(event("Network.responseReceived"), params -> {
+            Object response = params.get("response");
+            String type = String.valueOf(params.get("type"));
+            if (KEPT_TYPES.contains(type) && response instanceof Map) {
+                Map<?, ?> details = (Map<?, ?>) response;
+                synchronized (this) {
+                    String requestId = String.valueOf(params.get("requestId"));
+                    received.put(requestId, new Response(0, requestId, type,
+                        String.valueOf(details.get("url")), String.valueOf(details.get("mimeType"))));
+                }
+            }
+        });
+        devTools.addListener(event("Network.loadingFinished"), params -> finished(params, true));
+        devTools.addListener(event("Network.loadingFailed"), params -> finished(params, false));
+        devTools.addListener(event("Runtime.bindingCalled"), params -> {
+            if (BINDING.equals(params.get("name"))) changed();
+        });
+        devTools.addListener(event("Runtime.consoleAPICalled"), params -> {
+            String type = String.valueOf(params.get("type"));
+            if ("error".equals(type) || "warning".equals(type)) {
+                Log.debug("🖥️  console.{}: {}", type, consoleText(params.get("args")));
+            }
+        });
+
+        devTools.send(new Command<Void>("Page.enable", new HashMap<>()));
+        devTools.send(new Command<Void>("Network.enable", new HashMap<>()));
+        devTools.send(new Command<Void>("Runtime.enable", new HashMap<>()));
+        devTools.send(new Command<Void>("Runtime.addBinding", Map.of("name", BINDING)));
+        devTools.send(new Command<Void>("Page.addScriptToEvaluateOnNewDocument", Map.of("source", OBSERVER_SCRIPT)));
+        devTools.send(new Command<Void>("Runtime.evaluate", Map.of("expression", OBSERVER_SCRIPT)));
+    }
+
+    private void finished(Map<String, Object> params, boolean loaded) {
+        synchronized (this) {
+            String requestId = String.valueOf(params.get("requestId"));
+            inFlight.remove(requestId);
+            Response response = received.remove(requestId);
+            if (loaded && response != null) {
+                responses.addLast(new Response(++responseCount, requestId, response.type, response.url, response.mimeType));
+                if (responses.size() > KEPT_RESPONSES) responses.removeFirst();
+            }
+        }
+        changed();
+    }
+
+    private synchronized void changed() {
+        sequence++;
+        lastEventAt = RunClock.monotonicMs();
+        notifyAll();
+    }
+
+    // one sleeper per wait, remembering the last event that wait has seen
+    private Sleeper sleeper() {
+        long[] seen = {currentSequence()};
+        return duration -> {
+            seen[0] = awaitEvent(seen[0], duration.toMillis());
+            // let a burst of events land before the condition is checked again
+            Thread.sleep(BATCH_MS);
+        };
+    }
+
+    private synchronized long currentSequence() {
+        return sequence;
+    }
+
+    private synchronized long awaitEvent(long seen, long maxMs) throws InterruptedException {
+        long end = RunClock.monotonicMs() + maxMs;
+        while (sequence == seen) {
+            long left = end - RunClock.monotonicMs();
+            if (left <= 0) break;
+            wait(left);
+        }
+        return sequence;
+    }
+
+    private synchronized void awaitQuiet(long maxMs) throws InterruptedException {
+        long start = RunClock.monotonicMs();
+        long end = start + maxMs;
+        while (true) {
+            long now = RunClock.monotonicMs();
+            if (now >= end) return;
+            long quietSince = Math.max(lastEventAt, start);
+            if (inFlight.isEmpty() && now - quietSince >= quietMs) return;
+            long next = inFlight.isEmpty() ? quietSince + quietMs : end;
+            wait(Math.max(1, Math.min(end, next) - now));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> (Map<String, Object>) input.read(Map.class));
+    }
+
+    private static String consoleText(Object args) {
+        if (!(args instanceof List)) return "";
+        StringBuilder text = new StringBuilder();
+        for (Object arg : (List<?>) args) {
+            if (!(arg instanceof Map)) continue;
+            Object value = ((Map<?, ?>) arg).get("value");
+            if (value == null) value = ((Map<?, ?>) arg).get("description");
+            if (value != null) {
+                if (text.length() > 0) text.append(' ');
+                text.append(value);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,293 @@
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cheap availability check for a course's packages before a tab spends a full
+ * checkout round (and its 30s QR wait) on each of them.
+ *
+ * Package pages are fetched over plain HTTP with the tab's session cookies, all
+ * in parallel. A package is skipped when its page is gone (404 or 410), when
+ * its own page or card text carries one of the unavailable markers ("sold out"
+ * and the like), or when its button is disabled. Any other error status (401/403
+ * from bot protection, 429 throttling, a passing 5xx) says nothing about the
+ * package, so that page counts as not probed. Prices seen on the
+ * card are remembered between runs (results/preflight.properties) and a package
+ * whose prices differ from last time is reported as changed, but still run.
+ * A failed probe never skips anything: only a clear answer from the site does.
+ *
+ * Usage (against any server, e.g. FixtureServer):
+ *   java PreflightProbe [--cookie="name=value; ..."] [--prices=file] url...
+ */
+class PreflightProbe {
+
+    enum Status { AVAILABLE, CHANGED, UNAVAILABLE }
+
+    static final String DEFAULT_PATH = "results/preflight.properties";
+    static final String DEFAULT_MARKERS = "sold out,out of stock,registration closed";
+
+    /** One package as seen on the listing page: its link (or the page), card text and button state. */
+    static class Target {
+        final int index;
+        final String url;
+        final String text;
+        final boolean disabled;
+
+        Target(int index, String url, String text, boolean disabled) {
+            this.index = index;
+            this.url = url;
+            this.text = text != null ? text : "";
+            this.disabled = disabled;
+        }
+    }
+
+    static class Result {
+        final Status status;
+        final String reason;
+
+        Result(Status status, String reason) {
+            this.status = status;
+            this.reason = reason;
+        }
+    }
+
+    private static class Page {
+        final int status;
+        final String body;
+
+        Page(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private static final Pattern PRICE = Pattern.compile("(?:₹|Rs\\.?|INR)\\s*([0-9][0-9,]*(?:\\.[0-9]+)?)");
+
+    private static final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private static volatile File file = new File(DEFAULT_PATH);
+    private static volatile boolean dirty;
+
+    private final HttpClient client;
+    private final String cookieHeader;
+    private final String userAgent;
+    private final Duration timeout;
+    private final List<String> markers;
+
+    PreflightProbe(String cookieHeader, String userAgent, Duration timeout, String markers) {
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(timeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        this.cookieHeader = cookieHeader;
+        this.userAgent = userAgent;
+        this.timeout = timeout;
+        this.markers = new ArrayList<>();
+        for (String marker : markers.split(",")) {
+            if (!marker.trim().isEmpty()) {
+                this.markers.add(marker.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    /** Probe that reuses the logged-in session (cookies and user agent) of a tab's driver. */
+    static PreflightProbe forSession(WebDriver driver, Duration timeout, String markers) {
+        StringBuilder cookies = new StringBuilder();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            if (cookies.length() > 0) cookies.append("; ");
+            cookies.append(cookie.getName()).append('=').append(cookie.getValue());
+        }
+        String userAgent = null;
+        try {
+            userAgent = (String) ((JavascriptExecutor) driver).executeScript("return navigator.userAgent;");
+        } catch (Exception e) {}
+        return new PreflightProbe(cookies.toString(), userAgent, timeout, markers);
+    }
+
+    /**
+     * Checks every target, fetching each distinct URL once and all of them at the
+     * same time. courseKey scopes the remembered price fingerprints.
+     */
+    Map<Integer, Result> probe(String courseKey, List<Target> targets) {
+        Map<String, Integer> urlUses = new HashMap<>();
+        for (Target target : targets) {
+            if (target.url != null) urlUses.merge(target.url, 1, Integer::sum);
+        }
+
+        Map<String, CompletableFuture<Page>> pending = new HashMap<>();
+        for (String url : urlUses.keySet()) {
+            pending.put(url, fetch(url));
+        }
+
+        Map<Integer, Result> results = new TreeMap<>();
+        for (Target target : targets) {
+            Page page = null;
+            if (target.url != null) {
+                try {
+                    page = pending.get(target.url).get(timeout.toMillis() * 2, TimeUnit.MILLISECONDS);
+                } catch (Exception e) {}
+            }
+            // a page shared by several packages only tells us whether it loads at all
+            boolean ownPage = target.url != null && urlUses.get(target.url) == 1;
+            results.put(target.index, judge(courseKey, target, page, ownPage));
+        }
+        return results;
+    }
+
+    private Result judge(String courseKey, Target target, Page page, boolean ownPage) {
+        if (target.disabled) {
+            return new Result(Status.UNAVAILABLE, "button disabled");
+        }
+        String marker = findMarker(target.text);
+        if (marker != null) {
+            return new Result(Status.UNAVAILABLE, "card says '" + marker + "'");
+        }
+        if (page != null && (page.status == 404 || page.status == 410)) {
+            return new Result(Status.UNAVAILABLE, "HTTP " + page.status);
+        }
+        String reason = page != null ? "HTTP " + page.status : "not probed";
+        if (page != null && page.status >= 400) {
+            reason = "not probed (HTTP " + page.status + ")";
+            page = null;
+        }
+        if (page != null && ownPage) {
+            marker = findMarker(page.body);
+            if (marker != null) {
+                return new Result(Status.UNAVAILABLE, "page says '" + marker + "'");
+            }
+        }
+
+        String prices = prices(target.text + (page != null && ownPage ? " " + page.body : ""));
+        if (prices.isEmpty()) {
+            return new Result(Status.AVAILABLE, reason);
+        }
+
+        String key = courseKey + "|" + (ownPage ? target.url : String.valueOf(target.index + 1));
+        String previous = fingerprints.put(key, prices);
+        if (prices.equals(previous)) {
+            return new Result(Status.AVAILABLE, reason);
+        }
+        dirty = true;
+        if (previous != null) {
+            return new Result(Status.CHANGED, "price " + previous + " → " + prices);
+        }
+        return new Result(Status.AVAILABLE, reason);
+    }
+
+    private CompletableFuture<Page> fetch(String url) {
+        HttpRequest.Builder request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (cookieHeader != null && !cookieHeader.isEmpty()) request.header("Cookie", cookieHeader);
+        if (userAgent != null) request.header("User-Agent", userAgent);
+
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+            .thenApply(response -> new Page(response.statusCode(), response.body()))
+            .exceptionally(e -> null);
+    }
+
+    private String findMarker(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (String marker : markers) {
+            if (lower.contains(marker)) return marker;
+        }
+        return null;
+    }
+
+    private static String prices(String text) {
+        Set<String> found = new TreeSet<>();
+        Matcher matcher = PRICE.matcher(text);
+        while (matcher.find()) {
+            found.add(matcher.group(1).replace(",", ""));
+        }
+        return String.join("/", found);
+    }
+
+    /** The distinct amounts in a package card's text, such as the list price and the offer price. */
+    static List<Double> amounts(String text) {
+        List<Double> amounts = new ArrayList<>();
+        for (String price : prices(text).split("/")) {
+            if (!price.isEmpty()) amounts.add(Double.parseDouble(price));
+        }
+        return amounts;
+    }
+
+    /** Loads the prices remembered by earlier runs; a missing file just starts empty. */
+    static void load(String path) {
+        file = new File(path);
+        fingerprints.clear();
+        if (!file.exists()) return;
+
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            props.load(reader);
+            for (String key : props.stringPropertyNames()) {
+                fingerprints.put(key, props.getProperty(key));
+            }
+        } catch (IOException e) {
+            Log.warn("⚠️  Could not read preflight prices: {}", e.getMessage());
+        }
+    }
+
+    static synchronized void save() {
+        if (!dirty) return;
+
+        Properties props = new Properties();
+        props.putAll(fingerprints);
+        try {
+            File dir = file.getAbsoluteFile().getParentFile();
+            if (dir != null) dir.mkdirs();
+            File tmp = new File(file.getPath() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+                props.store(writer, "Package prices seen by the pre-flight probe");
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            Log.warn("⚠️  Could not save preflight prices: {}", e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) {
+        String cookies = "";
+        String pricesPath = null;
+        List<Target> targets = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--cookie=")) cookies = arg.substring("--cookie=".length());
+            else if (arg.startsWith("--prices=")) pricesPath = arg.substring("--prices=".length());
+            else targets.add(new Target(targets.size(), arg, "", false));
+        }
+        if (targets.isEmpty()) {
+            Log.error("❌ Usage: java PreflightProbe [--cookie=\"name=value; ...\"] [--prices=file] url...");
+            System.exit(2);
+        }
+
+        if (pricesPath != null) load(pricesPath);
+        PreflightProbe probe = new PreflightProbe(cookies, null, Duration.ofSeconds(10), DEFAULT_MARKERS);
+        Map<Integer, Result> results = probe.probe("cli", targets);
+        if (pricesPath != null) save();
+        boolean anyUnavailable = false;
+        for (Target target : targets) {
+            Result result = results.get(target.index);
+            anyUnavailable |= result.status == Status.UNAVAILABLE;
+            Log.info("{}  {} ({})", result.status, target.url, result.reason);
+        }
+        Log.flush();
+        System.exit(anyUnavailable ? 1 : 0);
+    }
+}
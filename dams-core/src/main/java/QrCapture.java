@@ -0,0 +1,173 @@
+import org.openqa.selenium.WebDriver;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the payment QR from the network instead of from a screenshot.
+ *
+ * After the payment button is clicked the page fetches the payment order, whose
+ * response carries the UPI intent the QR encodes (upi://pay?pa=...), or loads the
+ * QR as an image. The responses PageEvents remembers are checked as they finish:
+ * text responses from URLs matching qr.capture.urls are searched for a UPI string,
+ * and image responses with "qr" in the URL are saved as they are. The first hit
+ * is the payload; it goes into the results instead of (or next to) a screenshot.
+ *
+ * qr.capture picks the mode: screenshot (the blind wait and screenshot, as before),
+ * network (payload only, with the screenshot as fallback when no payload turned
+ * up) or both (payload and the screenshot for audit). Without a CDP session there
+ * is nothing to read and the screenshot path is used.
+ */
+class QrCapture {
+
+    enum Mode { SCREENSHOT, NETWORK, BOTH }
+
+    /** The QR content read from a response: a UPI string, or the file an image QR was saved to. */
+    static class Payload {
+        final String kind;
+        final String value;
+        final String url;
+
+        Payload(String kind, String value, String url) {
+            this.kind = kind;
+            this.value = value;
+            this.url = url;
+        }
+
+        @Override
+        public String toString() {
+            return kind + ":" + value;
+        }
+    }
+
+    static final List<String> DEFAULT_URLS = Arrays.asList("paytm", "qr", "upi", "payment", "transaction", "order");
+
+    private static final Pattern UPI = Pattern.compile("upi://pay\\?[^\"'\\s<>]+", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_BODY_BYTES = 1024 * 1024;
+
+    private static volatile Mode mode = Mode.BOTH;
+    private static volatile List<String> urlFragments = DEFAULT_URLS;
+    private static volatile long timeoutMs = 30_000;
+
+    static void configure(String captureMode, List<String> urls, long networkTimeoutMs) {
+        mode = Mode.valueOf(captureMode.trim().toUpperCase(Locale.ROOT));
+        List<String> fragments = new ArrayList<>();
+        for (String url : urls) {
+            if (!url.trim().isEmpty()) fragments.add(url.trim().toLowerCase(Locale.ROOT));
+        }
+        urlFragments = fragments;
+        timeoutMs = networkTimeoutMs;
+    }
+
+    static Mode mode() {
+        return mode;
+    }
+
+    /**
+     * Prepares a checkout flow for the configured mode: sets qrFromNetwork and
+     * qrScreenshot, which the flow's QR steps depend on, and registers the
+     * captureQrPayload handler. Only responses finishing after this call count, so
+     * a previous package's QR is never picked up. An image QR is saved under
+     * imagePrefix; the payload ends up in the flow variable qrPayload.
+     */
+    static Flow.Context attach(Flow.Context context, String imagePrefix) {
+        long responseMark = PageEvents.responseMark(context.driver);
+        return context
+            .set("qrFromNetwork", mode != Mode.SCREENSHOT && PageEvents.isAttached(context.driver))
+            .set("qrScreenshot", true)
+            .handler("captureQrPayload", flow -> {
+                Payload payload = await(flow.driver, responseMark, imagePrefix);
+                if (payload == null) {
+                    Log.info("    ℹ No QR found in the network responses{}", mode == Mode.NETWORK ? ", using a screenshot" : "");
+                    return;
+                }
+                flow.set("qrPayload", payload);
+                Log.info("    🔗 QR read from the network: {}", payload);
+                if (mode == Mode.NETWORK) {
+                    flow.set("qrScreenshot", false);
+                }
+            });
+    }
+
+    /**
+     * Waits up to qr.network.timeout for a response finished after the mark that
+     * carries the QR. Returns null when none did, or when the driver has no events.
+     */
+    static Payload await(WebDriver driver, long responseMark, String imagePrefix) {
+        if (!PageEvents.isAttached(driver)) return null;
+
+        long end = RunClock.monotonicMs() + timeoutMs;
+        Set<Long> inspected = new HashSet<>();
+        while (true) {
+            long seen = PageEvents.eventMark(driver);
+            for (PageEvents.Response response : PageEvents.responsesAfter(driver, responseMark)) {
+                if (!inspected.add(response.index)) continue;
+                Payload payload = inspect(driver, response, imagePrefix);
+                if (payload != null) return payload;
+            }
+
+            long left = end - RunClock.monotonicMs();
+            if (left <= 0) return null;
+            PageEvents.awaitEventAfter(driver, seen, left);
+        }
+    }
+
+    private static Payload inspect(WebDriver driver, PageEvents.Response response, String imagePrefix) {
+        String url = response.url.toLowerCase(Locale.ROOT);
+        boolean image = response.mimeType.startsWith("image/");
+
+        if (image) {
+            if (!url.contains("qr") || url.startsWith("data:")) return null;
+            byte[] bytes = PageEvents.responseBody(driver, response);
+            if (bytes == null || bytes.length == 0 || bytes.length > MAX_BODY_BYTES) return null;
+            String file = imagePrefix + extension(response.mimeType);
+            try {
+                Files.write(new File(file).toPath(), bytes);
+                return new Payload("image", file, response.url);
+            } catch (IOException e) {
+                Log.warn("    ⚠️  Could not save QR image: {}", e.getMessage());
+                return null;
+            }
+        }
+
+        if (!matchesUrl(url)) return null;
+        byte[] bytes = PageEvents.responseBody(driver, response);
+        if (bytes == null || bytes.length > MAX_BODY_BYTES) return null;
+        String upi = extractUpi(new String(bytes, StandardCharsets.UTF_8));
+        return upi != null ? new Payload("upi", upi, response.url) : null;
+    }
+
+    private static boolean matchesUrl(String url) {
+        for (String fragment : urlFragments) {
+            if (url.contains(fragment)) return true;
+        }
+        return false;
+    }
+
+    /** The first UPI intent in a response body, with JSON escaping undone. */
+    static String extractUpi(String body) {
+        String text = body.replace("\\/", "/")
+            .replace("\\u0026", "&").replace("\\u003d", "=").replace("\\u003D", "=")
+            .replace("&amp;", "&");
+        Matcher matcher = UPI.matcher(text);
+        if (!matcher.find()) return null;
+        String upi = matcher.group();
+        // a trailing backslash or comma belongs to the surrounding JSON, not the intent
+        while (upi.endsWith("\\") || upi.endsWith(",")) {
+            upi = upi.substring(0, upi.length() - 1);
+        }
+        return upi;
+    }
+
+    private static String extension(String mimeType) {
+        if (mimeType.contains("svg")) return ".svg";
+        if (mimeType.contains("jpeg") || mimeType.contains("jpg")) return ".jpg";
+        if (mimeType.contains("gif")) return ".gif";
+        if (mimeType.contains("webp")) return ".webp";
+        return ".png";
+    }
+}
@@ -0,0 +1,209 @@
+import com.google.zxing.*;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+
+/**
+ * Decodes and checks each captured QR while the run is still going.
+ *
+ * Captures are decoded with ZXing on a pool sized to the machine's cores, so a
+ * tab hands over its screenshot and carries on navigating while the image is
+ * read. A capture is BLANK when the image is (nearly) one colour or holds no
+ * readable QR, INVALID when the QR is not a UPI payment intent with a payee
+ * address and an amount within qr.max.amount, and VALID otherwise. When the
+ * runner saw the package's prices on its card, the amount must also be one of
+ * them. A payload already read from the network is checked the same way
+ * without decoding, and an SVG QR is drawn with SvgRaster before it is decoded.
+ * The runners retry the checkout of a package whose capture was not VALID, up to
+ * qr.retries times, so a bad capture shows up as a retry in the log instead of a
+ * broken image in the next day's report.
+ */
+class QrValidator {
+
+    enum Status { VALID, BLANK, INVALID }
+
+    /** Outcome of one capture: status, decoded text (if any), amount and why it failed. */
+    static class Check {
+        final Status status;
+        final String payload;
+        final Double amount;
+        final String reason;
+
+        Check(Status status, String payload, Double amount, String reason) {
+            this.status = status;
+            this.payload = payload;
+            this.amount = amount;
+            this.reason = reason;
+        }
+
+        boolean valid() {
+            return status == Status.VALID;
+        }
+
+        @Override
+        public String toString() {
+            return status + (reason != null ? " (" + reason + ")" : "");
+        }
+    }
+
+    private static final Pattern VPA = Pattern.compile("[A-Za-z0-9._\\-]{2,256}@[A-Za-z0-9.\\-]{2,64}");
+
+    // a screenshot whose sampled pixels barely differ has nothing on it
+    private static final int BLANK_SPREAD = 16;
+
+    // rupee amounts match when they agree to the paisa
+    private static final double PRICE_TOLERANCE = 0.005;
+
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "qr-decode");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private static final Map<DecodeHintType, Object> HINTS = new EnumMap<>(DecodeHintType.class);
+
+    static {
+        HINTS.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+        HINTS.put(DecodeHintType.POSSIBLE_FORMATS, Collections.singletonList(BarcodeFormat.QR_CODE));
+    }
+
+    private static volatile double maxAmount = 100_000;
+    private static volatile int retries = 1;
+
+    static void configure(double maxQrAmount, int qrRetries) {
+        maxAmount = maxQrAmount;
+        retries = qrRetries;
+    }
+
+    static int retries() {
+        return retries;
+    }
+
+    /** Starts checking a capture with no prices to compare the amount with. */
+    static Future<Check> submit(String imagePath, String networkPayload) {
+        return submit(imagePath, networkPayload, Collections.emptyList());
+    }
+
+    /**
+     * Starts checking a capture: the network payload when there is one, else the image.
+     * seenPrices are the amounts shown for the package; empty skips that comparison.
+     */
+    static Future<Check> submit(String imagePath, String networkPayload, List<Double> seenPrices) {
+        if (networkPayload != null) {
+            return CompletableFuture.completedFuture(validate(networkPayload, seenPrices));
+        }
+        return POOL.submit(() -> check(imagePath, seenPrices));
+    }
+
+    /** Waits for a submitted check; a decoder that fails or hangs counts as INVALID. */
+    static Check await(Future<Check> pending) {
+        try {
+            return pending.get(60, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Check(Status.INVALID, null, null, "interrupted");
+        } catch (Exception e) {
+            pending.cancel(true);
+            return new Check(Status.INVALID, null, null, "decoder failed: " + e.getMessage());
+        }
+    }
+
+    static Check check(String imagePath, List<Double> seenPrices) {
+        if (imagePath == null) {
+            return new Check(Status.BLANK, null, null, "no capture");
+        }
+        try {
+            File file = new File(imagePath);
+            BufferedImage image = imagePath.toLowerCase(Locale.ROOT).endsWith(".svg")
+                ? SvgRaster.read(file) : ImageIO.read(file);
+            if (image == null) {
+                return new Check(Status.INVALID, null, null, "not an image");
+            }
+            if (isBlank(image)) {
+                return new Check(Status.BLANK, null, null, "blank image");
+            }
+            String text = decode(image);
+            return text == null ? new Check(Status.BLANK, null, null, "no QR code found") : validate(text, seenPrices);
+        } catch (Exception e) {
+            return new Check(Status.INVALID, null, null, "unreadable: " + e.getMessage());
+        }
+    }
+
+    /** Checks a payload is a UPI payment intent with a payee and a sensible amount, one of seenPrices if any. */
+    static Check validate(String payload, List<Double> seenPrices) {
+        if (!payload.regionMatches(true, 0, "upi://pay?", 0, "upi://pay?".length())) {
+            return new Check(Status.INVALID, payload, null, "not a UPI payment QR");
+        }
+
+        Map<String, String> params = new HashMap<>();
+        for (String pair : payload.substring("upi://pay?".length()).split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            try {
+                params.put(pair.substring(0, eq).toLowerCase(Locale.ROOT),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8.name()));
+            } catch (Exception e) {
+                params.put(pair.substring(0, eq).toLowerCase(Locale.ROOT), pair.substring(eq + 1));
+            }
+        }
+
+        String payee = params.get("pa");
+        if (payee == null || !VPA.matcher(payee).matches()) {
+            return new Check(Status.INVALID, payload, null, "bad payee address " + payee);
+        }
+        String am = params.get("am");
+        if (am == null) {
+            return new Check(Status.INVALID, payload, null, "no amount");
+        }
+        double amount;
+        try {
+            amount = Double.parseDouble(am);
+        } catch (NumberFormatException e) {
+            return new Check(Status.INVALID, payload, null, "bad amount " + am);
+        }
+        if (amount <= 0 || amount > maxAmount) {
+            return new Check(Status.INVALID, payload, amount, "amount " + am + " outside 0-" + maxAmount);
+        }
+        if (!seenPrices.isEmpty() && seenPrices.stream().noneMatch(price -> Math.abs(price - amount) < PRICE_TOLERANCE)) {
+            return new Check(Status.INVALID, payload, amount, "amount " + am + " not a price shown " + seenPrices);
+        }
+        return new Check(Status.VALID, payload, amount, null);
+    }
+
+    private static String decode(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new RGBLuminanceSource(width, height, pixels)));
+        try {
+            return new QRCodeReader().decode(bitmap, HINTS).getText();
+        } catch (NotFoundException | ChecksumException | FormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isBlank(BufferedImage image) {
+        int min = 255;
+        int max = 0;
+        int stepX = Math.max(1, image.getWidth() / 64);
+        int stepY = Math.max(1, image.getHeight() / 64);
+        for (int y = 0; y < image.getHeight(); y += stepY) {
+            for (int x = 0; x < image.getWidth(); x += stepX) {
+                int rgb = image.getRGB(x, y);
+                int gray = (((rgb >> 16) & 0xff) * 299 + ((rgb >> 8) & 0xff) * 587 + (rgb & 0xff) * 114) / 1000;
+                min = Math.min(min, gray);
+                max = Math.max(max, gray);
+            }
+        }
+        return max - min < BLANK_SPREAD;
+    }
+}
@@ -0,0 +1,261 @@
+import java.util.*;
+
+/**
+ * Markup of the HTML reports, shared by the runners and ShardMerge.
+ *
+ * The parallel report (DAMSParallel, ShardMerge) is a document start with its
+ * styles, a summary the runner writes itself, and one gallery section per course.
+ * The CBT report (DamsDelhiLogin) is a table: a head with the totals, one row per
+ * course and a tail closing it. Callers pass the numbers in; nothing here reads
+ * run state.
+ */
+class ReportHtml {
+
+    static final String DOCUMENT_END = "</body>\n</html>";
+
+    private ReportHtml() {
+    }
+
+    // ---- parallel report ----
+
+    /** Doctype, styles and the opening body tag of a parallel report page. */
+    static String documentStart(String title) {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html>\n<head>\n");
+        html.append("<meta charset='UTF-8'>\n");
+        html.append("<title>").append(title).append("</title>\n");
+        html.append("<style>\n");
+        html.append("body { font-family: Arial, sans-serif; margin: 20px; background: #f5f5f5; }\n");
+        html.append("h1 { color: #333; border-bottom: 3px solid #4CAF50; padding-bottom: 10px; }\n");
+        html.append(".summary { background: white; padding: 20px; margin: 20px 0; border-radius: 5px; box-shadow: 0 2px 5px rgba(0,0,0,0.1); }\n");
+        html.append(".summary h2 { color: #2196F3; margin-top: 0; }\n");
+        html.append(".stats { display: flex; gap: 30px; font-size: 24px; font-weight: bold; flex-wrap: wrap; }\n");
+        html.append(".stat-item { padding: 20px; background: #4CAF50; color: white; border-radius: 5px; min-width: 200px; }\n");
+        html.append(".stat-item.failed { background: #e53935; }\n");
+        html.append(".course-section { background: white; padding: 20px; margin: 20px 0; border-radius: 5px; box-shadow: 0 2px 5px rgba(0,0,0,0.1); }\n");
+        html.append(".course-section h2 { color: #FF5722; border-bottom: 2px solid #FF5722; padding-bottom: 5px; }\n");
+        html.append(".qr-grid { display: grid; grid-template-columns: repeat(auto-fit, minmax(300px, 1fr)); gap: 20px; margin-top: 20px; }\n");
+        html.append(".qr-item { text-align: center; padding: 10px; background: #f9f9f9; border-radius: 5px; border: 2px solid #ddd; }\n");
+        html.append(".qr-item img { max-width: 100%; height: auto; border: 2px solid #ddd; border-radius: 5px; }\n");
+        html.append(".qr-item p { font-weight: bold; margin: 10px 0; color: #333; }\n");
+        html.append(".qr-item .tab-info { font-size: 12px; color: #666; margin-top: 5px; }\n");
+        html.append(".qr-item .qr-payload { font-weight: normal; font-size: 11px; word-break: break-all; text-align: left; }\n");
+        html.append(".qr-item.failed { border-color: #e53935; background: #fdecea; }\n");
+        html.append(".qr-item .qr-status { color: #e53935; }\n");
+        html.append(".badge { display: inline-block; padding: 5px 10px; background: #2196F3; color: white; border-radius: 3px; font-size: 12px; margin-top: 5px; }\n");
+        html.append(".page-link { display: inline-block; margin-top: 10px; padding: 8px 16px; background: #FF5722; color: white; border-radius: 3px; text-decoration: none; font-weight: bold; }\n");
+        html.append("</style>\n</head>\n<body>\n");
+        return html.toString();
+    }
+
+    /** Where the full-size screenshots went: the archives and their manifest, or nothing when unpacked. */
+    static String artifacts(ArtifactPacker.Manifest manifest) {
+        if (manifest == null || manifest.archives.isEmpty()) return "";
+        StringBuilder html = new StringBuilder();
+        html.append("<p><strong>📦 Screenshots archived</strong> (").append(manifest.entries.size()).append(" files, ")
+            .append(ArtifactPacker.megabytes(manifest.archiveBytes())).append(" MB; unzip next to this report for full-size images, see <a href='")
+            .append(ArtifactPacker.DEFAULT_DIR).append("/").append(ArtifactPacker.MANIFEST).append("'>manifest</a>):</p>\n<ul>\n");
+        for (Map.Entry<String, Long> archive : manifest.archives.entrySet()) {
+            html.append("<li>").append(archive.getKey()).append(" (")
+                .append(ArtifactPacker.megabytes(archive.getValue())).append(" MB)</li>\n");
+        }
+        html.append("</ul>\n");
+        return html.toString();
+    }
+
+    /** A course's QR gallery; thumbnails maps screenshot paths to their previews. */
+    static String courseSection(String courseName, List<ScreenshotInfo> screenshots, Map<String, String> thumbnails) {
+        StringBuilder html = new StringBuilder();
+        html.append("<div class='course-section'>\n");
+        html.append("<h2>📚 ").append(courseName).append("</h2>\n");
+        html.append(packagesLine(screenshots));
+
+        if (!screenshots.isEmpty()) {
+            html.append("<div class='qr-grid'>\n");
+
+            for (ScreenshotInfo screenshot : screenshots) {
+                html.append("<div class='qr-item").append(screenshot.qrStatus != null ? " failed" : "").append("'>\n");
+                html.append("<p>Package ").append(screenshot.packageIndex + 1).append("</p>\n");
+                if (screenshot.qrStatus != null) {
+                    html.append("<p class='qr-status'>❌ QR ").append(screenshot.qrStatus);
+                    if (screenshot.qrReason != null) {
+                        html.append(": ").append(escape(screenshot.qrReason));
+                    }
+                    html.append("</p>\n");
+                }
+                if (screenshot.filepath != null) {
+                    String thumb = thumbnails.getOrDefault(screenshot.filepath, screenshot.filepath);
+                    html.append("<a href='").append(screenshot.filepath).append("' target='_blank'>");
+                    html.append("<img src='").append(thumb).append("' loading='lazy' alt='QR Code Package ").append(screenshot.packageIndex + 1).append("'>");
+                    html.append("</a>\n");
+                }
+                if (screenshot.qrPayload != null) {
+                    html.append("<p class='qr-payload'><code>").append(escape(screenshot.qrPayload)).append("</code></p>\n");
+                }
+                html.append("<div class='tab-info'>\n");
+                html.append("<span class='badge'>Tab ").append(screenshot.tabNumber).append("</span>\n");
+                html.append("<br>").append(screenshot.timestamp).append("\n");
+                html.append("</div>\n");
+                html.append("</div>\n");
+            }
+
+            html.append("</div>\n");
+        } else {
+            html.append("<p><em>No packages processed for this course.</em></p>\n");
+        }
+
+        html.append("</div>\n");
+        return html.toString();
+    }
+
+    /** The index entry of a course whose gallery is on its own page. */
+    static String courseLink(String courseName, List<ScreenshotInfo> screenshots, String pageName) {
+        StringBuilder html = new StringBuilder();
+        html.append("<div class='course-section'>\n");
+        html.append("<h2>📚 ").append(courseName).append("</h2>\n");
+        html.append(packagesLine(screenshots));
+        html.append("<a class='page-link' href='").append(pageName).append("'>Open QR gallery →</a>\n");
+        html.append("</div>\n");
+        return html.toString();
+    }
+
+    private static String packagesLine(List<ScreenshotInfo> screenshots) {
+        int failedQr = 0;
+        for (ScreenshotInfo screenshot : screenshots) {
+            if (screenshot.qrStatus != null) failedQr++;
+        }
+        StringBuilder html = new StringBuilder();
+        html.append("<p><strong>Packages processed:</strong> ").append(screenshots.size());
+        if (failedQr > 0) {
+            html.append(" (").append(failedQr).append(" failed the QR check)");
+        }
+        return html.append("</p>\n").toString();
+    }
+
+    // ---- CBT report ----
+
+    /** Everything up to the first result row: styles, the totals and the table header. */
+    static String cbtHead(int attempted, int successful, int failed, String executionTime) {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html>\n<head>\n");
+        html.append("<meta charset='UTF-8'>\n");
+        html.append("<meta name='viewport' content='width=device-width, initial-scale=1.0'>\n");
+        html.append("<title>DAMS CBT Automation Report</title>\n");
+        html.append("<style>\n");
+        html.append("* { margin: 0; padding: 0; box-sizing: border-box; }\n");
+        html.append("body { font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); min-height: 100vh; padding: 40px 20px; }\n");
+        html.append(".container { max-width: 1400px; margin: 0 auto; }\n");
+        html.append(".header { background: white; border-radius: 20px; padding: 40px; margin-bottom: 30px; box-shadow: 0 10px 40px rgba(0,0,0,0.1); text-align: center; }\n");
+        html.append(".header h1 { color: #2d3748; font-size: 42px; font-weight: 700; margin-bottom: 10px; background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); -webkit-background-clip: text; -webkit-text-fill-color: transparent; }\n");
+        html.append(".header .subtitle { color: #718096; font-size: 16px; margin-top: 5px; }\n");
+        html.append(".summary { background: white; border-radius: 20px; padding: 40px; margin-bottom: 30px; box-shadow: 0 10px 40px rgba(0,0,0,0.1); }\n");
+        html.append(".summary h2 { color: #2d3748; font-size: 28px; font-weight: 600; margin-bottom: 25px; }\n");
+        html.append(".stats-grid { display: grid; grid-template-columns: repeat(auto-fit, minmax(250px, 1fr)); gap: 20px; margin-bottom: 25px; }\n");
+        html.append(".stat-card { background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); color: white; padding: 30px; border-radius: 15px; box-shadow: 0 5px 20px rgba(102, 126, 234, 0.4); }\n");
+        html.append(".stat-card .label { font-size: 14px; opacity: 0.9; margin-bottom: 10px; }\n");
+        html.append(".stat-card .value { font-size: 48px; font-weight: 700; }\n");
+        html.append(".stat-card.success { background: linear-gradient(135deg, #48bb78 0%, #38a169 100%); }\n");
+        html.append(".stat-card.failed { background: linear-gradient(135deg, #f56565 0%, #e53e3e 100%); }\n");
+        html.append(".results { background: white; border-radius: 20px; padding: 40px; margin-bottom: 30px; box-shadow: 0 10px 40px rgba(0,0,0,0.1); }\n");
+        html.append(".results h2 { color: #2d3748; font-size: 28px; font-weight: 600; margin-bottom: 25px; }\n");
+        html.append("table { width: 100%; border-collapse: collapse; }\n");
+        html.append("thead { background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); color: white; }\n");
+        html.append("th { padding: 15px; text-align: left; font-weight: 600; }\n");
+        html.append("tbody tr { border-bottom: 1px solid #e2e8f0; transition: background 0.3s; }\n");
+        html.append("tbody tr:hover { background: #f7fafc; }\n");
+        html.append("td { padding: 15px; }\n");
+        html.append(".status-badge { display: inline-block; padding: 6px 12px; border-radius: 20px; font-size: 12px; font-weight: 600; }\n");
+        html.append(".status-success { background: #c6f6d5; color: #22543d; }\n");
+        html.append(".status-failed { background: #fed7d7; color: #742a2a; }\n");
+        html.append(".screenshot-link { color: #667eea; text-decoration: none; font-weight: 600; }\n");
+        html.append(".screenshot-link:hover { text-decoration: underline; }\n");
+        html.append(".error-msg { color: #e53e3e; font-size: 12px; font-style: italic; }\n");
+        html.append(".footer { text-align: center; color: white; margin-top: 40px; padding: 20px; }\n");
+        html.append("@media (max-width: 768px) {\n");
+        html.append("  .header h1 { font-size: 32px; }\n");
+        html.append("  .summary, .results { padding: 25px 20px; }\n");
+        html.append("  table { font-size: 14px; }\n");
+        html.append("  th, td { padding: 10px; }\n");
+        html.append("}\n");
+        html.append("</style>\n</head>\n<body>\n");
+        html.append("<div class='container'>\n");
+        html.append("<div class='header'>\n");
+        html.append("<h1>🎯 DAMS CBT Automation Report</h1>\n");
+        html.append("<p class='subtitle'>Comprehensive CBT Course Purchase Summary</p>\n");
+        html.append("</div>\n");
+        html.append("<div class='summary'>\n");
+        html.append("<h2>📊 Execution Summary</h2>\n");
+        html.append("<div class='stats-grid'>\n");
+        html.append("<div class='stat-card'>\n");
+        html.append("<div class='label'>Total Courses Attempted</div>\n");
+        html.append("<div class='value'>").append(attempted).append("</div>\n");
+        html.append("</div>\n");
+        html.append("<div class='stat-card success'>\n");
+        html.append("<div class='label'>Successful Purchases</div>\n");
+        html.append("<div class='value'>").append(successful).append("</div>\n");
+        html.append("</div>\n");
+        html.append("<div class='stat-card failed'>\n");
+        html.append("<div class='label'>Failed Attempts</div>\n");
+        html.append("<div class='value'>").append(failed).append("</div>\n");
+        html.append("</div>\n");
+        html.append("</div>\n");
+        html.append("<p style='margin-top: 20px; color: #4a5568;'><strong>Execution Time:</strong> ").append(executionTime).append("</p>\n");
+        html.append("</div>\n");
+        html.append("<div class='results'>\n");
+        html.append("<h2>📋 Detailed Results</h2>\n");
+        html.append("<table>\n");
+        html.append("<thead>\n");
+        html.append("<tr>\n");
+        html.append("<th>#</th>\n");
+        html.append("<th>Course Name</th>\n");
+        html.append("<th>Status</th>\n");
+        html.append("<th>Time</th>\n");
+        html.append("<th>Screenshot</th>\n");
+        html.append("<th>Error</th>\n");
+        html.append("</tr>\n");
+        html.append("</thead>\n");
+        html.append("<tbody>\n");
+        return html.toString();
+    }
+
+    static String cbtRow(int rowNumber, CourseResult result) {
+        StringBuilder html = new StringBuilder();
+        html.append("<tr>\n");
+        html.append("<td>").append(rowNumber).append("</td>\n");
+        html.append("<td>").append(result.courseName).append("</td>\n");
+        String statusClass = result.status.equals("SUCCESS") ? "status-success" : "status-failed";
+        html.append("<td><span class='status-badge ").append(statusClass).append("'>").append(result.status).append("</span></td>\n");
+        html.append("<td>").append(result.timestamp).append("</td>\n");
+        if (result.screenshotPath != null) {
+            html.append("<td><a href='").append(result.screenshotPath).append("' class='screenshot-link' target='_blank'>View QR</a></td>\n");
+        } else if (result.qrPayload != null) {
+            html.append("<td><code>").append(escape(result.qrPayload)).append("</code></td>\n");
+        } else {
+            html.append("<td>-</td>\n");
+        }
+        if (result.errorMessage != null) {
+            html.append("<td><span class='error-msg'>").append(result.errorMessage).append("</span></td>\n");
+        } else {
+            html.append("<td>-</td>\n");
+        }
+        html.append("</tr>\n");
+        return html.toString();
+    }
+
+    static String cbtTail() {
+        StringBuilder html = new StringBuilder();
+        html.append("</tbody>\n");
+        html.append("</table>\n");
+        html.append("</div>\n");
+        html.append("<div class='footer'>\n");
+        html.append("<p>Generated by DAMS CBT Automation System | Powered by Selenium WebDriver</p>\n");
+        html.append("</div>\n");
+        html.append("</div>\n");
+        html.append(DOCUMENT_END);
+        return html.toString();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace("'", "&#39;");
+    }
+}
@@ -0,0 +1,87 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Small JPEG previews of QR screenshots for the HTML reports.
+ *
+ * Thumbnails are written next to the screenshots (screenshots/thumbs/) on a pool
+ * sized to the machine's cores, so a report page only pulls a few KB per package
+ * and the full PNG is loaded when someone clicks through.
+ */
+class ReportThumbnails {
+
+    private static final int THUMB_WIDTH = 360;
+    private static final File THUMB_DIR = new File("screenshots", "thumbs");
+
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "report-thumbnails");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    /**
+     * Creates thumbnails for all given screenshots in parallel and returns a map of
+     * screenshot path to thumbnail path. Screenshots that could not be scaled map to
+     * themselves, so the report can always use the returned path.
+     */
+    static Map<String, String> createAll(List<String> screenshotPaths) {
+        Map<String, Future<String>> pending = new LinkedHashMap<>();
+        for (String path : screenshotPaths) {
+            pending.put(path, POOL.submit(() -> create(path)));
+        }
+
+        Map<String, String> thumbnails = new HashMap<>();
+        for (Map.Entry<String, Future<String>> entry : pending.entrySet()) {
+            String thumb = entry.getKey();
+            try {
+                thumb = entry.getValue().get(60, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                Log.warn("⚠️  Thumbnail failed for {}: {}", entry.getKey(), e.getMessage());
+            }
+            thumbnails.put(entry.getKey(), thumb);
+        }
+        return thumbnails;
+    }
+
+    private static String create(String screenshotPath) throws Exception {
+        File source = new File(screenshotPath);
+        String name = source.getName().replaceAll("\\.png$", "") + ".jpg";
+        File target = new File(THUMB_DIR, name);
+        if (target.exists() && target.lastModified() >= source.lastModified()) {
+            return toReportPath(target);
+        }
+
+        BufferedImage image = ImageIO.read(source);
+        if (image == null) {
+            return screenshotPath;
+        }
+
+        int width = Math.min(THUMB_WIDTH, image.getWidth());
+        int height = Math.max(1, (int) ((long) image.getHeight() * width / image.getWidth()));
+
+        // JPEG has no alpha channel, so draw onto an opaque RGB canvas
+        BufferedImage thumb = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumb.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+
+        THUMB_DIR.mkdirs();
+        ImageIO.write(thumb, "jpg", target);
+        return toReportPath(target);
+    }
+
+    private static String toReportPath(File file) {
+        return file.getPath().replace(File.separatorChar, '/');
+    }
+}
@@ -0,0 +1,125 @@
+import java.util.*;
+
+/**
+ * Elapsed-time budget of a run, so a slow run ends with a report instead of being
+ * killed by the job timeout.
+ *
+ * The budget ends a fixed reserve before the hard limit, leaving time to write the
+ * report and history. Every timed step gets a deadline: its own limit, cut short by
+ * the end of the budget. Course durations are averaged as courses finish; once the
+ * queued courses no longer fit in the time left, courses are taken in priority
+ * order (course.priority, most important first) instead of discovery order, and
+ * when the budget is spent no new course or package is started. What was not run
+ * is reported as shed.
+ */
+class RunBudget {
+
+    /** A step ran past its deadline (or past the end of the run budget). */
+    static class DeadlineExceeded extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        DeadlineExceeded(String message) {
+            super(message);
+        }
+    }
+
+    private final long endMs;
+    private final long defaultStepMs;
+    private final Map<String, Long> stepLimitsMs;
+    private final List<String> priorities;
+
+    private long courseEstimateMs = -1;
+    private boolean priorityMode;
+    private boolean outOfTime;
+
+    /**
+     * @param budgetMs      time from now until the budget ends (the reserve for the report already taken off)
+     * @param defaultStepMs deadline of a step without its own limit
+     * @param stepLimitsMs  per-step deadlines by step name
+     * @param priorities    course name fragments, most important first
+     */
+    RunBudget(long budgetMs, long defaultStepMs, Map<String, Long> stepLimitsMs, List<String> priorities) {
+        this.endMs = RunClock.monotonicMs() + budgetMs;
+        this.defaultStepMs = defaultStepMs;
+        this.stepLimitsMs = new HashMap<>(stepLimitsMs);
+        this.priorities = new ArrayList<>();
+        for (String fragment : priorities) {
+            if (!fragment.trim().isEmpty()) {
+                this.priorities.add(fragment.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    long remainingMs() {
+        return endMs - RunClock.monotonicMs();
+    }
+
+    boolean exhausted() {
+        return remainingMs() <= 0;
+    }
+
+    /** RunClock.monotonicMs() by which a step starting now must finish. */
+    long deadlineFor(String step) {
+        long limit = stepLimitsMs.getOrDefault(step, defaultStepMs);
+        return Math.min(RunClock.monotonicMs() + limit, endMs);
+    }
+
+    /** 0 for the first priority fragment the course name contains, and so on; unlisted courses come last. */
+    int priority(String course) {
+        String name = course.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < priorities.size(); i++) {
+            if (name.contains(priorities.get(i))) return i;
+        }
+        return priorities.size();
+    }
+
+    synchronized void courseFinished(long ms) {
+        courseEstimateMs = courseEstimateMs < 0 ? ms : (courseEstimateMs * 3 + ms) / 4;
+    }
+
+    /**
+     * Whether next() would still hand out a course: one is queued, the budget is not
+     * spent and at least one more course is expected to fit. Asked before a tab
+     * leases an account and logs in, so no login is spent on work that is shed.
+     */
+    synchronized boolean canStart(Queue<String> queue) {
+        if (queue.isEmpty() || exhausted()) return false;
+        long remaining = remainingMs();
+        if (courseEstimateMs > 0 && courseEstimateMs > remaining) {
+            if (!outOfTime) {
+                outOfTime = true;
+                Log.warn("⏳ {}s left, less than a course takes (~{}s): not starting another",
+                    remaining / 1000, courseEstimateMs / 1000);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Takes the next course off the queue: the head while everything still fits in
+     * the budget, the most important one once it does not, and nothing when the
+     * budget is spent or not even one more course is expected to fit.
+     */
+    synchronized String next(Queue<String> queue, int activeTabs) {
+        if (!canStart(queue)) return null;
+
+        long remaining = remainingMs();
+        if (courseEstimateMs > 0) {
+            long needed = courseEstimateMs * queue.size() / Math.max(1, activeTabs);
+            if (!priorityMode && needed > remaining) {
+                priorityMode = true;
+                Log.warn("⏳ {} queued courses need ~{}min but {}min are left: most important courses first",
+                    queue.size(), needed / 60000, remaining / 60000);
+            }
+        }
+
+        if (!priorityMode) return queue.poll();
+
+        String best = null;
+        for (String course : queue) {
+            if (best == null || priority(course) < priority(best)) best = course;
+        }
+        return best != null && queue.remove(best) ? best : null;
+    }
+}
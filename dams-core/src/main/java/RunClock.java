@@ -0,0 +1,84 @@
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time source for timestamps, durations and screenshot names.
+ *
+ * Formatting uses immutable java.time formatters, so every tab thread can stamp
+ * at once without the shared SimpleDateFormat state corrupting each other's
+ * output. uniqueStamp() hands out strictly increasing millisecond stamps, so two
+ * tabs saving a screenshot in the same second (or the wall clock stepping back)
+ * never produce the same file name. The clock can be swapped with setClock() to
+ * run against fixed or stepped time.
+ *
+ * Deadlines and durations use monotonicMs() instead, which never follows
+ * setClock() or a wall-clock jump: a wait timed on a fixed clock would never end.
+ */
+final class RunClock {
+
+    static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    static final DateTimeFormatter FILE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final DateTimeFormatter UNIQUE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static final AtomicLong lastUnique = new AtomicLong(Long.MIN_VALUE);
+
+    private RunClock() {}
+
+    /** Replaces the time source; null restores the system clock. */
+    static void setClock(Clock newClock) {
+        clock = newClock != null ? newClock : Clock.systemDefaultZone();
+        lastUnique.set(Long.MIN_VALUE);
+    }
+
+    /** Milliseconds from an arbitrary origin, only for deadlines and elapsed times within this JVM. */
+    static long monotonicMs() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    static long millis() {
+        return clock.millis();
+    }
+
+    static Instant now() {
+        return clock.instant();
+    }
+
+    /** Wall-clock time of day, e.g. 14:05:09. */
+    static String time() {
+        return format(TIME_FORMAT, clock.millis());
+    }
+
+    /** Second-resolution stamp for per-run names, e.g. 20250101_140509. */
+    static String fileStamp() {
+        return format(FILE_FORMAT, clock.millis());
+    }
+
+    static String fileStamp(long epochMillis) {
+        return format(FILE_FORMAT, epochMillis);
+    }
+
+    /**
+     * Millisecond stamp that is unique and increasing across all threads for this
+     * run, e.g. 20250101_140509_123. Callers racing on the same millisecond are
+     * moved forward one millisecond each.
+     */
+    static String uniqueStamp() {
+        long now = clock.millis();
+        long stamp;
+        long last;
+        do {
+            last = lastUnique.get();
+            stamp = Math.max(now, last + 1);
+        } while (!lastUnique.compareAndSet(last, stamp));
+        return format(UNIQUE_FORMAT, stamp);
+    }
+
+    private static String format(DateTimeFormatter formatter, long epochMillis) {
+        LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), clock.getZone());
+        StringBuilder out = new StringBuilder(20);
+        formatter.formatTo(local, out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,180 @@
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters for a running job, exposed in Prometheus text format.
+ *
+ * Optional outputs: an embedded HTTP endpoint (GET /metrics) and/or a status file
+ * rewritten on a fixed interval, so a stuck or slow run can be spotted while it is
+ * still going instead of by tailing stdout.
+ */
+class RunMetrics {
+
+    private final AtomicInteger coursesProcessed;
+    private final AtomicInteger packagesProcessed;
+    private final NetworkGovernor governor;
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicInteger packagesFailed = new AtomicInteger();
+    private final AtomicInteger browserRestarts = new AtomicInteger();
+    private final AtomicLong browserRestartMs = new AtomicLong();
+    private final Map<Integer, String> tabSteps = new ConcurrentSkipListMap<>();
+    private volatile int queueDepth;
+    private volatile int activeTabLimit;
+    private volatile int totalCourses;
+
+    private HttpServer server;
+    private ScheduledExecutorService statusWriter;
+    private Path statusFile;
+
+    RunMetrics(AtomicInteger coursesProcessed, AtomicInteger packagesProcessed, NetworkGovernor governor) {
+        this.coursesProcessed = coursesProcessed;
+        this.packagesProcessed = packagesProcessed;
+        this.governor = governor;
+    }
+
+    void setTotalCourses(int totalCourses) {
+        this.totalCourses = totalCourses;
+    }
+
+    void setStep(int tabNumber, String step) {
+        tabSteps.put(tabNumber, step);
+    }
+
+    void setQueueDepth(int remainingCourses) {
+        queueDepth = remainingCourses;
+    }
+
+    void setActiveTabLimit(int tabs) {
+        activeTabLimit = tabs;
+    }
+
+    void packageFailed() {
+        packagesFailed.incrementAndGet();
+    }
+
+    void browserRestarted(long restartMs) {
+        browserRestarts.incrementAndGet();
+        browserRestartMs.addAndGet(restartMs);
+    }
+
+    double elapsedSeconds() {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    double packagesPerMinute() {
+        double elapsed = elapsedSeconds();
+        return elapsed > 0 ? packagesProcessed.get() * 60.0 / elapsed : 0;
+    }
+
+    /** Seconds left at the current course completion rate, or -1 until a course has finished. */
+    double etaSeconds() {
+        int done = coursesProcessed.get();
+        int remaining = queueDepth;
+        if (done == 0) return remaining == 0 && totalCourses > 0 ? 0 : -1;
+        return remaining * (elapsedSeconds() / done);
+    }
+
+    String render() {
+        StringBuilder out = new StringBuilder();
+        metric(out, "dams_run_elapsed_seconds", "gauge", "Seconds since the run started", String.format(Locale.ROOT, "%.1f", elapsedSeconds()));
+        metric(out, "dams_courses_discovered", "gauge", "Courses discovered for this run", String.valueOf(totalCourses));
+        metric(out, "dams_courses_processed_total", "counter", "Courses completed", String.valueOf(coursesProcessed.get()));
+        metric(out, "dams_packages_processed_total", "counter", "Packages with a captured QR", String.valueOf(packagesProcessed.get()));
+        metric(out, "dams_packages_failed_total", "counter", "Packages whose checkout failed", String.valueOf(packagesFailed.get()));
+        metric(out, "dams_packages_per_minute", "gauge", "Captured packages per minute since start", String.format(Locale.ROOT, "%.3f", packagesPerMinute()));
+        metric(out, "dams_eta_seconds", "gauge", "Estimated seconds until all queued courses finish (-1 = unknown)", String.format(Locale.ROOT, "%.0f", etaSeconds()));
+        metric(out, "dams_network_governor_wait_seconds_total", "counter", "Time tabs spent waiting on the network governor", String.format(Locale.ROOT, "%.3f", governor.waitSeconds()));
+        metric(out, "dams_network_governor_acquisitions_total", "counter", "Network governor acquisitions", String.valueOf(governor.acquisitions()));
+        metric(out, "dams_network_governor_queue_length", "gauge", "Tabs currently waiting on the network governor", String.valueOf(governor.queueLength()));
+        metric(out, "dams_queue_depth", "gauge", "Courses not yet picked up by a tab", String.valueOf(queueDepth));
+        metric(out, "dams_active_tabs_limit", "gauge", "Tabs the concurrency controller currently lets work", String.valueOf(activeTabLimit));
+        metric(out, "dams_browser_restarts_total", "counter", "Dead browser sessions replaced by the watchdog", String.valueOf(browserRestarts.get()));
+        metric(out, "dams_browser_restart_seconds_total", "counter", "Time spent replacing dead browser sessions", String.format(Locale.ROOT, "%.3f", browserRestartMs.get() / 1000.0));
+
+        out.append("# HELP dams_tab_current_step Step the tab is currently running (value is always 1)\n");
+        out.append("# TYPE dams_tab_current_step gauge\n");
+        for (Map.Entry<Integer, String> entry : tabSteps.entrySet()) {
+            out.append("dams_tab_current_step{tab=\"").append(entry.getKey()).append("\",step=\"")
+                .append(labelValue(entry.getValue())).append("\"} 1\n");
+        }
+        return out.toString();
+    }
+
+    private static void metric(StringBuilder out, String name, String type, String help, String value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    /** Escapes a label value as the exposition format wants: backslash, double quote and newline. */
+    static String labelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /** Serves GET /metrics on the given port (all interfaces). */
+    void startHttpEndpoint(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor(daemon("metrics-http")));
+        server.start();
+        Log.info("📡 Metrics endpoint: http://localhost:{}/metrics", port);
+    }
+
+    /** Rewrites the status file every intervalSeconds (write to temp, then atomic move). */
+    void startStatusFile(String path, int intervalSeconds) {
+        Path target = Paths.get(path);
+        statusFile = target;
+        statusWriter = Executors.newSingleThreadScheduledExecutor(daemon("metrics-file"));
+        statusWriter.scheduleAtFixedRate(() -> writeStatusFile(target), 0, intervalSeconds, TimeUnit.SECONDS);
+        Log.info("📡 Metrics status file: {} (every {}s)", path, intervalSeconds);
+    }
+
+    private void writeStatusFile(Path target) {
+        try {
+            Path dir = target.toAbsolutePath().getParent();
+            if (dir != null) Files.createDirectories(dir);
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.write(tmp, render().getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Log.warn("⚠️  Could not write metrics file: {}", e.getMessage());
+        }
+    }
+
+    /** Stops the outputs; the status file is written one last time with the final counters. */
+    void stop() {
+        if (statusWriter != null) {
+            statusWriter.shutdownNow();
+            statusWriter = null;
+            writeStatusFile(statusFile);
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
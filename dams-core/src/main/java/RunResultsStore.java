@@ -0,0 +1,124 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Append-only JSON Lines history of every run's results.
+ *
+ * Each line is one record (type "package", "course", "tab" or "run") tagged with the
+ * run id and runner, so later runs and reports can filter the history without
+ * parsing any HTML. Lines are flushed as they are written; a killed run keeps
+ * everything recorded up to that point.
+ */
+class RunResultsStore {
+
+    static final String DEFAULT_HISTORY = "results/history.jsonl";
+
+    private final File historyFile;
+    private final String runId;
+    private final String runner;
+    private final Map<String, Object> tags = new LinkedHashMap<>();
+    private Writer writer;
+
+    RunResultsStore(String historyPath, String runner, String runId) {
+        this.historyFile = new File(historyPath);
+        this.runner = runner;
+        this.runId = runId;
+    }
+
+    String getRunId() {
+        return runId;
+    }
+
+    String getPath() {
+        return historyFile.getPath();
+    }
+
+    /** Adds a field (e.g. the shard) to every record created from now on. */
+    void tag(String key, Object value) {
+        tags.put(key, value);
+    }
+
+    /** New record with the common fields (type, run id, runner, time, tags) already set. */
+    Map<String, Object> record(String type) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("type", type);
+        record.put("runId", runId);
+        record.put("runner", runner);
+        record.put("ts", RunClock.now().toString());
+        record.putAll(tags);
+        return record;
+    }
+
+    synchronized void append(Map<String, Object> record) {
+        try {
+            if (writer == null) {
+                File dir = historyFile.getAbsoluteFile().getParentFile();
+                if (dir != null) dir.mkdirs();
+                writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(historyFile, true), StandardCharsets.UTF_8));
+            }
+            writer.write(Json.write(record));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            Log.warn("⚠️  Could not write results record: {}", e.getMessage());
+        }
+    }
+
+    synchronized void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {}
+            writer = null;
+        }
+    }
+
+    /** Streams every parseable record of a history file; malformed lines are skipped. */
+    static void forEach(File historyFile, Consumer<Map<String, Object>> consumer) throws IOException {
+        if (!historyFile.exists()) return;
+
+        try (BufferedReader reader = Files.newBufferedReader(historyFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                try {
+                    consumer.accept(Json.parseObject(line));
+                } catch (IllegalArgumentException e) {
+                    // a partially written last line from a killed run
+                }
+            }
+        }
+    }
+
+    static List<Map<String, Object>> readAll(File historyFile) throws IOException {
+        List<Map<String, Object>> records = new ArrayList<>();
+        forEach(historyFile, records::add);
+        return records;
+    }
+
+    /** Hex SHA-256 of a file, or null when it cannot be read. */
+    static String sha256(String path) {
+        if (path == null) return null;
+        try (InputStream in = new FileInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/** One package's QR capture in a parallel report gallery, ordered by package. */
+class ScreenshotInfo implements Comparable<ScreenshotInfo> {
+    String filepath;
+    int packageIndex;
+    int tabNumber;
+    String timestamp;
+    String qrPayload;
+    // the QR image saved from the network, when there was one; may be filepath itself
+    String networkImage;
+    // set when the final capture failed the QR check (BLANK or INVALID) and why
+    String qrStatus;
+    String qrReason;
+
+    ScreenshotInfo(String filepath, int packageIndex, int tabNumber, String timestamp) {
+        this.filepath = filepath;
+        this.packageIndex = packageIndex;
+        this.tabNumber = tabNumber;
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public int compareTo(ScreenshotInfo other) {
+        return Integer.compare(this.packageIndex, other.packageIndex);
+    }
+}
@@ -0,0 +1,170 @@
+import org.openqa.selenium.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which of several candidate selectors matched each logical element.
+ *
+ * Steps that try a list of By selectors ask for the element by name. All
+ * candidates are checked together on every poll, the selector that won last time
+ * first, so a stale first choice no longer costs a full timeout. With page events
+ * the candidates are checked again whenever the page changes rather than on a timer. Winners are saved
+ * to a properties file (kept with the results history), so a fresh run starts with
+ * what earlier runs learned.
+ */
+class SelectorCache {
+
+    static final String DEFAULT_PATH = "results/selectors.properties";
+
+    private static final Map<String, String> learned = new ConcurrentHashMap<>();
+    private static volatile File file = new File(DEFAULT_PATH);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(250);
+    private static volatile boolean dirty;
+
+    /** Loads learned winners from a previous run; a missing file just starts empty. */
+    static void load(String path) {
+        file = new File(path);
+        learned.clear();
+        if (!file.exists()) return;
+
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            props.load(reader);
+            for (String name : props.stringPropertyNames()) {
+                learned.put(name, props.getProperty(name));
+            }
+            Log.info("🧭 Loaded {} learned selectors from {}", learned.size(), file.getPath());
+        } catch (IOException e) {
+            Log.warn("⚠️  Could not read selector cache: {}", e.getMessage());
+        }
+    }
+
+    /** Writes the learned winners back if anything changed during the run. */
+    static synchronized void save() {
+        if (!dirty) return;
+
+        Properties props = new Properties();
+        props.putAll(learned);
+        try {
+            File dir = file.getAbsoluteFile().getParentFile();
+            if (dir != null) dir.mkdirs();
+            File tmp = new File(file.getPath() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+                props.store(writer, "Selector that last matched each element");
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            Log.warn("⚠️  Could not save selector cache: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Races all candidates in one polling loop, learned winner first, so the wait is
+     * bounded by the fastest selector rather than the sum of per-selector timeouts.
+     * Each poll prefers a visible match; unless displayedOnly is set, a poll that
+     * finds only hidden matches returns the first of them straight away, like the
+     * presence lookups it replaces. With displayedOnly it keeps polling until a match
+     * is visible. Null when nothing qualified before the timeout.
+     */
+    static WebElement find(WebDriver driver, String name, Duration timeout, boolean displayedOnly, By... candidates) {
+        List<By> ordered = ordered(name, candidates);
+
+        try {
+            return PageEvents.waitFor(driver, timeout, POLL_INTERVAL)
+                .until(d -> {
+                    WebElement present = null;
+                    By presentBy = null;
+                    for (By selector : ordered) {
+                        try {
+                            for (WebElement element : d.findElements(selector)) {
+                                if (element.isDisplayed()) {
+                                    remember(name, selector);
+                                    return element;
+                                }
+                                if (present == null) {
+                                    present = element;
+                                    presentBy = selector;
+                                }
+                            }
+                        } catch (StaleElementReferenceException e) {}
+                    }
+                    if (present != null && !displayedOnly) {
+                        remember(name, presentBy);
+                        return present;
+                    }
+                    return null;
+                });
+        } catch (TimeoutException e) {
+            missed(candidates);
+            return null;
+        }
+    }
+
+    /** Like find() but does not wait: returns the first element present right now, or null. */
+    static WebElement findNow(WebDriver driver, String name, By... candidates) {
+        for (By selector : ordered(name, candidates)) {
+            try {
+                WebElement element = driver.findElement(selector);
+                remember(name, selector);
+                return element;
+            } catch (Exception e) {}
+        }
+        missed(candidates);
+        return null;
+    }
+
+    /** Displayed elements for the first candidate that has any, learned winner first. */
+    static List<WebElement> findAllDisplayed(WebDriver driver, String name, By... candidates) {
+        for (By selector : ordered(name, candidates)) {
+            List<WebElement> displayed = new ArrayList<>();
+            try {
+                for (WebElement element : driver.findElements(selector)) {
+                    if (element.isDisplayed()) {
+                        displayed.add(element);
+                    }
+                }
+            } catch (Exception e) {}
+            if (!displayed.isEmpty()) {
+                remember(name, selector);
+                return displayed;
+            }
+        }
+        missed(candidates);
+        return new ArrayList<>();
+    }
+
+    private static List<By> ordered(String name, By[] candidates) {
+        List<By> ordered = new ArrayList<>(Arrays.asList(candidates));
+        String winner = learned.get(name);
+        if (winner != null) {
+            for (int i = 1; i < ordered.size(); i++) {
+                if (ordered.get(i).toString().equals(winner)) {
+                    ordered.add(0, ordered.remove(i));
+                    break;
+                }
+            }
+        }
+        return ordered;
+    }
+
+    // a lookup where no candidate matched counts against all of them
+    private static void missed(By[] candidates) {
+        for (By selector : candidates) {
+            Locators.miss(selector);
+        }
+    }
+
+    private static void remember(String name, By selector) {
+        Locators.hit(selector);
+        String key = selector.toString();
+        if (!key.equals(learned.put(name, key))) {
+            dirty = true;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Which slice of the work one runner process takes when a run is split across
+ * several machines (shard.index of shard.count, index counted from 0).
+ *
+ * Courses are assigned by rendezvous hashing on the course name: every shard
+ * scores the name and the highest score owns it. The decision for one course does
+ * not depend on any other course, so courses appearing or disappearing from the
+ * catalogue never move the rest between shards, and changing the shard count only
+ * moves the courses the new shard wins. Phone numbers are dealt out round-robin
+ * by position, so each shard logs in with its own accounts.
+ *
+ * Settings are read from -Dshard.index / -Dshard.count, then the SHARD_INDEX /
+ * SHARD_COUNT environment variables (a CI matrix), then config.properties.
+ *
+ * Usage (prints the plan without a browser):
+ *   java Shard --count=3 [--index=0] [--phones=a,b,c] [--courses=fixtures/shards/courses.txt] [course...]
+ */
+class Shard {
+
+    static final Shard SINGLE = new Shard(0, 1);
+
+    final int index;
+    final int count;
+
+    Shard(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("shard.index must be 0.." + (count - 1) + " with shard.count " + count
+                + ", got " + index);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /** Shard settings from system properties, environment, then the given properties (may be null). */
+    static Shard fromConfig(Properties props) {
+        int count = Integer.parseInt(setting(props, "shard.count", "SHARD_COUNT", "1"));
+        int index = Integer.parseInt(setting(props, "shard.index", "SHARD_INDEX", "0"));
+        return count == 1 && index == 0 ? SINGLE : new Shard(index, count);
+    }
+
+    private static String setting(Properties props, String key, String env, String fallback) {
+        String value = System.getProperty(key);
+        if (value == null || value.trim().isEmpty()) value = System.getenv(env);
+        if ((value == null || value.trim().isEmpty()) && props != null) value = props.getProperty(key);
+        return value == null || value.trim().isEmpty() ? fallback : value.trim();
+    }
+
+    boolean isSharded() {
+        return count > 1;
+    }
+
+    /** Shard that owns a course: the one whose score for the name is highest. */
+    static int owner(String course, int count) {
+        String name = course.trim();
+        int best = 0;
+        long bestScore = Long.MIN_VALUE;
+        for (int shard = 0; shard < count; shard++) {
+            long score = score(name, shard);
+            if (score > bestScore) {
+                bestScore = score;
+                best = shard;
+            }
+        }
+        return best;
+    }
+
+    boolean owns(String course) {
+        return count == 1 || owner(course, count) == index;
+    }
+
+    /** This shard's courses, in the order given. */
+    List<String> filter(List<String> courses) {
+        List<String> mine = new ArrayList<>();
+        for (String course : courses) {
+            if (owns(course)) mine.add(course);
+        }
+        return mine;
+    }
+
+    /** This shard's phone numbers: positions index, index + count, index + 2*count, ... */
+    String[] phones(String[] all) {
+        if (count == 1) return all;
+        List<String> mine = new ArrayList<>();
+        for (int i = index; i < all.length; i += count) {
+            mine.add(all[i]);
+        }
+        if (mine.isEmpty()) {
+            throw new IllegalArgumentException("shard " + index + " of " + count + " has no phone number ("
+                + all.length + " configured), use at most " + all.length + " shards");
+        }
+        return mine.toArray(new String[0]);
+    }
+
+    /** Tab number that is unique across all shards for a tab of this shard. */
+    int globalTab(int tabNumber) {
+        return index + (tabNumber - 1) * count + 1;
+    }
+
+    /** Appended to run ids and report names so shard outputs never collide. */
+    String suffix() {
+        return count == 1 ? "" : "_shard" + index + "of" + count;
+    }
+
+    @Override
+    public String toString() {
+        return "shard " + index + " of " + count;
+    }
+
+    // FNV-1a over the UTF-8 name and shard number, then a 64-bit finalizer to spread the bits
+    private static long score(String name, int shard) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : (name + '\u0000' + shard).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int count = 0;
+        int only = -1;
+        String[] phones = new String[0];
+        List<String> courses = new ArrayList<>();
+
+        for (String arg : args) {
+            if (arg.startsWith("--count=")) count = Integer.parseInt(arg.substring("--count=".length()));
+            else if (arg.startsWith("--index=")) only = Integer.parseInt(arg.substring("--index=".length()));
+            else if (arg.startsWith("--phones=")) phones = arg.substring("--phones=".length()).split(",");
+            else if (arg.startsWith("--courses=")) {
+                for (String line : Files.readAllLines(new File(arg.substring("--courses=".length())).toPath(), StandardCharsets.UTF_8)) {
+                    if (!line.trim().isEmpty() && !line.trim().startsWith("#")) courses.add(line.trim());
+                }
+            } else courses.add(arg);
+        }
+        if (count < 1 || courses.isEmpty()) {
+            Log.error("❌ Usage: java Shard --count=N [--index=i] [--phones=a,b,c] [--courses=file] [course...]");
+            System.exit(2);
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (only >= 0 && i != only) continue;
+            Shard shard = new Shard(i, count);
+            List<String> mine = shard.filter(courses);
+            Log.info("🧩 {}: {} of {} courses{}", shard, mine.size(), courses.size(),
+                phones.length > 0 ? ", phones " + Arrays.toString(shard.phones(phones)) : "");
+            for (String course : mine) {
+                Log.info("  {}", course);
+            }
+        }
+        Log.flush();
+    }
+}
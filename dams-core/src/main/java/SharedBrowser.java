@@ -0,0 +1,101 @@
+import org.openqa.selenium.*;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One Chrome process hosting an isolated browser context per tab.
+ *
+ * Each context is created with CDP Target.createBrowserContext, so it has its own
+ * cookie jar and storage (separate logins), and is driven by a small ChromeDriver
+ * session attached to the shared browser through its debugger address. Only one
+ * browser process tree is started no matter how many tabs run.
+ */
+class SharedBrowser {
+
+    private static final int WINDOW_WIDTH = 1920;
+    private static final int WINDOW_HEIGHT = 1080;
+
+    private final ChromeDriver host;
+    private final String debuggerAddress;
+    private final Map<WebDriver, String> contextIds = new ConcurrentHashMap<>();
+
+    SharedBrowser(ChromeOptions options) {
+        host = new ChromeDriver(options);
+        DamsCore.driverReady();
+
+        Object chromeCaps = host.getCapabilities().getCapability("goog:chromeOptions");
+        if (!(chromeCaps instanceof Map) || ((Map<?, ?>) chromeCaps).get("debuggerAddress") == null) {
+            host.quit();
+            throw new WebDriverException("Shared browser did not report a debugger address");
+        }
+        debuggerAddress = String.valueOf(((Map<?, ?>) chromeCaps).get("debuggerAddress"));
+
+        Log.info("🌐 Shared browser started ({})", debuggerAddress);
+    }
+
+    /**
+     * Creates a fresh browser context with its own window and returns a driver
+     * whose current window is that context. Synchronized because the host session
+     * is shared and context creation is cheap compared to a browser launch.
+     */
+    synchronized WebDriver openContext(int tabNumber) {
+        Map<String, Object> context = host.executeCdpCommand("Target.createBrowserContext",
+            Map.of("disposeOnDetach", false));
+        String contextId = (String) context.get("browserContextId");
+
+        Map<String, Object> target = host.executeCdpCommand("Target.createTarget", Map.of(
+            "url", "about:blank",
+            "browserContextId", contextId,
+            "newWindow", true,
+            "width", WINDOW_WIDTH,
+            "height", WINDOW_HEIGHT));
+        String targetId = (String) target.get("targetId");
+
+        ChromeOptions attachOptions = new ChromeOptions();
+        attachOptions.setExperimentalOption("debuggerAddress", debuggerAddress);
+
+        ChromeDriver tabDriver;
+        try {
+            tabDriver = new ChromeDriver(attachOptions);
+            // ChromeDriver window handles are CDP target ids
+            tabDriver.switchTo().window(targetId);
+        } catch (RuntimeException e) {
+            disposeContext(contextId);
+            throw e;
+        }
+
+        contextIds.put(tabDriver, contextId);
+        Log.info("🪟 Opened isolated context in shared browser");
+        return tabDriver;
+    }
+
+    /** Disposes the tab's context (closing its window) and detaches its driver session. */
+    void closeContext(WebDriver tabDriver) {
+        String contextId = contextIds.remove(tabDriver);
+        if (contextId != null) {
+            disposeContext(contextId);
+        }
+        try {
+            tabDriver.quit();
+        } catch (Exception e) {}
+    }
+
+    /** Closes every remaining context and the shared browser itself. */
+    void quit() {
+        for (WebDriver tabDriver : new ArrayList<>(contextIds.keySet())) {
+            closeContext(tabDriver);
+        }
+        try {
+            host.quit();
+        } catch (Exception e) {}
+    }
+
+    private synchronized void disposeContext(String contextId) {
+        try {
+            host.executeCdpCommand("Target.disposeBrowserContext", Map.of("browserContextId", contextId));
+        } catch (Exception e) {}
+    }
+}
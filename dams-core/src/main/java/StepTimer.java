@@ -0,0 +1,98 @@
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Wall-clock timings of the named steps of one package or course.
+ *
+ * begin() closes the running step and starts the next one, so a failure can be
+ * attributed to whatever step was in progress when it happened. With a run
+ * budget, each step also gets a deadline that waits can be capped by.
+ */
+class StepTimer {
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+    private String currentStep;
+    private long currentStart;
+    private String failedStep;
+    private String error;
+    private long deadline = Long.MAX_VALUE;
+    private final Consumer<String> listener;
+    private final RunBudget budget;
+
+    StepTimer() {
+        this(null, null);
+    }
+
+    /** The listener is told the name of every step as it begins (e.g. for live metrics). */
+    StepTimer(Consumer<String> listener) {
+        this(listener, null);
+    }
+
+    StepTimer(Consumer<String> listener, RunBudget budget) {
+        this.listener = listener;
+        this.budget = budget;
+    }
+
+    void begin(String step) {
+        end();
+        currentStep = step;
+        currentStart = System.nanoTime();
+        deadline = budget != null ? budget.deadlineFor(step) : Long.MAX_VALUE;
+        if (listener != null) {
+            listener.accept(step);
+        }
+    }
+
+    void end() {
+        if (currentStep != null) {
+            long elapsedMs = (System.nanoTime() - currentStart) / 1_000_000;
+            durations.merge(currentStep, elapsedMs, Long::sum);
+            currentStep = null;
+        }
+    }
+
+    /** Ends timing and remembers which step was running when the failure happened. */
+    void fail(Exception e) {
+        failedStep = currentStep;
+        error = e.getMessage();
+        end();
+    }
+
+    boolean failed() {
+        return failedStep != null || error != null;
+    }
+
+    String failedStep() {
+        return failedStep;
+    }
+
+    String error() {
+        return error;
+    }
+
+    /** Milliseconds until the running step's deadline (Long.MAX_VALUE without a budget). */
+    long remainingMs() {
+        return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - RunClock.monotonicMs();
+    }
+
+    /** Throws once the running step is past its deadline. */
+    void checkDeadline() {
+        if (currentStep != null && remainingMs() <= 0) {
+            throw new RunBudget.DeadlineExceeded("step " + currentStep + " ran past its deadline");
+        }
+    }
+
+    /** Step in progress, or null when no step is running. */
+    String current() {
+        return currentStep;
+    }
+
+    Map<String, Long> durations() {
+        return durations;
+    }
+
+    long totalMs() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
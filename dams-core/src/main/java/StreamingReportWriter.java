@@ -0,0 +1,111 @@
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * HTML report that is written while the run is still going.
+ *
+ * The file is created when the run starts with a provisional header, and every
+ * section is appended and flushed as soon as it is complete, so a killed job still
+ * leaves a readable report. finish() rewrites the file once with the final header,
+ * copying the sections already on disk (sorted by key when asked), so only a small
+ * offset index is kept in memory however many sections the run produces.
+ */
+class StreamingReportWriter {
+
+    private static class Section {
+        final String key;
+        final long offset;
+        final long length;
+
+        Section(String key, long offset, long length) {
+            this.key = key;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private final File file;
+    private final List<Section> sections = new ArrayList<>();
+    private FileOutputStream out;
+    private long position;
+    private boolean finished;
+
+    StreamingReportWriter(String filename) {
+        this.file = new File(filename);
+    }
+
+    String getFilename() {
+        return file.getPath();
+    }
+
+    /** Creates the report file with a provisional header (summary still in progress). */
+    synchronized void begin(String provisionalHead) throws IOException {
+        out = new FileOutputStream(file);
+        position = 0;
+        write(provisionalHead);
+    }
+
+    /** Appends one finished section and flushes it to disk straight away. */
+    synchronized void appendSection(String key, String html) {
+        if (out == null || finished) return;
+
+        try {
+            long offset = position;
+            write(html);
+            sections.add(new Section(key, offset, position - offset));
+        } catch (IOException e) {
+            Log.warn("⚠️  Could not append report section '{}': {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the report with its final header: sections are copied from the live
+     * file (in key order when sortByKey is set) into a temp file which then replaces it.
+     */
+    synchronized void finish(String head, String tail, boolean sortByKey) throws IOException {
+        if (finished) return;
+        finished = true;
+
+        if (out == null) {
+            begin(head);
+        }
+        out.close();
+
+        List<Section> ordered = new ArrayList<>(sections);
+        if (sortByKey) {
+            ordered.sort(Comparator.comparing(s -> s.key));
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileChannel source = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+             FileOutputStream target = new FileOutputStream(tmp)) {
+            FileChannel targetChannel = target.getChannel();
+            target.write(head.getBytes(StandardCharsets.UTF_8));
+            for (Section section : ordered) {
+                long copied = 0;
+                while (copied < section.length) {
+                    long transferred = source.transferTo(section.offset + copied, section.length - copied, targetChannel);
+                    if (transferred <= 0) {
+                        // the live file is shorter than the index says (truncated or rewritten meanwhile)
+                        throw new IOException("report section '" + section.key + "' is cut short in " + file
+                            + " (" + copied + " of " + section.length + " bytes)");
+                    }
+                    copied += transferred;
+                }
+            }
+            target.write(tail.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void write(String html) throws IOException {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes);
+        out.flush();
+        position += bytes.length;
+    }
+}
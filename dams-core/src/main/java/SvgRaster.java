@@ -0,0 +1,323 @@
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.*;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Draws an SVG QR into an image ZXing can read.
+ *
+ * A QR served as SVG is a grid of dark modules: rect, polygon or path elements,
+ * filled or stroked one module wide, sometimes inside a transformed group. Those
+ * shapes are drawn with their solid fill and stroke colours and their translate,
+ * scale, rotate and matrix transforms, scaled so the larger side is RASTER_SIZE
+ * pixels, on white with a quiet zone around it. Anything a QR does not need
+ * (text, gradients, clipping, use references) is left out, and arcs are drawn
+ * as straight lines.
+ */
+class SvgRaster {
+
+    static final int RASTER_SIZE = 800;
+    private static final int QUIET_ZONE = 40;
+
+    private static final Pattern NUMBER = Pattern.compile("[-+]?(?:\\d*\\.\\d+|\\d+\\.?)(?:[eE][-+]?\\d+)?");
+    private static final Pattern PATH_TOKEN = Pattern.compile("[A-Za-z]|" + NUMBER.pattern());
+    private static final Pattern TRANSFORM = Pattern.compile("(matrix|translate|scale|rotate)\\s*\\(([^)]*)\\)");
+
+    /** Fill and stroke as inherited down the tree; a null colour is "none". */
+    private static class Style {
+        Color fill = Color.BLACK;
+        Color stroke;
+        double strokeWidth = 1;
+        boolean evenOdd;
+
+        Style inherit(Element element) {
+            Style style = new Style();
+            style.fill = fill;
+            style.stroke = stroke;
+            style.strokeWidth = strokeWidth;
+            style.evenOdd = evenOdd;
+
+            Map<String, String> properties = new HashMap<>();
+            for (String name : new String[] {"fill", "stroke", "stroke-width", "fill-rule"}) {
+                if (element.hasAttribute(name)) properties.put(name, element.getAttribute(name).trim());
+            }
+            for (String declaration : element.getAttribute("style").split(";")) {
+                int colon = declaration.indexOf(':');
+                if (colon > 0) properties.put(declaration.substring(0, colon).trim(), declaration.substring(colon + 1).trim());
+            }
+
+            if (properties.containsKey("fill")) style.fill = color(properties.get("fill"));
+            if (properties.containsKey("stroke")) style.stroke = color(properties.get("stroke"));
+            if (properties.containsKey("stroke-width")) style.strokeWidth = number(properties.get("stroke-width"), 1);
+            if (properties.containsKey("fill-rule")) style.evenOdd = properties.get("fill-rule").equals("evenodd");
+            return style;
+        }
+    }
+
+    /** The drawing in file, or null when it is not an SVG with a size. */
+    static BufferedImage read(File file) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        // a downloaded file: no DTDs, no external entities
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        factory.setExpandEntityReferences(false);
+        Element svg = factory.newDocumentBuilder().parse(file).getDocumentElement();
+        if (!name(svg).equals("svg")) return null;
+
+        double[] box = numbers(svg.getAttribute("viewBox"));
+        if (box.length != 4) {
+            box = new double[] {0, 0, number(svg.getAttribute("width"), 0), number(svg.getAttribute("height"), 0)};
+        }
+        if (box[2] <= 0 || box[3] <= 0) return null;
+
+        double scale = RASTER_SIZE / Math.max(box[2], box[3]);
+        int width = (int) Math.ceil(box[2] * scale) + 2 * QUIET_ZONE;
+        int height = (int) Math.ceil(box[3] * scale) + 2 * QUIET_ZONE;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            graphics.translate(QUIET_ZONE, QUIET_ZONE);
+            graphics.scale(scale, scale);
+            graphics.translate(-box[0], -box[1]);
+            drawChildren(graphics, svg, new Style().inherit(svg));
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private static void drawChildren(Graphics2D graphics, Element parent, Style style) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element) draw(graphics, (Element) node, style);
+        }
+    }
+
+    private static void draw(Graphics2D graphics, Element element, Style inherited) {
+        String name = name(element);
+        if (name.equals("defs") || name.equals("title") || name.equals("desc")) return;
+
+        Style style = inherited.inherit(element);
+        AffineTransform saved = graphics.getTransform();
+        try {
+            graphics.transform(transform(element.getAttribute("transform")));
+            Shape shape = null;
+            switch (name) {
+                case "g":
+                case "svg":
+                    drawChildren(graphics, element, style);
+                    break;
+                case "rect":
+                    shape = new Rectangle2D.Double(attribute(element, "x"), attribute(element, "y"),
+                        attribute(element, "width"), attribute(element, "height"));
+                    break;
+                case "polygon":
+                case "polyline":
+                    shape = polygon(element.getAttribute("points"), name.equals("polygon"));
+                    break;
+                case "path":
+                    shape = path(element.getAttribute("d"));
+                    break;
+                default:
+                    break;
+            }
+            if (shape == null) return;
+
+            if (shape instanceof Path2D) {
+                ((Path2D) shape).setWindingRule(style.evenOdd ? Path2D.WIND_EVEN_ODD : Path2D.WIND_NON_ZERO);
+            }
+            if (style.fill != null) {
+                graphics.setColor(style.fill);
+                graphics.fill(shape);
+            }
+            if (style.stroke != null && style.strokeWidth > 0) {
+                graphics.setColor(style.stroke);
+                graphics.setStroke(new BasicStroke((float) style.strokeWidth, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
+                graphics.draw(shape);
+            }
+        } catch (RuntimeException e) {
+            // one malformed shape leaves a gap the decoder may still read past
+        } finally {
+            graphics.setTransform(saved);
+        }
+    }
+
+    private static Path2D.Double polygon(String points, boolean closed) {
+        double[] values = numbers(points);
+        Path2D.Double path = new Path2D.Double();
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            if (i == 0) path.moveTo(values[i], values[i + 1]);
+            else path.lineTo(values[i], values[i + 1]);
+        }
+        if (closed && values.length >= 2) path.closePath();
+        return path;
+    }
+
+    /** Path data, with arcs as lines and smooth curves using the current point as their first control. */
+    static Path2D.Double path(String data) {
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = PATH_TOKEN.matcher(data);
+        while (matcher.find()) tokens.add(matcher.group());
+
+        Path2D.Double path = new Path2D.Double();
+        char command = 0;
+        double x = 0, y = 0, startX = 0, startY = 0;
+        int i = 0;
+        while (i < tokens.size()) {
+            String token = tokens.get(i);
+            if (Character.isLetter(token.charAt(0))) {
+                command = token.charAt(0);
+                i++;
+                if (command == 'Z' || command == 'z') {
+                    path.closePath();
+                    x = startX;
+                    y = startY;
+                }
+                continue;
+            }
+
+            boolean relative = Character.isLowerCase(command);
+            double dx = relative ? x : 0, dy = relative ? y : 0;
+            int needed;
+            switch (Character.toUpperCase(command)) {
+                case 'M': case 'L': case 'T': needed = 2; break;
+                case 'H': case 'V': needed = 1; break;
+                case 'Q': case 'S': needed = 4; break;
+                case 'C': needed = 6; break;
+                case 'A': needed = 7; break;
+                default: return path;
+            }
+            if (i + needed > tokens.size()) return path;
+            double[] v = new double[needed];
+            for (int k = 0; k < needed; k++) v[k] = Double.parseDouble(tokens.get(i + k));
+            i += needed;
+
+            switch (Character.toUpperCase(command)) {
+                case 'M':
+                    x = dx + v[0];
+                    y = dy + v[1];
+                    path.moveTo(x, y);
+                    startX = x;
+                    startY = y;
+                    // further pairs after a move are lines
+                    command = relative ? 'l' : 'L';
+                    break;
+                case 'H':
+                    x = dx + v[0];
+                    path.lineTo(x, y);
+                    break;
+                case 'V':
+                    y = dy + v[0];
+                    path.lineTo(x, y);
+                    break;
+                case 'C':
+                    path.curveTo(dx + v[0], dy + v[1], dx + v[2], dy + v[3], dx + v[4], dy + v[5]);
+                    x = dx + v[4];
+                    y = dy + v[5];
+                    break;
+                case 'S':
+                    path.curveTo(x, y, dx + v[0], dy + v[1], dx + v[2], dy + v[3]);
+                    x = dx + v[2];
+                    y = dy + v[3];
+                    break;
+                case 'Q':
+                    path.quadTo(dx + v[0], dy + v[1], dx + v[2], dy + v[3]);
+                    x = dx + v[2];
+                    y = dy + v[3];
+                    break;
+                case 'A':
+                    x = dx + v[5];
+                    y = dy + v[6];
+                    path.lineTo(x, y);
+                    break;
+                default:
+                    x = dx + v[0];
+                    y = dy + v[1];
+                    path.lineTo(x, y);
+                    break;
+            }
+        }
+        return path;
+    }
+
+    private static AffineTransform transform(String text) {
+        AffineTransform transform = new AffineTransform();
+        Matcher matcher = TRANSFORM.matcher(text);
+        while (matcher.find()) {
+            double[] v = numbers(matcher.group(2));
+            switch (matcher.group(1)) {
+                case "matrix":
+                    if (v.length == 6) transform.concatenate(new AffineTransform(v));
+                    break;
+                case "translate":
+                    if (v.length >= 1) transform.translate(v[0], v.length > 1 ? v[1] : 0);
+                    break;
+                case "scale":
+                    if (v.length >= 1) transform.scale(v[0], v.length > 1 ? v[1] : v[0]);
+                    break;
+                default:
+                    if (v.length == 3) transform.rotate(Math.toRadians(v[0]), v[1], v[2]);
+                    else if (v.length >= 1) transform.rotate(Math.toRadians(v[0]));
+                    break;
+            }
+        }
+        return transform;
+    }
+
+    /** A solid colour; null for none, and anything unrecognised counts as dark. */
+    private static Color color(String value) {
+        String text = value.toLowerCase(Locale.ROOT);
+        if (text.isEmpty() || text.equals("none") || text.equals("transparent") || text.startsWith("url(")) return null;
+        if (text.equals("white")) return Color.WHITE;
+        try {
+            if (text.matches("#[0-9a-f]{3}")) {
+                return new Color(Integer.parseInt("" + text.charAt(1) + text.charAt(1) + text.charAt(2) + text.charAt(2)
+                    + text.charAt(3) + text.charAt(3), 16));
+            }
+            if (text.matches("#[0-9a-f]{6}")) {
+                return new Color(Integer.parseInt(text.substring(1), 16));
+            }
+            if (text.startsWith("rgb")) {
+                double[] v = numbers(text);
+                if (v.length >= 3) return new Color((int) v[0], (int) v[1], (int) v[2]);
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to dark
+        }
+        return Color.BLACK;
+    }
+
+    private static double attribute(Element element, String name) {
+        return number(element.getAttribute(name), 0);
+    }
+
+    /** The leading number of a length such as "37" or "37mm"; fallback when there is none. */
+    private static double number(String text, double fallback) {
+        Matcher matcher = NUMBER.matcher(text.trim());
+        return matcher.lookingAt() ? Double.parseDouble(matcher.group()) : fallback;
+    }
+
+    private static double[] numbers(String text) {
+        List<Double> values = new ArrayList<>();
+        Matcher matcher = NUMBER.matcher(text);
+        while (matcher.find()) values.add(Double.parseDouble(matcher.group()));
+        double[] result = new double[values.size()];
+        for (int i = 0; i < result.length; i++) result[i] = values.get(i);
+        return result;
+    }
+
+    private static String name(Element element) {
+        String name = element.getTagName();
+        int colon = name.indexOf(':');
+        return colon >= 0 ? name.substring(colon + 1) : name;
+    }
+}
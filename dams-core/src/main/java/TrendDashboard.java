@@ -0,0 +1,392 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Builds a static HTML dashboard of performance trends from the results history.
+ *
+ * Reads every run recorded by RunResultsStore and charts, per run: throughput
+ * (successful packages per minute), p95 duration of each step, failure rate by
+ * step and per-tab utilization. The latest run of each runner is compared with
+ * the median of the runs before it and anything worse than the threshold is
+ * flagged as a regression.
+ *
+ * Usage: java TrendDashboard [--history=results/history.jsonl] [--out=DAMS_Trend_Dashboard.html]
+ *                            [--threshold=0.20] [--baseline=5] [--fail-on-regression]
+ */
+public class TrendDashboard {
+
+    static class RunStats {
+        String runId;
+        String runner;
+        String start;
+        long durationMs;
+        int attempts;
+        int successes;
+        final Map<String, List<Long>> stepDurations = new TreeMap<>();
+        final Map<String, Integer> stepFailures = new TreeMap<>();
+        final Map<Integer, Long> tabBusyMs = new TreeMap<>();
+        long firstTs = Long.MAX_VALUE;
+        long lastTs = Long.MIN_VALUE;
+
+        double throughputPerMinute() {
+            long ms = effectiveDurationMs();
+            return ms > 0 ? successes * 60000.0 / ms : 0;
+        }
+
+        double failureRate() {
+            return attempts > 0 ? (attempts - successes) / (double) attempts : 0;
+        }
+
+        double stepFailureRate(String step) {
+            return attempts > 0 ? stepFailures.getOrDefault(step, 0) / (double) attempts : 0;
+        }
+
+        long stepP95(String step) {
+            List<Long> values = stepDurations.get(step);
+            return values == null ? 0 : percentile(values, 0.95);
+        }
+
+        double tabUtilization(int tab) {
+            long ms = effectiveDurationMs();
+            return ms > 0 ? Math.min(1.0, tabBusyMs.getOrDefault(tab, 0L) / (double) ms) : 0;
+        }
+
+        long effectiveDurationMs() {
+            if (durationMs > 0) return durationMs;
+            return lastTs > firstTs ? lastTs - firstTs : 0;
+        }
+    }
+
+    static class Regression {
+        final String runner;
+        final String metric;
+        final double baseline;
+        final double current;
+
+        Regression(String runner, String metric, double baseline, double current) {
+            this.runner = runner;
+            this.metric = metric;
+            this.baseline = baseline;
+            this.current = current;
+        }
+    }
+
+    public static void main(String[] args) {
+        String historyPath = RunResultsStore.DEFAULT_HISTORY;
+        String outPath = "DAMS_Trend_Dashboard.html";
+        double threshold = 0.20;
+        int baselineRuns = 5;
+        boolean failOnRegression = false;
+
+        for (String arg : args) {
+            if (arg.startsWith("--history=")) historyPath = arg.substring("--history=".length());
+            else if (arg.startsWith("--out=")) outPath = arg.substring("--out=".length());
+            else if (arg.startsWith("--threshold=")) threshold = Double.parseDouble(arg.substring("--threshold=".length()));
+            else if (arg.startsWith("--baseline=")) baselineRuns = Integer.parseInt(arg.substring("--baseline=".length()));
+            else if (arg.equals("--fail-on-regression")) failOnRegression = true;
+            else {
+                Log.error("❌ Unknown argument: {}", arg);
+                System.exit(2);
+            }
+        }
+
+        try {
+            List<RunStats> runs = loadRuns(new File(historyPath));
+            if (runs.isEmpty()) {
+                Log.warn("⚠️  No runs found in {}, nothing to chart", historyPath);
+                return;
+            }
+
+            List<Regression> regressions = new ArrayList<>();
+            Map<String, List<RunStats>> byRunner = groupByRunner(runs);
+            for (List<RunStats> runnerRuns : byRunner.values()) {
+                regressions.addAll(findRegressions(runnerRuns, threshold, baselineRuns));
+            }
+
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(outPath), StandardCharsets.UTF_8)) {
+                writer.write(renderHtml(byRunner, regressions, threshold, baselineRuns));
+            }
+
+            Log.info("✅ Trend dashboard saved: {} ({} runs)", outPath, runs.size());
+            for (Regression r : regressions) {
+                Log.warn("⚠️  Regression [{}] {}: {} → {}", r.runner, r.metric, fixed(r.baseline, 2), fixed(r.current, 2));
+            }
+            if (failOnRegression && !regressions.isEmpty()) {
+                System.exit(1);
+            }
+
+        } catch (IOException e) {
+            Log.error("❌ Dashboard generation failed: {}", e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static List<RunStats> loadRuns(File history) throws IOException {
+        Map<String, RunStats> runs = new LinkedHashMap<>();
+
+        RunResultsStore.forEach(history, record -> {
+            String runId = str(record.get("runId"));
+            String runner = str(record.get("runner"));
+            if (runId == null) return;
+
+            RunStats run = runs.computeIfAbsent(runner + "/" + runId, k -> {
+                RunStats stats = new RunStats();
+                stats.runId = runId;
+                stats.runner = runner;
+                return stats;
+            });
+
+            long ts = parseTs(str(record.get("ts")));
+            if (ts > 0) {
+                run.firstTs = Math.min(run.firstTs, ts);
+                run.lastTs = Math.max(run.lastTs, ts);
+            }
+
+            String type = str(record.get("type"));
+            if ("run".equals(type)) {
+                run.start = str(record.get("start"));
+                run.durationMs = num(record.get("durationMs"));
+            } else if ("package".equals(type) || "course".equals(type)) {
+                // packages skipped by the pre-flight check were never attempted
+                if ("SKIPPED".equals(record.get("outcome"))) return;
+                run.attempts++;
+                if ("SUCCESS".equals(record.get("outcome"))) {
+                    run.successes++;
+                } else {
+                    String step = str(record.get("failedStep"));
+                    run.stepFailures.merge(step != null ? step : "unknown", 1, Integer::sum);
+                }
+
+                Object steps = record.get("steps");
+                if (steps instanceof Map) {
+                    for (Map.Entry<?, ?> step : ((Map<?, ?>) steps).entrySet()) {
+                        run.stepDurations.computeIfAbsent(String.valueOf(step.getKey()), k -> new ArrayList<>())
+                            .add(num(step.getValue()));
+                    }
+                }
+
+                int tab = (int) num(record.get("tab"));
+                run.tabBusyMs.merge(tab, num(record.get("durationMs")), Long::sum);
+            }
+        });
+
+        List<RunStats> ordered = new ArrayList<>(runs.values());
+        ordered.sort(Comparator.comparingLong(r -> r.firstTs));
+        return ordered;
+    }
+
+    private static Map<String, List<RunStats>> groupByRunner(List<RunStats> runs) {
+        Map<String, List<RunStats>> byRunner = new TreeMap<>();
+        for (RunStats run : runs) {
+            byRunner.computeIfAbsent(run.runner, k -> new ArrayList<>()).add(run);
+        }
+        return byRunner;
+    }
+
+    /** Compares the latest run with the median of up to baselineRuns runs before it. */
+    static List<Regression> findRegressions(List<RunStats> runs, double threshold, int baselineRuns) {
+        List<Regression> regressions = new ArrayList<>();
+        if (runs.size() < 2) return regressions;
+
+        RunStats latest = runs.get(runs.size() - 1);
+        List<RunStats> baseline = runs.subList(Math.max(0, runs.size() - 1 - baselineRuns), runs.size() - 1);
+
+        double baseThroughput = median(baseline, RunStats::throughputPerMinute);
+        if (baseThroughput > 0 && latest.throughputPerMinute() < baseThroughput * (1 - threshold)) {
+            regressions.add(new Regression(latest.runner, "throughput (pkg/min)", baseThroughput, latest.throughputPerMinute()));
+        }
+
+        double baseFailure = median(baseline, RunStats::failureRate);
+        if (latest.failureRate() > baseFailure + threshold * Math.max(baseFailure, 0.05)) {
+            regressions.add(new Regression(latest.runner, "failure rate", baseFailure, latest.failureRate()));
+        }
+
+        for (String step : latest.stepDurations.keySet()) {
+            double baseP95 = median(baseline, r -> (double) r.stepP95(step));
+            double current = latest.stepP95(step);
+            if (baseP95 > 0 && current > baseP95 * (1 + threshold)) {
+                regressions.add(new Regression(latest.runner, "p95 " + step + " (ms)", baseP95, current));
+            }
+        }
+        return regressions;
+    }
+
+    private static String renderHtml(Map<String, List<RunStats>> byRunner, List<Regression> regressions,
+                                     double threshold, int baselineRuns) {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html>\n<head>\n");
+        html.append("<meta charset='UTF-8'>\n");
+        html.append("<title>DAMS Automation Trend Dashboard</title>\n");
+        html.append("<style>\n");
+        html.append("body { font-family: Arial, sans-serif; margin: 20px; background: #f5f5f5; }\n");
+        html.append("h1 { color: #333; border-bottom: 3px solid #4CAF50; padding-bottom: 10px; }\n");
+        html.append(".panel { background: white; padding: 20px; margin: 20px 0; border-radius: 5px; box-shadow: 0 2px 5px rgba(0,0,0,0.1); }\n");
+        html.append(".panel h2 { color: #2196F3; margin-top: 0; }\n");
+        html.append(".charts { display: grid; grid-template-columns: repeat(auto-fit, minmax(420px, 1fr)); gap: 20px; }\n");
+        html.append(".chart h3 { font-size: 14px; color: #555; margin: 0 0 5px 0; }\n");
+        html.append("table { border-collapse: collapse; width: 100%; font-size: 13px; }\n");
+        html.append("th, td { padding: 6px 10px; border-bottom: 1px solid #eee; text-align: right; }\n");
+        html.append("th:first-child, td:first-child { text-align: left; }\n");
+        html.append(".regression { background: #fed7d7; color: #742a2a; padding: 10px; border-radius: 5px; margin: 5px 0; }\n");
+        html.append(".ok { background: #c6f6d5; color: #22543d; padding: 10px; border-radius: 5px; }\n");
+        html.append("</style>\n</head>\n<body>\n");
+        html.append("<h1>📈 DAMS Automation Trend Dashboard</h1>\n");
+
+        html.append("<div class='panel'>\n<h2>🚨 Regressions</h2>\n");
+        html.append("<p>Latest run vs. median of up to ").append(baselineRuns)
+            .append(" previous runs, threshold ").append(Math.round(threshold * 100)).append("%</p>\n");
+        if (regressions.isEmpty()) {
+            html.append("<div class='ok'>No regressions detected</div>\n");
+        }
+        for (Regression r : regressions) {
+            html.append("<div class='regression'><strong>").append(r.runner).append("</strong> ")
+                .append(r.metric).append(": ").append(fixed(r.baseline, 2))
+                .append(" → ").append(fixed(r.current, 2)).append("</div>\n");
+        }
+        html.append("</div>\n");
+
+        for (Map.Entry<String, List<RunStats>> entry : byRunner.entrySet()) {
+            List<RunStats> runs = entry.getValue();
+            html.append("<div class='panel'>\n<h2>🏃 Runner: ").append(entry.getKey())
+                .append(" (").append(runs.size()).append(" runs)</h2>\n");
+            html.append("<div class='charts'>\n");
+
+            html.append(chart("Throughput (successful packages / minute)", runs,
+                Collections.singletonMap("throughput", series(runs, RunStats::throughputPerMinute))));
+            html.append(chart("Failure rate (%)", runs,
+                Collections.singletonMap("failures", series(runs, r -> r.failureRate() * 100))));
+
+            Set<String> steps = new TreeSet<>();
+            Set<Integer> tabs = new TreeSet<>();
+            for (RunStats run : runs) {
+                steps.addAll(run.stepDurations.keySet());
+                tabs.addAll(run.tabBusyMs.keySet());
+            }
+
+            Map<String, double[]> p95Series = new LinkedHashMap<>();
+            Map<String, double[]> failureSeries = new LinkedHashMap<>();
+            for (String step : steps) {
+                p95Series.put(step, series(runs, r -> r.stepP95(step) / 1000.0));
+                failureSeries.put(step, series(runs, r -> r.stepFailureRate(step) * 100));
+            }
+            html.append(chart("p95 step latency (s)", runs, p95Series));
+            html.append(chart("Failure rate by step (%)", runs, failureSeries));
+
+            Map<String, double[]> tabSeries = new LinkedHashMap<>();
+            for (Integer tab : tabs) {
+                tabSeries.put("tab " + tab, series(runs, r -> r.tabUtilization(tab) * 100));
+            }
+            html.append(chart("Per-tab utilization (%)", runs, tabSeries));
+            html.append("</div>\n");
+
+            html.append("<h3>Runs</h3>\n<table>\n<tr><th>Run</th><th>Duration</th><th>Attempts</th>")
+                .append("<th>Successes</th><th>Pkg/min</th><th>Failure %</th></tr>\n");
+            for (int i = runs.size() - 1; i >= 0; i--) {
+                RunStats run = runs.get(i);
+                html.append("<tr><td>").append(run.runId).append("</td>")
+                    .append("<td>").append(run.effectiveDurationMs() / 1000).append("s</td>")
+                    .append("<td>").append(run.attempts).append("</td>")
+                    .append("<td>").append(run.successes).append("</td>")
+                    .append("<td>").append(fixed(run.throughputPerMinute(), 2)).append("</td>")
+                    .append("<td>").append(fixed(run.failureRate() * 100, 1)).append("</td></tr>\n");
+            }
+            html.append("</table>\n</div>\n");
+        }
+
+        html.append("</body>\n</html>");
+        return html.toString();
+    }
+
+    private static final String[] COLORS = {
+        "#2196F3", "#FF5722", "#4CAF50", "#9C27B0", "#FFC107", "#009688", "#E91E63", "#795548"
+    };
+
+    /** Inline SVG line chart with one polyline per series, runs on the x axis. */
+    private static String chart(String title, List<RunStats> runs, Map<String, double[]> series) {
+        int width = 420, height = 180, pad = 30;
+        double max = 0;
+        for (double[] values : series.values()) {
+            for (double v : values) max = Math.max(max, v);
+        }
+        if (max == 0) max = 1;
+
+        StringBuilder svg = new StringBuilder();
+        svg.append("<div class='chart'><h3>").append(title).append("</h3>\n");
+        svg.append("<svg width='").append(width).append("' height='").append(height + 20).append("'>\n");
+        svg.append("<line x1='").append(pad).append("' y1='").append(height - pad).append("' x2='").append(width)
+            .append("' y2='").append(height - pad).append("' stroke='#ccc'/>\n");
+        svg.append("<text x='0' y='12' font-size='10' fill='#666'>").append(fixed(max, 1)).append("</text>\n");
+
+        int colorIdx = 0;
+        for (Map.Entry<String, double[]> entry : series.entrySet()) {
+            double[] values = entry.getValue();
+            String color = COLORS[colorIdx % COLORS.length];
+            StringBuilder points = new StringBuilder();
+            for (int i = 0; i < values.length; i++) {
+                double x = pad + (values.length == 1 ? 0 : (width - pad - 10) * i / (double) (values.length - 1));
+                double y = height - pad - (height - 2 * pad) * values[i] / max;
+                points.append(String.format(Locale.ROOT, "%.1f,%.1f ", x, y));
+            }
+            svg.append("<polyline fill='none' stroke='").append(color).append("' stroke-width='2' points='")
+                .append(points.toString().trim()).append("'>")
+                .append("<title>").append(entry.getKey()).append("</title></polyline>\n");
+            svg.append("<text x='").append(pad + colorIdx * 70).append("' y='").append(height + 10)
+                .append("' font-size='10' fill='").append(color).append("'>").append(entry.getKey()).append("</text>\n");
+            colorIdx++;
+        }
+        svg.append("</svg>\n");
+        svg.append("<div style='font-size:10px;color:#999'>").append(runs.get(0).runId)
+            .append(" … ").append(runs.get(runs.size() - 1).runId).append("</div>\n</div>\n");
+        return svg.toString();
+    }
+
+    private interface Metric {
+        double of(RunStats run);
+    }
+
+    private static double[] series(List<RunStats> runs, Metric metric) {
+        double[] values = new double[runs.size()];
+        for (int i = 0; i < runs.size(); i++) {
+            values[i] = metric.of(runs.get(i));
+        }
+        return values;
+    }
+
+    private static double median(List<RunStats> runs, Metric metric) {
+        if (runs.isEmpty()) return 0;
+        double[] values = series(runs, metric);
+        Arrays.sort(values);
+        int mid = values.length / 2;
+        return values.length % 2 == 1 ? values[mid] : (values[mid - 1] + values[mid]) / 2;
+    }
+
+    static long percentile(List<Long> values, double p) {
+        if (values.isEmpty()) return 0;
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int idx = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(idx, sorted.size() - 1)));
+    }
+
+    /** Decimal point whatever the default locale, so the HTML and the log read the same everywhere. */
+    private static String fixed(double value, int decimals) {
+        return String.format(Locale.ROOT, "%." + decimals + "f", value);
+    }
+
+    private static String str(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static long num(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private static long parseTs(String ts) {
+        try {
+            return ts == null ? 0 : java.time.Instant.parse(ts).toEpochMilli();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+}
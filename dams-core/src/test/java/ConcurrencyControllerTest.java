@@ -0,0 +1,126 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** The AIMD limit of ConcurrencyController, driven by synthetic latency and failure samples. */
+class ConcurrencyControllerTest {
+
+    private final List<ConcurrencyController.Decision> decisions = new ArrayList<>();
+
+    @Test
+    void healthyWindowsAddOneTabUpToTheMaximum() {
+        ConcurrencyController controller = controller(1, 4, 1);
+
+        assertEquals(2, window(controller, 1000, 0).to);
+        assertEquals(3, window(controller, 1000, 0).to);
+        assertEquals(4, window(controller, 1000, 0).to);
+        ConcurrencyController.Decision hold = window(controller, 1000, 0);
+        assertEquals("hold at max", hold.reason);
+        assertEquals(4, hold.to);
+        assertEquals(4, controller.peak());
+    }
+
+    @Test
+    void failingWindowHalvesTheLimit() {
+        ConcurrencyController controller = controller(1, 8, 8);
+
+        ConcurrencyController.Decision decrease = window(controller, 1000, 3);
+        assertEquals("decrease, failures", decrease.reason);
+        assertEquals(4, decrease.to);
+        assertEquals(3 / 8.0, decrease.errorRate, 1e-9);
+
+        // exactly at the threshold is still healthy
+        assertEquals("increase", window(controller, 1000, 1).reason);
+    }
+
+    @Test
+    void slowWindowHalvesTheLimit() {
+        ConcurrencyController controller = controller(1, 8, 8);
+        window(controller, 1000, 0);
+
+        assertEquals("hold at max", window(controller, 1400, 0).reason);
+        ConcurrencyController.Decision decrease = window(controller, 1700, 0);
+        assertEquals("decrease, latency", decrease.reason);
+        assertEquals(4, decrease.to);
+        assertEquals(1700, decrease.latencyMs);
+    }
+
+    @Test
+    void limitStaysWithinItsBounds() {
+        ConcurrencyController clamped = controller(0, 3, 10);
+        assertEquals(1, clamped.min());
+        assertEquals(3, clamped.initial());
+        assertEquals(3, clamped.limit());
+
+        ConcurrencyController controller = controller(2, 8, 8);
+        assertEquals(4, window(controller, 1000, 8).to);
+        assertEquals(2, window(controller, 1000, 4).to);
+        assertEquals(2, window(controller, 1000, 2).to);
+        assertEquals(2, window(controller, 9000, 0).to);
+        assertEquals(2, controller.limit());
+    }
+
+    @Test
+    void oneFastWindowDoesNotTightenTheBar() {
+        ConcurrencyController controller = controller(1, 8, 5);
+        for (int i = 0; i < 3; i++) {
+            window(controller, 1000, 0);
+        }
+        // a cached page or an idle site
+        window(controller, 100, 0);
+
+        for (int i = 0; i < 5; i++) {
+            ConcurrencyController.Decision decision = window(controller, 1000, 0);
+            assertFalse(decision.reason.startsWith("decrease"), decision.reason + " against " + decision.baselineMs + "ms");
+        }
+        assertEquals(8, controller.limit());
+    }
+
+    @Test
+    void slowerSiteBecomesTheNewNormal() {
+        ConcurrencyController controller = controller(1, 8, 8);
+        window(controller, 1000, 0);
+        window(controller, 1000, 0);
+
+        assertEquals("decrease, latency", window(controller, 2000, 0).reason);
+        int windows = 0;
+        while (!window(controller, 2000, 0).reason.equals("increase")) {
+            assertTrue(++windows < 5, "still treated as slow after " + windows + " more windows");
+        }
+        ConcurrencyController.Decision later = window(controller, 2000, 0);
+        assertEquals("increase", later.reason);
+        assertTrue(later.baselineMs > 1300, "baseline " + later.baselineMs + "ms follows the site");
+    }
+
+    @Test
+    void ignoredStepsSayNothingAboutLatency() {
+        ConcurrencyController controller = controller(1, 8, 8);
+        window(controller, 1000, 0);
+
+        Map<String, Long> steps = new HashMap<>();
+        steps.put("navigate", 1000L);
+        steps.put("qr_wait", 60_000L);
+        for (int i = 0; i < 8; i++) {
+            controller.observe(steps, false);
+        }
+        assertEquals("hold at max", decisions.get(decisions.size() - 1).reason);
+        assertEquals(1000, decisions.get(decisions.size() - 1).latencyMs);
+    }
+
+    private ConcurrencyController controller(int min, int max, int initial) {
+        return new ConcurrencyController(min, max, initial, 0.5, 0.25, Collections.singleton("qr_wait"), decisions::add);
+    }
+
+    /** One full window at the current limit: every package took latencyMs and the first failures of them failed. */
+    private ConcurrencyController.Decision window(ConcurrencyController controller, long latencyMs, int failures) {
+        int size = Math.max(2, controller.limit());
+        int before = decisions.size();
+        for (int i = 0; i < size; i++) {
+            controller.observe(Collections.singletonMap("navigate", latencyMs), i < failures);
+        }
+        assertEquals(before + 1, decisions.size(), "one decision per window");
+        return decisions.get(before);
+    }
+}
@@ -0,0 +1,101 @@
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** What QrValidator makes of UPI payloads and of QR images served as SVG. */
+class QrValidatorTest {
+
+    private static final String UPI = "upi://pay?pa=dams.edu@okaxis&pn=DAMS&am=7999.00&cu=INR";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void amountMustBeAPriceShownForThePackage() {
+        List<Double> card = Arrays.asList(12999.0, 7999.0);
+        assertTrue(QrValidator.validate(UPI, card).valid());
+        assertEquals(7999.0, QrValidator.validate(UPI, card).amount, 1e-9);
+
+        QrValidator.Check wrong = QrValidator.validate(UPI.replace("7999.00", "9999"), card);
+        assertEquals(QrValidator.Status.INVALID, wrong.status);
+        assertTrue(wrong.reason.startsWith("amount 9999 not a price shown"), wrong.reason);
+
+        assertTrue(QrValidator.validate(UPI.replace("7999.00", "9999"), Collections.emptyList()).valid(),
+            "no prices seen, only the range is checked");
+    }
+
+    @Test
+    void amountOutsideTheRangeIsInvalid() {
+        assertEquals(QrValidator.Status.INVALID, QrValidator.validate(UPI.replace("7999.00", "0"), Collections.emptyList()).status);
+        assertEquals(QrValidator.Status.INVALID, QrValidator.validate(UPI.replace("7999.00", "1e9"), Collections.emptyList()).status);
+        assertEquals("bad payee address nobody", QrValidator.validate(UPI.replace("dams.edu@okaxis", "nobody"),
+            Collections.emptyList()).reason);
+    }
+
+    @Test
+    void cardPricesAreReadWithTheirSeparators() {
+        assertEquals(Arrays.asList(12999.0, 7999.0), PreflightProbe.amounts("6 Months ₹ 12,999 Now Rs. 7,999 + GST"));
+        assertTrue(PreflightProbe.amounts("Buy now").isEmpty());
+    }
+
+    @Test
+    void svgOfModuleRectsIsDecoded() throws Exception {
+        BitMatrix matrix = new QRCodeWriter().encode(UPI, BarcodeFormat.QR_CODE, 0, 0);
+        StringBuilder svg = new StringBuilder("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 "
+            + matrix.getWidth() + " " + matrix.getHeight() + "\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>");
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                if (matrix.get(x, y)) svg.append("<rect x=\"").append(x).append("\" y=\"").append(y)
+                    .append("\" width=\"1\" height=\"1\" fill=\"#000000\"/>");
+            }
+        }
+        svg.append("</svg>");
+
+        QrValidator.Check check = QrValidator.check(write("rects.svg", svg.toString()), Collections.singletonList(7999.0));
+        assertTrue(check.valid(), check.toString());
+        assertEquals(UPI, check.payload);
+    }
+
+    @Test
+    void svgOfStrokedRowsInAScaledGroupIsDecoded() throws Exception {
+        // one horizontal stroke per run of dark modules, as most JavaScript QR libraries draw it
+        BitMatrix matrix = new QRCodeWriter().encode(UPI, BarcodeFormat.QR_CODE, 0, 0);
+        StringBuilder path = new StringBuilder();
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                if (!matrix.get(x, y)) continue;
+                int start = x;
+                while (x < matrix.getWidth() && matrix.get(x, y)) x++;
+                path.append("M").append(start).append(" ").append(y + 0.5).append("h").append(x - start);
+            }
+        }
+        int size = matrix.getWidth() * 4;
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + size + "px\" height=\"" + size + "px\">"
+            + "<g transform=\"scale(4)\"><path stroke=\"black\" fill=\"none\" d=\"" + path + "\"/></g></svg>";
+
+        QrValidator.Check check = QrValidator.check(write("strokes.svg", svg), Collections.emptyList());
+        assertTrue(check.valid(), check.toString());
+    }
+
+    @Test
+    void emptySvgIsBlankNotInvalid() throws Exception {
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 10 10\"><rect width=\"10\" height=\"10\" fill=\"white\"/></svg>";
+        assertEquals(QrValidator.Status.BLANK, QrValidator.check(write("empty.svg", svg), Collections.emptyList()).status);
+    }
+
+    private String write(String name, String content) throws Exception {
+        File file = dir.resolve(name).toFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file.getPath();
+    }
+}
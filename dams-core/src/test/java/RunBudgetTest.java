@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** RunBudget deciding whether another course is started. */
+class RunBudgetTest {
+
+    @Test
+    void coursesStartWhileTheyFit() {
+        RunBudget budget = budget(60_000);
+        Queue<String> queue = new ArrayDeque<>(Arrays.asList("Course A", "Course B"));
+
+        assertTrue(budget.canStart(queue), "no estimate yet");
+        budget.courseFinished(10_000);
+        assertTrue(budget.canStart(queue));
+        assertEquals("Course A", budget.next(queue, 1));
+    }
+
+    @Test
+    void nothingStartsOnceACourseNoLongerFits() {
+        RunBudget budget = budget(60_000);
+        Queue<String> queue = new ArrayDeque<>(Arrays.asList("Course A", "Course B"));
+        budget.courseFinished(120_000);
+
+        assertFalse(budget.canStart(queue), "a course takes longer than the time left");
+        assertNull(budget.next(queue, 1));
+        assertEquals(2, queue.size(), "shed courses stay queued for the report");
+    }
+
+    @Test
+    void nothingStartsFromAnEmptyQueueOrASpentBudget() {
+        assertFalse(budget(60_000).canStart(new ArrayDeque<>()));
+        assertFalse(budget(0).canStart(new ArrayDeque<>(Collections.singletonList("Course A"))));
+    }
+
+    private static RunBudget budget(long ms) {
+        return new RunBudget(ms, 1000, Collections.emptyMap(), Collections.emptyList());
+    }
+}
@@ -0,0 +1,72 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** RunClock with an injected clock: names stay unique, waits still end. */
+class RunClockTest {
+
+    private static final int THREADS = 8;
+    private static final int NAMES_PER_THREAD = 500;
+
+    @AfterEach
+    void systemClock() {
+        RunClock.setClock(null);
+    }
+
+    @Test
+    void screenshotNamesOnAFixedClockAreUniqueAndIncreasing() throws Exception {
+        RunClock.setClock(Clock.fixed(Instant.parse("2025-01-01T10:00:00Z"), ZoneOffset.UTC));
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> perThread = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            perThread.add(pool.submit(() -> {
+                start.await();
+                List<String> names = new ArrayList<>();
+                for (int i = 0; i < NAMES_PER_THREAD; i++) {
+                    names.add("screenshots/QR_Course_pkg1_Tab1_" + RunClock.uniqueStamp() + ".png");
+                }
+                return names;
+            }));
+        }
+        start.countDown();
+
+        Set<String> all = new HashSet<>();
+        for (Future<List<String>> future : perThread) {
+            List<String> names = future.get(30, TimeUnit.SECONDS);
+            for (int i = 1; i < names.size(); i++) {
+                assertTrue(names.get(i).compareTo(names.get(i - 1)) > 0, names.get(i - 1) + " then " + names.get(i));
+            }
+            all.addAll(names);
+        }
+        pool.shutdown();
+        assertEquals(THREADS * NAMES_PER_THREAD, all.size(), "no name handed out twice");
+        assertTrue(all.contains("screenshots/QR_Course_pkg1_Tab1_20250101_100000_000.png"));
+    }
+
+    @Test
+    void stampsFollowTheInjectedClock() {
+        RunClock.setClock(Clock.fixed(Instant.parse("2025-01-01T10:00:00Z"), ZoneOffset.UTC));
+        assertEquals("10:00:00", RunClock.time());
+        assertEquals("20250101_100000", RunClock.fileStamp());
+        assertEquals(Instant.parse("2025-01-01T10:00:00Z"), RunClock.now());
+    }
+
+    @Test
+    void deadlinesRunOnAFixedClock() throws InterruptedException {
+        RunClock.setClock(Clock.fixed(Instant.parse("2025-01-01T10:00:00Z"), ZoneOffset.UTC));
+        RunBudget budget = new RunBudget(50, 1000, Collections.emptyMap(), Collections.emptyList());
+        StepTimer timer = new StepTimer(step -> { }, budget);
+        timer.begin("navigate");
+
+        Thread.sleep(100);
+        assertTrue(budget.exhausted(), "the budget ends although the injected clock stands still");
+        assertTrue(timer.remainingMs() <= 0);
+    }
+}
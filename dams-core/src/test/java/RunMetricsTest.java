@@ -0,0 +1,39 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** The Prometheus text RunMetrics renders. */
+class RunMetricsTest {
+
+    @Test
+    void stepLabelsAreEscaped() {
+        RunMetrics metrics = new RunMetrics(new AtomicInteger(), new AtomicInteger(), new NetworkGovernor());
+        metrics.setStep(1, "click \"Buy\" in C:\\pay\nnext");
+
+        assertTrue(metrics.render().contains(
+            "dams_tab_current_step{tab=\"1\",step=\"click \\\"Buy\\\" in C:\\\\pay\\nnext\"} 1\n"));
+    }
+
+    @Test
+    void onlyCountersEndInTotal() {
+        String text = new RunMetrics(new AtomicInteger(), new AtomicInteger(), new NetworkGovernor()).render();
+        for (String line : text.split("\n")) {
+            if (!line.startsWith("# TYPE ")) continue;
+            String[] parts = line.split(" ");
+            assertEquals(parts[2].endsWith("_total"), parts[3].equals("counter"), line);
+        }
+    }
+
+    @Test
+    void packagesMoveAsTheyAreCounted() {
+        AtomicInteger packages = new AtomicInteger();
+        RunMetrics metrics = new RunMetrics(new AtomicInteger(), packages, new NetworkGovernor());
+        packages.incrementAndGet();
+        packages.incrementAndGet();
+
+        assertTrue(metrics.render().contains("\ndams_packages_processed_total 2\n"));
+        assertTrue(metrics.packagesPerMinute() > 0);
+    }
+}
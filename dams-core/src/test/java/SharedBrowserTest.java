@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * browser.mode=context against a real Chrome: every tab's event session must be
+ * its own. Skipped where no chromedriver is installed at the path DamsCore uses.
+ */
+class SharedBrowserTest {
+
+    @Test
+    void eachContextGetsItsOwnEventSession() {
+        ChromeOptions options = DamsCore.chromeOptions();
+        String chromedriver = System.getProperty("webdriver.chrome.driver");
+        assumeTrue(chromedriver != null && new File(chromedriver).canExecute(), "needs chromedriver at " + chromedriver);
+
+        SharedBrowser browser = new SharedBrowser(options);
+        try {
+            WebDriver first = browser.openContext(1);
+            WebDriver second = browser.openContext(2);
+            PageEvents.attach(first);
+            PageEvents.attach(second);
+
+            assertEquals(first.getWindowHandle(), PageEvents.target(first));
+            assertEquals(second.getWindowHandle(), PageEvents.target(second));
+            assertNotEquals(PageEvents.target(first), PageEvents.target(second));
+            assertNotNull(PageEvents.session(first));
+            assertNotNull(PageEvents.session(second));
+            assertNotEquals(PageEvents.session(first), PageEvents.session(second));
+
+            PageEvents.detach(first);
+            PageEvents.detach(second);
+        } finally {
+            browser.quit();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** The regression rule and the percentile maths of TrendDashboard on small synthetic histories. */
+class TrendDashboardTest {
+
+    @Test
+    void percentileIsNearestRank() {
+        List<Long> values = Arrays.asList(7L, 1L, 10L, 3L, 5L, 2L, 9L, 4L, 8L, 6L);
+        assertEquals(10, TrendDashboard.percentile(values, 0.95));
+        assertEquals(9, TrendDashboard.percentile(values, 0.90));
+        assertEquals(5, TrendDashboard.percentile(values, 0.50));
+        assertEquals(1, TrendDashboard.percentile(values, 0.0));
+        assertEquals(Arrays.asList(7L, 1L, 10L, 3L, 5L, 2L, 9L, 4L, 8L, 6L), values, "input left unsorted");
+    }
+
+    @Test
+    void percentileOfFewValues() {
+        assertEquals(0, TrendDashboard.percentile(Collections.emptyList(), 0.95));
+        assertEquals(42, TrendDashboard.percentile(Collections.singletonList(42L), 0.95));
+        assertEquals(20, TrendDashboard.percentile(Arrays.asList(10L, 20L), 0.95));
+    }
+
+    @Test
+    void oneRunHasNothingToCompareWith() {
+        assertTrue(TrendDashboard.findRegressions(Collections.singletonList(run(1, 10, 10)), 0.2, 5).isEmpty());
+    }
+
+    @Test
+    void throughputDropBelowTheMedianIsFlagged() {
+        // 10 packages a minute, then 9 (within 20%) and 7 (not)
+        List<TrendDashboard.RunStats> history = new ArrayList<>(Arrays.asList(
+            run(1, 10, 10), run(2, 10, 10), run(3, 10, 10)));
+
+        history.add(run(4, 9, 9));
+        assertTrue(TrendDashboard.findRegressions(history, 0.2, 5).isEmpty());
+
+        history.set(3, run(4, 7, 7));
+        List<TrendDashboard.Regression> regressions = TrendDashboard.findRegressions(history, 0.2, 5);
+        assertEquals(1, regressions.size());
+        assertEquals("throughput (pkg/min)", regressions.get(0).metric);
+        assertEquals(10.0, regressions.get(0).baseline, 1e-9);
+        assertEquals(7.0, regressions.get(0).current, 1e-9);
+    }
+
+    @Test
+    void baselineIsTheMedianOfTheLastRunsOnly() {
+        // a very fast run before the window and one outlier inside it move nothing: median of 10, 10, 100, 10
+        List<TrendDashboard.RunStats> history = Arrays.asList(
+            run(1, 100, 100), run(2, 10, 10), run(3, 10, 10), run(4, 100, 100), run(5, 10, 10), run(6, 9, 9));
+        assertTrue(TrendDashboard.findRegressions(history, 0.2, 4).isEmpty());
+
+        // a window of mostly fast runs: median 100, so 9 a minute is a drop
+        List<TrendDashboard.Regression> regressions = TrendDashboard.findRegressions(Arrays.asList(
+            run(1, 100, 100), run(4, 100, 100), run(5, 10, 10), run(6, 9, 9)), 0.2, 3);
+        assertEquals(1, regressions.size());
+        assertEquals(100.0, regressions.get(0).baseline, 1e-9);
+    }
+
+    @Test
+    void failureRateAboveTheBaselineIsFlagged() {
+        // 10% failing before; allowed up to 10% + 50% of 10%
+        List<TrendDashboard.RunStats> history = new ArrayList<>(Arrays.asList(
+            run(1, 9, 10), run(2, 9, 10), run(3, 9, 10), run(4, 9, 10)));
+        assertTrue(TrendDashboard.findRegressions(history, 0.5, 5).isEmpty());
+
+        history.set(3, run(4, 8, 10));
+        List<TrendDashboard.Regression> regressions = TrendDashboard.findRegressions(history, 0.5, 5);
+        assertEquals(1, regressions.size());
+        assertEquals("failure rate", regressions.get(0).metric);
+        assertEquals(0.1, regressions.get(0).baseline, 1e-9);
+        assertEquals(0.2, regressions.get(0).current, 1e-9);
+    }
+
+    @Test
+    void failuresAfterACleanHistoryUseTheFloor() {
+        // no failures before: the bar is threshold × 5%, not zero
+        List<TrendDashboard.RunStats> history = Arrays.asList(
+            run(1, 100, 100), run(2, 100, 100), run(3, 100, 101));
+        assertTrue(TrendDashboard.findRegressions(history, 0.2, 5).isEmpty(), "1 failure in 101 is under 1%");
+
+        history = Arrays.asList(run(1, 100, 100), run(2, 100, 100), run(3, 100, 102));
+        assertEquals("failure rate", TrendDashboard.findRegressions(history, 0.2, 5).get(0).metric);
+    }
+
+    @Test
+    void slowerStepP95IsFlagged() {
+        List<TrendDashboard.RunStats> history = Arrays.asList(
+            run(1, 10, 10, 900, 1000), run(2, 10, 10, 950, 1000), run(3, 10, 10, 1000, 1300));
+        List<TrendDashboard.Regression> regressions = TrendDashboard.findRegressions(history, 0.2, 5);
+        assertEquals(1, regressions.size());
+        assertEquals("p95 login (ms)", regressions.get(0).metric);
+        assertEquals(1000.0, regressions.get(0).baseline, 1e-9);
+        assertEquals(1300.0, regressions.get(0).current, 1e-9);
+
+        history = Arrays.asList(run(1, 10, 10, 900, 1000), run(2, 10, 10, 1000, 1200));
+        assertTrue(TrendDashboard.findRegressions(history, 0.2, 5).isEmpty(), "exactly +20% is not over");
+    }
+
+    /** A one-minute run with attempts packages, successes of them captured, and login step timings. */
+    private static TrendDashboard.RunStats run(int n, int successes, int attempts, long... loginMs) {
+        TrendDashboard.RunStats run = new TrendDashboard.RunStats();
+        run.runId = "run" + n;
+        run.runner = "parallel";
+        run.durationMs = 60_000;
+        run.attempts = attempts;
+        run.successes = successes;
+        for (long ms : loginMs) {
+            run.stepDurations.computeIfAbsent("login", k -> new ArrayList<>()).add(ms);
+        }
+        return run;
+    }
+}
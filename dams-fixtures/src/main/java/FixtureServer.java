@@ -0,0 +1,90 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the site's package pages, so PreflightProbe can be run
+ * without touching damsdelhi.com.
+ *
+ * Serves the files of a directory (fixtures/preflight by default). A path of the
+ * form /status/NNN answers with that HTTP status, and --require-cookie=name
+ * answers 401 to requests that do not carry that session cookie.
+ *
+ * Usage: java FixtureServer [--dir=fixtures/preflight] [--port=8089] [--require-cookie=name]
+ *   then: java PreflightProbe --cookie="name=x" http://localhost:8089/available.html ...
+ */
+public class FixtureServer {
+
+    public static void main(String[] args) throws IOException {
+        String dir = "fixtures/preflight";
+        int port = 8089;
+        String requiredCookie = null;
+
+        for (String arg : args) {
+            if (arg.startsWith("--dir=")) dir = arg.substring("--dir=".length());
+            else if (arg.startsWith("--port=")) port = Integer.parseInt(arg.substring("--port=".length()));
+            else if (arg.startsWith("--require-cookie=")) requiredCookie = arg.substring("--require-cookie=".length());
+            else {
+                Log.error("❌ Unknown argument: {}", arg);
+                System.exit(2);
+            }
+        }
+
+        start(Paths.get(dir), port, requiredCookie);
+        Log.info("🧪 Fixture server on http://localhost:{}/ serving {}", port, dir);
+    }
+
+    static HttpServer start(Path root, int port, String requiredCookie) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/", exchange -> {
+            try {
+                handle(exchange, root.toAbsolutePath().normalize(), requiredCookie);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        return server;
+    }
+
+    private static void handle(HttpExchange exchange, Path root, String requiredCookie) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+
+        if (requiredCookie != null) {
+            String cookies = exchange.getRequestHeaders().getFirst("Cookie");
+            if (cookies == null || !(";" + cookies.replace(" ", "") + ";").contains(";" + requiredCookie + "=")) {
+                send(exchange, 401, "missing session cookie");
+                return;
+            }
+        }
+
+        if (path.matches("/status/[1-5][0-9][0-9]")) {
+            int status = Integer.parseInt(path.substring("/status/".length()));
+            send(exchange, status, "status " + status);
+            return;
+        }
+
+        Path file = root.resolve(path.substring(1)).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            send(exchange, 404, "not found");
+            return;
+        }
+
+        byte[] body = Files.readAllBytes(file);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static void send(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+}
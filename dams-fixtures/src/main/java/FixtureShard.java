@@ -0,0 +1,127 @@
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import javax.imageio.ImageIO;
+
+/**
+ * One shard of a run against the fixture site, without a browser: for trying the
+ * shard split and ShardMerge locally.
+ *
+ * Reads a catalogue (fixtures/shards/catalogue.txt: "course | page, page"), keeps
+ * the courses this shard owns and checks each package page on a FixtureServer
+ * with PreflightProbe. An available page counts as a captured package and gets a
+ * placeholder screenshot; an unavailable one is recorded as skipped. The output
+ * directory ends up laid out like a DAMSParallel shard's (results/history.jsonl
+ * with runner parallel-shard, screenshots/), so ShardMerge takes it as is.
+ *
+ * Usage: java FixtureShard --index=i --count=N --site=http://localhost:8089/
+ *                          [--catalogue=fixtures/shards/catalogue.txt] [--tabs=2] [--out=.]
+ */
+public class FixtureShard {
+
+    static final String DEFAULT_CATALOGUE = "fixtures/shards/catalogue.txt";
+
+    public static void main(String[] args) throws IOException {
+        int index = -1;
+        int count = 0;
+        int tabs = 2;
+        String site = null;
+        String catalogue = DEFAULT_CATALOGUE;
+        File out = new File(".");
+
+        for (String arg : args) {
+            if (arg.startsWith("--index=")) index = Integer.parseInt(arg.substring("--index=".length()));
+            else if (arg.startsWith("--count=")) count = Integer.parseInt(arg.substring("--count=".length()));
+            else if (arg.startsWith("--tabs=")) tabs = Integer.parseInt(arg.substring("--tabs=".length()));
+            else if (arg.startsWith("--site=")) site = arg.substring("--site=".length());
+            else if (arg.startsWith("--catalogue=")) catalogue = arg.substring("--catalogue=".length());
+            else if (arg.startsWith("--out=")) out = new File(arg.substring("--out=".length()));
+            else {
+                Log.error("❌ Unknown argument: {}", arg);
+                System.exit(2);
+            }
+        }
+        if (index < 0 || count < 1 || site == null) {
+            Log.error("❌ Usage: java FixtureShard --index=i --count=N --site=url [--catalogue=file] [--tabs=2] [--out=dir]");
+            System.exit(2);
+        }
+
+        run(new Shard(index, count), readCatalogue(Paths.get(catalogue)), site.endsWith("/") ? site : site + "/",
+            Math.max(1, tabs), out);
+        Log.flush();
+    }
+
+    /** Course name to its package pages, in catalogue order. */
+    static Map<String, List<String>> readCatalogue(Path file) throws IOException {
+        Map<String, List<String>> courses = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int bar = line.indexOf('|');
+            String course = (bar < 0 ? line : line.substring(0, bar)).trim();
+            List<String> pages = new ArrayList<>();
+            if (bar >= 0) {
+                for (String page : line.substring(bar + 1).split(",")) {
+                    if (!page.trim().isEmpty()) pages.add(page.trim());
+                }
+            }
+            courses.put(course, pages);
+        }
+        return courses;
+    }
+
+    static void run(Shard shard, Map<String, List<String>> catalogue, String site, int tabs, File out) throws IOException {
+        long start = RunClock.millis();
+        List<String> courses = shard.filter(new ArrayList<>(catalogue.keySet()));
+        Log.info("🧩 {}: {} of {} courses", shard, courses.size(), catalogue.size());
+
+        RunResultsStore store = new RunResultsStore(new File(out, RunResultsStore.DEFAULT_HISTORY).getPath(),
+            "parallel-shard", RunClock.fileStamp(start) + shard.suffix());
+        store.tag("shard", shard.index);
+        store.tag("shards", shard.count);
+        new File(out, "screenshots").mkdirs();
+
+        PreflightProbe probe = new PreflightProbe("", null, Duration.ofSeconds(5), PreflightProbe.DEFAULT_MARKERS);
+        int packages = 0;
+        for (int c = 0; c < courses.size(); c++) {
+            String course = courses.get(c);
+            int tab = c % tabs + 1;
+            List<PreflightProbe.Target> targets = new ArrayList<>();
+            for (String page : catalogue.get(course)) {
+                targets.add(new PreflightProbe.Target(targets.size(), site + page, "", false));
+            }
+            Map<Integer, PreflightProbe.Result> results = probe.probe(course, targets);
+
+            for (PreflightProbe.Target target : targets) {
+                PreflightProbe.Result result = results.get(target.index);
+                Map<String, Object> record = store.record("package");
+                record.put("course", course);
+                record.put("package", target.index + 1);
+                record.put("tab", tab);
+                if (result.status == PreflightProbe.Status.UNAVAILABLE) {
+                    record.put("outcome", "SKIPPED");
+                    record.put("reason", result.reason);
+                } else {
+                    String screenshot = "screenshots/QR_" + DamsCore.fileSafe(course) + "_pkg" + (target.index + 1)
+                        + "_Tab" + tab + ".png";
+                    ImageIO.write(new BufferedImage(60, 60, BufferedImage.TYPE_INT_RGB), "png", new File(out, screenshot));
+                    record.put("outcome", "SUCCESS");
+                    record.put("screenshot", screenshot);
+                    packages++;
+                }
+                store.append(record);
+            }
+            Log.info("  ✓ {}: {} packages", course, targets.size());
+        }
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("tabs", tabs);
+        fields.put("phones", Collections.emptyList());
+        fields.put("courses", courses.size());
+        fields.put("packages", packages);
+        DamsCore.recordRun(store, start, fields);
+    }
+}
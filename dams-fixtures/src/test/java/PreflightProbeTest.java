@@ -0,0 +1,140 @@
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** PreflightProbe against FixtureServer serving fixtures/preflight. */
+class PreflightProbeTest {
+
+    @TempDir
+    Path temp;
+
+    private HttpServer server;
+    private String base;
+
+    @BeforeEach
+    void loadPrices() {
+        // remembered prices live in the temp dir, never in results/
+        PreflightProbe.load(temp.resolve("preflight.properties").toString());
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) server.stop(0);
+    }
+
+    @Test
+    void availablePageIsAvailable() throws IOException {
+        startServer(null);
+        PreflightProbe.Result result = probeOne("available.html");
+        assertEquals(PreflightProbe.Status.AVAILABLE, result.status);
+        assertEquals("HTTP 200", result.reason);
+    }
+
+    @Test
+    void soldOutPageIsUnavailable() throws IOException {
+        startServer(null);
+        PreflightProbe.Result result = probeOne("sold-out.html");
+        assertEquals(PreflightProbe.Status.UNAVAILABLE, result.status);
+        assertEquals("page says 'sold out'", result.reason);
+    }
+
+    @Test
+    void missingPageIsUnavailable() throws IOException {
+        startServer(null);
+        assertEquals(PreflightProbe.Status.UNAVAILABLE, probeOne("no-such-package.html").status);
+        assertEquals(PreflightProbe.Status.UNAVAILABLE, probeOne("status/410").status);
+    }
+
+    @Test
+    void otherErrorStatusesSkipNothing() throws IOException {
+        startServer(null);
+        for (int status : new int[]{401, 403, 429, 500, 503}) {
+            PreflightProbe.Result result = probeOne("status/" + status);
+            assertEquals(PreflightProbe.Status.AVAILABLE, result.status, "HTTP " + status);
+            assertEquals("not probed (HTTP " + status + ")", result.reason);
+        }
+    }
+
+    @Test
+    void priceChangeIsReportedButRun() throws IOException {
+        startServer(null);
+        assertEquals(PreflightProbe.Status.AVAILABLE, probeOne("price-changed.html").status);
+        assertEquals(PreflightProbe.Status.AVAILABLE, probeOne("price-changed.html").status);
+
+        // the same page with the price a previous run saw
+        Path prices = temp.resolve("preflight.properties");
+        Properties previous = new Properties();
+        previous.setProperty("test|" + base + "price-changed.html", "12999");
+        try (Writer writer = Files.newBufferedWriter(prices, StandardCharsets.UTF_8)) {
+            previous.store(writer, null);
+        }
+        PreflightProbe.load(prices.toString());
+
+        PreflightProbe.Result result = probeOne("price-changed.html");
+        assertEquals(PreflightProbe.Status.CHANGED, result.status);
+        assertEquals("price 12999 → 7999/9999", result.reason);
+    }
+
+    @Test
+    void missingSessionCookieSkipsNothing() throws IOException {
+        startServer("session");
+        PreflightProbe.Result result = probeOne("sold-out.html");
+        assertEquals(PreflightProbe.Status.AVAILABLE, result.status);
+        assertEquals("not probed (HTTP 401)", result.reason);
+
+        result = probe("session=abc", "sold-out.html").get(0);
+        assertEquals(PreflightProbe.Status.UNAVAILABLE, result.status);
+    }
+
+    @Test
+    void cardMarkersAndDisabledButtonsNeedNoPage() {
+        PreflightProbe probe = new PreflightProbe("", null, Duration.ofSeconds(2), PreflightProbe.DEFAULT_MARKERS);
+        Map<Integer, PreflightProbe.Result> results = probe.probe("test", Arrays.asList(
+            new PreflightProbe.Target(0, null, "12 Months ₹ 24,999 Registration closed", false),
+            new PreflightProbe.Target(1, null, "6 Months ₹ 14,999", true),
+            new PreflightProbe.Target(2, null, "3 Months", false)));
+
+        assertEquals(PreflightProbe.Status.UNAVAILABLE, results.get(0).status);
+        assertEquals(PreflightProbe.Status.UNAVAILABLE, results.get(1).status);
+        assertEquals("button disabled", results.get(1).reason);
+        assertEquals(PreflightProbe.Status.AVAILABLE, results.get(2).status);
+        assertEquals("not probed", results.get(2).reason);
+    }
+
+    private void startServer(String requiredCookie) throws IOException {
+        server = FixtureServer.start(fixtures("preflight"), 0, requiredCookie);
+        base = "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    private PreflightProbe.Result probeOne(String path) {
+        return probe("", path).get(0);
+    }
+
+    private Map<Integer, PreflightProbe.Result> probe(String cookies, String... paths) {
+        List<PreflightProbe.Target> targets = new ArrayList<>();
+        for (String path : paths) {
+            targets.add(new PreflightProbe.Target(targets.size(), base + path, "", false));
+        }
+        return new PreflightProbe(cookies, null, Duration.ofSeconds(5), PreflightProbe.DEFAULT_MARKERS)
+            .probe("test", targets);
+    }
+
+    /** fixtures/<name> of the repository, whether the build runs from the root or this module. */
+    static Path fixtures(String name) {
+        for (Path dir = Paths.get("").toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            Path candidate = dir.resolve("fixtures").resolve(name);
+            if (Files.isDirectory(candidate)) return candidate;
+        }
+        throw new IllegalStateException("fixtures/" + name + " not found above " + Paths.get("").toAbsolutePath());
+    }
+}
@@ -0,0 +1,1304 @@
+import org.openqa.selenium.*;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DAMSParallel {
+    
+    // Configuration - will be loaded from config.properties in GitHub Actions
+    private static String[] PHONE_NUMBERS;
+    private static int NUM_TABS;
+    
+    // Slice of courses and phone numbers this process takes when the run is split across runners
+    private static Shard SHARD = Shard.SINGLE;
+    
+    // Accounts are leased to tabs per course; failing ones are taken out of rotation
+    private static int ACCOUNT_MAX_FAILURES;
+    private static double ACCOUNT_FAILURE_RATE;
+    private static AccountPool accounts;
+    private static final Map<Integer, String> tabPhones = new ConcurrentHashMap<>();
+    
+    // Dead browsers are replaced and the course resumed at the interrupted package
+    private static int BROWSER_HEARTBEAT;
+    private static int BROWSER_MAX_RESTARTS;
+    private static final Map<String, CourseProgress> interruptedCourses = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> courseRestarts = new ConcurrentHashMap<>();
+    
+    // Run time budget: step deadlines, priority order when time runs short, report before the hard limit
+    private static int RUN_BUDGET_MINUTES;
+    private static int RUN_BUDGET_RESERVE_MINUTES;
+    private static int STEP_DEADLINE_SECONDS;
+    private static Map<String, Long> STEP_DEADLINES;
+    private static List<String> COURSE_PRIORITY;
+    private static RunBudget budget;
+    
+    // Waits wake on CDP page events; fixed sleeps after network actions end once the page is quiet
+    private static boolean PAGE_EVENTS;
+    private static int PAGE_QUIET_MS;
+    
+    // QR read from the payment response (qr.capture: screenshot, network or both)
+    private static String QR_CAPTURE;
+    private static List<String> QR_CAPTURE_URLS;
+    private static int QR_NETWORK_TIMEOUT;
+    
+    // Captures are decoded and checked before they count; bad ones are retried (qr.retries)
+    private static double QR_MAX_AMOUNT;
+    private static int QR_RETRIES;
+    private static final List<String> shedCourses = Collections.synchronizedList(new ArrayList<>());
+    
+    // Adaptive tab count: between TABS_MIN and NUM_TABS, tuned from package latency and failures
+    private static int TABS_MIN;
+    private static int TABS_INITIAL;
+    private static double CONCURRENCY_TOLERANCE;
+    private static double CONCURRENCY_ERRORS;
+    private static List<String> CONCURRENCY_IGNORED_STEPS;
+    private static ConcurrencyController concurrency;
+    private static String OTP;
+    private static String BROWSER_MODE;
+    
+    // Shared Chrome hosting one isolated context per tab (browser.mode=context)
+    private static SharedBrowser sharedBrowser;
+    
+    // Global synchronization of network-heavy actions across tabs
+    private static final NetworkGovernor NETWORK = new NetworkGovernor();
+    
+    // Thread-safe data structures
+    private static final Queue<String> courseQueue = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger totalCoursesProcessed = new AtomicInteger(0);
+    private static final AtomicInteger totalPackagesProcessed = new AtomicInteger(0);
+    private static final AtomicInteger totalPackagesFailed = new AtomicInteger(0);
+    
+    // Live progress counters (optional HTTP endpoint / status file)
+    private static final RunMetrics metrics = new RunMetrics(totalCoursesProcessed, totalPackagesProcessed, NETWORK);
+    private static int METRICS_PORT;
+    private static String METRICS_FILE;
+    private static int METRICS_INTERVAL;
+    
+    // Checkout steps, locators and timings (compiled from flows/ at startup)
+    private static String PACKAGE_FLOW;
+    private static Flow packageFlow;
+    
+    // HTTP pre-flight check that skips sold-out or broken packages before any clicking
+    private static boolean PREFLIGHT_ENABLED;
+    private static int PREFLIGHT_TIMEOUT;
+    private static String PREFLIGHT_MARKERS;
+    
+    // For each package button: its link, the text of its own card and whether it is disabled
+    private static final String PACKAGE_CARDS_SCRIPT =
+        "var buttons = arguments[0];" +
+        "return buttons.map(function (button) {" +
+        "  var card = button;" +
+        "  while (card.parentElement && card.parentElement !== document.body &&" +
+        "         !buttons.some(function (other) { return other !== button && card.parentElement.contains(other); })) {" +
+        "    card = card.parentElement;" +
+        "  }" +
+        "  var link = button.closest('a');" +
+        "  return [link ? link.href : '', card.innerText || ''," +
+        "          !!(button.disabled || button.getAttribute('aria-disabled') === 'true')];" +
+        "});";
+    
+    // Report is streamed to disk as each course completes
+    private static StreamingReportWriter reportWriter;
+    
+    // Runs with more courses than this get one gallery page per course plus an index
+    private static int REPORT_PAGE_COURSES;
+    private static volatile boolean paginateReport = false;
+    private static final AtomicInteger coursePageCounter = new AtomicInteger(0);
+    
+    // Screenshots packed into chunked archives with a manifest at the end of the run
+    private static boolean ARTIFACT_PACK;
+    private static int ARTIFACT_CHUNK_MB;
+    private static final Map<String, Map<String, Object>> artifactLabels = new ConcurrentHashMap<>();
+    private static ArtifactPacker.Manifest artifactManifest;
+    
+    // Machine-readable results, appended to the history store as they happen
+    private static String RESULTS_HISTORY;
+    private static RunResultsStore resultsStore;
+    
+    // Console separators, built once instead of on every course
+    private static final String PHASE_RULE = "=".repeat(60);
+    private static final String COURSE_RULE = "═".repeat(40);
+    
+    /** Screenshots so far and the package to continue from, kept across browser restarts. */
+    static class CourseProgress {
+        final List<ScreenshotInfo> screenshots = new ArrayList<>();
+        int resumeAt;
+    }
+    
+    static class TabResult {
+        int coursesProcessed;
+        int packagesProcessed;
+        
+        TabResult(int courses, int packages) {
+            this.coursesProcessed = courses;
+            this.packagesProcessed = packages;
+        }
+    }
+    
+    public static void main(String[] args) {
+        long startTime = RunClock.millis();
+        
+        try {
+            // Load configuration
+            loadConfiguration();
+            BrowserWatchdog.setTimeout(Duration.ofSeconds(BROWSER_HEARTBEAT));
+            PageEvents.configure(PAGE_EVENTS, PAGE_QUIET_MS);
+            QrCapture.configure(QR_CAPTURE, QR_CAPTURE_URLS, QR_NETWORK_TIMEOUT * 1000L);
+            QrValidator.configure(QR_MAX_AMOUNT, QR_RETRIES);
+            budget = new RunBudget((RUN_BUDGET_MINUTES - RUN_BUDGET_RESERVE_MINUTES) * 60_000L - (RunClock.millis() - startTime),
+                                   STEP_DEADLINE_SECONDS * 1000L, STEP_DEADLINES, COURSE_PRIORITY);
+            packageFlow = Flow.load(PACKAGE_FLOW);
+            PreflightProbe.load(PreflightProbe.DEFAULT_PATH);
+            
+            new File("screenshots").mkdirs();
+            startReport();
+            resultsStore = new RunResultsStore(RESULTS_HISTORY, SHARD.isSharded() ? "parallel-shard" : "parallel",
+                                               RunClock.fileStamp(startTime) + SHARD.suffix());
+            if (SHARD.isSharded()) {
+                resultsStore.tag("shard", SHARD.index);
+                resultsStore.tag("shards", SHARD.count);
+            }
+            startMetrics();
+            
+            Log.info("╔════════════════════════════════════════════╗");
+            Log.info("  DAMS PARALLEL AUTOMATION ({}-{} TABS, ADAPTIVE)", TABS_MIN, NUM_TABS);
+            Log.info("╚════════════════════════════════════════════╝\n");
+            
+            // PHASE 1: Master tab discovers all courses
+            Log.info("🔍 PHASE 1: Discovering courses...\n");
+            
+            accounts = new AccountPool(PHONE_NUMBERS, ACCOUNT_MAX_FAILURES, ACCOUNT_FAILURE_RATE);
+            WebDriver masterDriver = null;
+            AccountPool.Lease masterLease;
+            while ((masterLease = accounts.acquire(0, () -> true)) != null) {
+                masterDriver = DamsCore.openDriver();
+                long loginStart = RunClock.monotonicMs();
+                Log.info("🔐 Master tab login");
+                if (DamsCore.login(masterDriver, masterLease.phone(), OTP, NETWORK)) {
+                    masterLease.loginSucceeded(RunClock.monotonicMs() - loginStart);
+                    break;
+                }
+                masterLease.loginFailed("master");
+                masterLease.release();
+                DamsCore.closeDriver(masterDriver);
+                masterDriver = null;
+            }
+            if (masterDriver == null) {
+                throw new IllegalStateException("no account could log in to discover courses");
+            }
+            
+            List<String> discovered = discoverCoursesFromDropdown(masterDriver);
+            List<String> allCourses = SHARD.filter(discovered);
+            paginateReport = allCourses.size() > REPORT_PAGE_COURSES;
+            
+            if (SHARD.isSharded()) {
+                Log.info("\n✓ Found {} courses, {} of them for {}:", discovered.size(), allCourses.size(), SHARD);
+            } else {
+                Log.info("\n✓ Found {} courses:", allCourses.size());
+            }
+            for (int i = 0; i < allCourses.size(); i++) {
+                Log.info("  [{}] {}", (i + 1), allCourses.get(i));
+            }
+            
+            DamsCore.closeDriver(masterDriver);
+            masterLease.release();
+            Log.info("\n✓ Master tab closed");
+            
+            // PHASE 2: Queue courses; tabs pull from the queue while the controller lets them
+            Log.info("\n📊 PHASE 2: Queueing courses...\n");
+            
+            courseQueue.addAll(allCourses);
+            metrics.setTotalCourses(allCourses.size());
+            metrics.setQueueDepth(courseQueue.size());
+            
+            concurrency = new ConcurrencyController(TABS_MIN, NUM_TABS, TABS_INITIAL, CONCURRENCY_TOLERANCE,
+                CONCURRENCY_ERRORS, CONCURRENCY_IGNORED_STEPS, DAMSParallel::recordConcurrencyDecision);
+            metrics.setActiveTabLimit(concurrency.limit());
+            Log.info("{} courses queued for up to {} tabs (starting with {}, minimum {}) on {} healthy accounts",
+                allCourses.size(), NUM_TABS, concurrency.limit(), TABS_MIN, accounts.healthyCount());
+            
+            // PHASE 3: Parallel processing
+            Log.info("\n" + PHASE_RULE);
+            Log.info("🚀 PHASE 3: STARTING PARALLEL PROCESSING");
+            Log.info(PHASE_RULE + "\n");
+            
+            if ("context".equals(BROWSER_MODE)) {
+                Log.info("🌐 Browser mode: single Chrome, one isolated context per tab\n");
+                sharedBrowser = new SharedBrowser(DamsCore.chromeOptions());
+            }
+            
+            // daemon threads: a tab still stuck when the budget is over must not keep the JVM from exiting
+            AtomicInteger tabThreads = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(NUM_TABS, runnable -> {
+                Thread thread = new Thread(runnable, "tab-" + tabThreads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            List<Future<TabResult>> futures = new ArrayList<>();
+            
+            // Every tab is started; those above the controller's limit wait before logging in
+            for (int tabIdx = 0; tabIdx < NUM_TABS; tabIdx++) {
+                concurrency.join(tabIdx + 1);
+            }
+            for (int tabIdx = 0; tabIdx < NUM_TABS; tabIdx++) {
+                final int tabNumber = tabIdx + 1;
+                futures.add(executor.submit(() -> processTabCourses(tabNumber)));
+            }
+            
+            // Wait for all tabs to complete
+            Log.info("⏳ Waiting for all tabs to complete...\n");
+            
+            // tabs get half the reserve to finish their last package; the other half is for the report
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    long waitMs = Math.max(1000, budget.remainingMs() + RUN_BUDGET_RESERVE_MINUTES * 30_000L);
+                    TabResult result = futures.get(i).get(waitMs, TimeUnit.MILLISECONDS);
+                    Log.info("\n✅ Tab {} COMPLETED: {} courses, {} packages", (i + 1), result.coursesProcessed, result.packagesProcessed);
+                } catch (java.util.concurrent.TimeoutException e) {
+                    Log.warn("\n⏳ Tab {} still busy when the time budget ran out, reporting without it", (i + 1));
+                } catch (Exception e) {
+                    Log.error("\n❌ Tab {} FAILED: {}", (i + 1), e.getMessage(), e);
+                }
+            }
+            
+            executor.shutdownNow();
+            recordShedCourses();
+            
+            // Calculate execution time
+            long endTime = RunClock.millis();
+            long durationSeconds = (endTime - startTime) / 1000;
+            
+            Log.info("\n╔════════════════════════════════════════════╗");
+            Log.info("  ✓ ALL TABS COMPLETED!");
+            Log.info("  Total Courses: {}", totalCoursesProcessed.get());
+            Log.info("  Total Packages: {} ({} failed)", totalPackagesProcessed.get(), totalPackagesFailed.get());
+            Log.info("  Execution Time: {}", DamsCore.formatDuration(durationSeconds));
+            Log.info("  Tabs: min {}, start {}, max {}, peak {}", concurrency.min(), concurrency.initial(),
+                     concurrency.max(), concurrency.peak());
+            Log.info("╚════════════════════════════════════════════╝");
+            
+        } catch (Exception e) {
+            Log.error("\n❌ FATAL ERROR: {}", e.getMessage(), e);
+        } finally {
+            if (sharedBrowser != null) {
+                sharedBrowser.quit();
+            }
+            recordAccountResults();
+            Locators.logStats();
+            Locators.record(resultsStore);
+            recordRunResult(startTime);
+            SelectorCache.save();
+            PreflightProbe.save();
+            metrics.stop();
+            packArtifacts();
+            generateReport();
+            Log.info("\n✓ Report generated successfully!");
+            Log.flush();
+        }
+    }
+    
+    private static void loadConfiguration() {
+        try {
+            Properties props = new Properties();
+            
+            // Try to load from config.properties file (for GitHub Actions)
+            File configFile = new File("config.properties");
+            if (configFile.exists()) {
+                try (FileInputStream fis = new FileInputStream(configFile)) {
+                    props.load(fis);
+                    
+                    String phoneNumbers = props.getProperty("phone.numbers");
+                    PHONE_NUMBERS = phoneNumbers.split(",");
+                    
+                    OTP = props.getProperty("otp", "2000");
+                    NUM_TABS = Integer.parseInt(props.getProperty("num.tabs", "4"));
+                    SHARD = Shard.fromConfig(props);
+                    PHONE_NUMBERS = SHARD.phones(PHONE_NUMBERS);
+                    ACCOUNT_MAX_FAILURES = Integer.parseInt(props.getProperty("accounts.max.failures", "2").trim());
+                    ACCOUNT_FAILURE_RATE = Double.parseDouble(props.getProperty("accounts.failure.rate", "0.5").trim());
+                    TABS_MIN = Integer.parseInt(props.getProperty("tabs.min", "1").trim());
+                    TABS_INITIAL = Integer.parseInt(props.getProperty("tabs.initial", String.valueOf((NUM_TABS + 1) / 2)).trim());
+                    CONCURRENCY_TOLERANCE = Double.parseDouble(props.getProperty("concurrency.latency.tolerance", "0.5").trim());
+                    CONCURRENCY_ERRORS = Double.parseDouble(props.getProperty("concurrency.error.threshold", "0.25").trim());
+                    CONCURRENCY_IGNORED_STEPS = Arrays.asList(props.getProperty("concurrency.ignore.steps", "qr_wait").trim().split("\\s*,\\s*"));
+                    BROWSER_MODE = props.getProperty("browser.mode", "process").trim();
+                    BROWSER_HEARTBEAT = Integer.parseInt(props.getProperty("browser.heartbeat.seconds", "10").trim());
+                    BROWSER_MAX_RESTARTS = Integer.parseInt(props.getProperty("browser.max.restarts", "2").trim());
+                    RUN_BUDGET_MINUTES = Integer.parseInt(props.getProperty("run.budget.minutes", "110").trim());
+                    RUN_BUDGET_RESERVE_MINUTES = Integer.parseInt(props.getProperty("run.budget.reserve.minutes", "5").trim());
+                    STEP_DEADLINE_SECONDS = Integer.parseInt(props.getProperty("step.deadline.seconds", "180").trim());
+                    STEP_DEADLINES = parseStepDeadlines(props.getProperty("step.deadlines", ""));
+                    COURSE_PRIORITY = Arrays.asList(props.getProperty("course.priority", "").split(","));
+                    PAGE_EVENTS = Boolean.parseBoolean(props.getProperty("page.events", "true").trim());
+                    PAGE_QUIET_MS = Integer.parseInt(props.getProperty("page.quiet.ms", "500").trim());
+                    QR_CAPTURE = props.getProperty("qr.capture", "both").trim();
+                    QR_CAPTURE_URLS = Arrays.asList(props.getProperty("qr.capture.urls",
+                        String.join(",", QrCapture.DEFAULT_URLS)).split(","));
+                    QR_NETWORK_TIMEOUT = Integer.parseInt(props.getProperty("qr.network.timeout.seconds", "30").trim());
+                    QR_MAX_AMOUNT = Double.parseDouble(props.getProperty("qr.max.amount", "100000").trim());
+                    QR_RETRIES = Integer.parseInt(props.getProperty("qr.retries", "1").trim());
+                    REPORT_PAGE_COURSES = Integer.parseInt(props.getProperty("report.page.courses", "20").trim());
+                    ARTIFACT_PACK = Boolean.parseBoolean(props.getProperty("artifact.pack", "true").trim());
+                    ARTIFACT_CHUNK_MB = Integer.parseInt(props.getProperty("artifact.chunk.mb", String.valueOf(ArtifactPacker.DEFAULT_CHUNK_MB)).trim());
+                    RESULTS_HISTORY = props.getProperty("results.history", RunResultsStore.DEFAULT_HISTORY).trim();
+                    METRICS_PORT = Integer.parseInt(props.getProperty("metrics.port", "0").trim());
+                    METRICS_FILE = props.getProperty("metrics.file", "").trim();
+                    METRICS_INTERVAL = Integer.parseInt(props.getProperty("metrics.interval.seconds", "15").trim());
+                    PACKAGE_FLOW = props.getProperty("flow.package", "flows/package-checkout.json").trim();
+                    PREFLIGHT_ENABLED = Boolean.parseBoolean(props.getProperty("preflight.enabled", "true").trim());
+                    PREFLIGHT_TIMEOUT = Integer.parseInt(props.getProperty("preflight.timeout.seconds", "10").trim());
+                    PREFLIGHT_MARKERS = props.getProperty("preflight.markers", PreflightProbe.DEFAULT_MARKERS);
+                    Log.configure(props.getProperty("log.level"), props.getProperty("log.format"));
+                    SelectorCache.load(props.getProperty("selector.cache", SelectorCache.DEFAULT_PATH).trim());
+                    
+                    Log.info("✓ Configuration loaded from config.properties");
+                    Log.info("  Phone numbers: {}", Arrays.toString(PHONE_NUMBERS));
+                    Log.info("  Number of tabs: {} (adaptive, min {}, start {})", NUM_TABS, TABS_MIN, TABS_INITIAL);
+                    if (SHARD.isSharded()) {
+                        Log.info("  Shard: {}", SHARD);
+                    }
+                    Log.info("  Browser mode: {}", BROWSER_MODE);
+                    Log.info("  Time budget: {} min ({} min kept for the report)", RUN_BUDGET_MINUTES, RUN_BUDGET_RESERVE_MINUTES);
+                    Log.info("");
+                }
+            } else {
+                // Default configuration (for local execution)
+                PHONE_NUMBERS = new String[]{
+                    "+919456628016",
+                    "+919289790436",
+                    "+917564012375",
+                    "+919411611466"
+                };
+                NUM_TABS = 4;
+                SHARD = Shard.fromConfig(null);
+                PHONE_NUMBERS = SHARD.phones(PHONE_NUMBERS);
+                ACCOUNT_MAX_FAILURES = 2;
+                ACCOUNT_FAILURE_RATE = 0.5;
+                TABS_MIN = 1;
+                TABS_INITIAL = 2;
+                CONCURRENCY_TOLERANCE = 0.5;
+                CONCURRENCY_ERRORS = 0.25;
+                CONCURRENCY_IGNORED_STEPS = Arrays.asList("qr_wait");
+                OTP = "2000";
+                BROWSER_MODE = "process";
+                BROWSER_HEARTBEAT = 10;
+                BROWSER_MAX_RESTARTS = 2;
+                RUN_BUDGET_MINUTES = 110;
+                RUN_BUDGET_RESERVE_MINUTES = 5;
+                STEP_DEADLINE_SECONDS = 180;
+                STEP_DEADLINES = new HashMap<>();
+                COURSE_PRIORITY = new ArrayList<>();
+                PAGE_EVENTS = true;
+                PAGE_QUIET_MS = 500;
+                QR_CAPTURE = "both";
+                QR_CAPTURE_URLS = QrCapture.DEFAULT_URLS;
+                QR_NETWORK_TIMEOUT = 30;
+                QR_MAX_AMOUNT = 100000;
+                QR_RETRIES = 1;
+                REPORT_PAGE_COURSES = 20;
+                ARTIFACT_PACK = true;
+                ARTIFACT_CHUNK_MB = ArtifactPacker.DEFAULT_CHUNK_MB;
+                RESULTS_HISTORY = RunResultsStore.DEFAULT_HISTORY;
+                METRICS_PORT = 0;
+                METRICS_FILE = "";
+                METRICS_INTERVAL = 15;
+                PACKAGE_FLOW = "flows/package-checkout.json";
+                PREFLIGHT_ENABLED = true;
+                PREFLIGHT_TIMEOUT = 10;
+                PREFLIGHT_MARKERS = PreflightProbe.DEFAULT_MARKERS;
+                SelectorCache.load(SelectorCache.DEFAULT_PATH);
+                
+                Log.warn("⚠️  No config.properties found, using default configuration");
+                if (SHARD.isSharded()) {
+                    Log.info("  Shard: {} ({} phone numbers)", SHARD, PHONE_NUMBERS.length);
+                }
+                Log.info("");
+            }
+        } catch (Exception e) {
+            Log.error("❌ Error loading configuration: {}", e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /** "step=seconds,step=seconds" into deadlines in milliseconds. */
+    private static Map<String, Long> parseStepDeadlines(String spec) {
+        Map<String, Long> deadlines = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length == 2) {
+                deadlines.put(parts[0].trim(), Long.parseLong(parts[1].trim()) * 1000);
+            }
+        }
+        return deadlines;
+    }
+    
+    private static TabResult processTabCourses(int tabNumber) {
+        WebDriver driver = null;
+        int coursesProcessed = 0;
+        int packagesProcessed = 0;
+        long tabStart = RunClock.monotonicMs();
+        long loginMs = 0;
+        Set<String> phonesUsed = new LinkedHashSet<>();
+        
+        try {
+            Log.setTab(tabNumber);
+            if (!concurrency.awaitTurn(tabNumber, DAMSParallel::workLeft)) {
+                Log.info("💤 Not needed, no courses left");
+                return new TabResult(0, 0);
+            }
+            Log.info("🚀 STARTING ({} courses queued)", courseQueue.size());
+            
+            // workLeft() asks the budget, so a tab stops here instead of logging in for work that is shed
+            while (concurrency.awaitTurn(tabNumber, DAMSParallel::workLeft)) {
+                metrics.setStep(tabNumber, "account_wait");
+                AccountPool.Lease lease = accounts.acquire(tabNumber, DAMSParallel::workLeft);
+                if (lease == null) {
+                    if (workLeft()) {
+                        Log.error("❌ No healthy account left, stopping with {} courses queued", courseQueue.size());
+                    }
+                    break;
+                }
+                
+                try {
+                    // heartbeat between courses, so a browser that died while idle is replaced before new work
+                    if (driver != null && !lease.needsLogin() && !BrowserWatchdog.isAlive(driver)) {
+                        Log.warn("💥 Browser session is gone, starting a new one");
+                        closeTabDriver(driver);
+                        driver = null;
+                    }
+                    
+                    // a fresh browser per login, so no session of the previous account is left behind
+                    if (lease.needsLogin() || driver == null) {
+                        closeTabDriver(driver);
+                        long loginStart = RunClock.monotonicMs();
+                        driver = openAndLogin(tabNumber, lease);
+                        loginMs += RunClock.monotonicMs() - loginStart;
+                        if (driver == null) continue;
+                    }
+                    tabPhones.put(tabNumber, lease.phone());
+                    phonesUsed.add(lease.phone());
+                    
+                    String courseName = budget.next(courseQueue, concurrency.limit());
+                    if (courseName == null) break;
+                    long courseStart = RunClock.monotonicMs();
+                    metrics.setQueueDepth(courseQueue.size());
+                    CourseProgress progress = interruptedCourses.remove(courseName);
+                    if (progress == null) {
+                        progress = new CourseProgress();
+                    }
+                    
+                    try {
+                        Log.info("\n" + COURSE_RULE);
+                        Log.info("📚 COURSE: {}{}", courseName,
+                                 progress.resumeAt > 0 ? " (resuming at package " + (progress.resumeAt + 1) + ")" : "");
+                        Log.info(COURSE_RULE);
+                        
+                        while (true) {
+                            try {
+                                processCourse(driver, courseName, tabNumber, progress);
+                                break;
+                            } catch (BrowserWatchdog.SessionLost lost) {
+                                driver = replaceBrowser(driver, courseName, tabNumber, lease, progress, lost);
+                                if (driver == null) break;
+                            }
+                        }
+                        if (driver == null && progress.resumeAt >= 0) {
+                            // not logged in again: another tab (or this one, later) picks the course up where it stopped
+                            interruptedCourses.put(courseName, progress);
+                            courseQueue.add(courseName);
+                            metrics.setQueueDepth(courseQueue.size());
+                            continue;
+                        }
+                        lease.courseDone();
+                        budget.courseFinished(RunClock.monotonicMs() - courseStart);
+                        
+                        List<ScreenshotInfo> screenshots = progress.screenshots;
+                        Collections.sort(screenshots);
+                        // written out here and not kept: report memory stays flat however many courses run
+                        appendCourseToReport(courseName, screenshots);
+                        
+                        coursesProcessed++;
+                        packagesProcessed += screenshots.size();
+                        totalCoursesProcessed.incrementAndGet();
+                        
+                        Log.info("✅ Course Complete: {} ({} packages)", courseName, screenshots.size());
+                        
+                    } catch (Exception e) {
+                        // the course goes back to the queue, so a tab that dies here does not lose it
+                        interruptedCourses.put(courseName, progress);
+                        courseQueue.add(courseName);
+                        throw e;
+                    }
+                } finally {
+                    lease.release();
+                }
+            }
+            
+            if (!courseQueue.isEmpty() && !budget.canStart(courseQueue)) {
+                Log.warn("\n⏳ TIME BUDGET USED UP, TAB DONE ({} courses left)", courseQueue.size());
+            } else {
+                Log.info("\n🏁 NO COURSES LEFT, TAB DONE!");
+            }
+            
+        } catch (Exception e) {
+            Log.error("❌ Fatal Error: {}", e.getMessage(), e);
+        } finally {
+            concurrency.leave(tabNumber);
+            if (driver != null) {
+                closeTabDriver(driver);
+                Log.info("🔒 Browser closed");
+            }
+            metrics.setStep(tabNumber, "done");
+            Log.setTab(0);
+            recordTabResult(tabNumber, String.join(",", phonesUsed), coursesProcessed, packagesProcessed, loginMs,
+                            RunClock.monotonicMs() - tabStart);
+        }
+        
+        return new TabResult(coursesProcessed, packagesProcessed);
+    }
+    
+    private static boolean workLeft() {
+        return budget.canStart(courseQueue);
+    }
+    
+    /** Opens a browser for the tab and logs in with the leased account; null (browser closed) if the login failed. */
+    private static WebDriver openAndLogin(int tabNumber, AccountPool.Lease lease) {
+        WebDriver driver = sharedBrowser != null ? sharedBrowser.openContext(tabNumber) : DamsCore.openDriver();
+        PageEvents.attach(driver);
+        long loginStart = RunClock.monotonicMs();
+        metrics.setStep(tabNumber, "login");
+        if (!DamsCore.login(driver, lease.phone(), OTP, NETWORK)) {
+            lease.loginFailed("tab " + tabNumber);
+            closeTabDriver(driver);
+            return null;
+        }
+        lease.loginSucceeded(RunClock.monotonicMs() - loginStart);
+        return driver;
+    }
+    
+    /**
+     * Swaps a dead browser for a new, logged-in one and records how long that took.
+     * Returns null when the new login failed (the caller requeues the course at
+     * progress.resumeAt) or when the course has used up its restarts, in which case
+     * resumeAt is set to -1 and the course is finished with what it has.
+     */
+    private static WebDriver replaceBrowser(WebDriver dead, String courseName, int tabNumber, AccountPool.Lease lease,
+                                            CourseProgress progress, BrowserWatchdog.SessionLost lost) {
+        Log.warn("💥 {}", lost.getMessage());
+        long restartStart = RunClock.monotonicMs();
+        closeTabDriver(dead);
+        progress.resumeAt = lost.packageIndex;
+        
+        int restarts = courseRestarts.merge(courseName, 1, Integer::sum);
+        if (restarts > BROWSER_MAX_RESTARTS) {
+            Log.error("❌ Giving up on {} after {} browser restarts", courseName, restarts - 1);
+            recordBrowserRestart(courseName, lost, tabNumber, 0, "gave up");
+            progress.resumeAt = -1;
+            return null;
+        }
+        
+        metrics.setStep(tabNumber, "browser_restart");
+        WebDriver driver = openAndLogin(tabNumber, lease);
+        long restartMs = RunClock.monotonicMs() - restartStart;
+        metrics.browserRestarted(restartMs);
+        recordBrowserRestart(courseName, lost, tabNumber, restartMs, driver != null ? "resumed" : "login failed");
+        if (driver != null) {
+            Log.info("♻️  New browser ready in {}ms, resuming at package {}", restartMs, lost.packageIndex + 1);
+        }
+        return driver;
+    }
+    
+    private static void closeTabDriver(WebDriver driver) {
+        if (driver == null) return;
+        // a dead ChromeDriver can hang on quit, so this is bounded by the heartbeat timeout
+        BrowserWatchdog.quitQuietly(() -> {
+            try {
+                PageEvents.detach(driver);
+                if (sharedBrowser != null) {
+                    sharedBrowser.closeContext(driver);
+                } else {
+                    driver.quit();
+                }
+            } catch (Exception e) {}
+        });
+    }
+    
+    /**
+     * Runs a course's packages from progress.resumeAt on, adding screenshots to the
+     * progress. Throws SessionLost when the browser died, so the tab can replace it
+     * and call again from the package that was interrupted.
+     */
+    @SuppressWarnings("try")
+    private static void processCourse(WebDriver driver, String courseName, int tabNumber, CourseProgress progress) {
+        WebDriverWait wait = PageEvents.waitFor(driver, Duration.ofSeconds(30));
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        List<ScreenshotInfo> screenshots = progress.screenshots;
+        int current = progress.resumeAt;
+        
+        try {
+            metrics.setStep(tabNumber, "select_course");
+            selectCourse(driver, wait, js, courseName, tabNumber);
+            clickGoProButton(driver, wait, js, tabNumber);
+            List<WebElement> packageButtons = findAllPackageButtons(driver, js, tabNumber);
+            int packageCount = packageButtons.size();
+            
+            Log.info("  → Found {} packages", packageCount);
+            
+            if (packageCount == 0) {
+                Log.warn("  ⚠️  No packages found, skipping");
+                return;
+            }
+            
+            List<List<Object>> cards = packageCards(js, packageButtons);
+            Map<Integer, PreflightProbe.Result> preflight = preflightPackages(driver, courseName, cards);
+            int qrRetries = 0;
+            
+            for (int pkgIdx = progress.resumeAt; pkgIdx < packageCount; pkgIdx++) {
+                current = pkgIdx;
+                if (budget.exhausted()) {
+                    Log.warn("  ⏳ Time budget used up, skipping packages {}-{}", (pkgIdx+1), packageCount);
+                    for (int skipped = pkgIdx; skipped < packageCount; skipped++) {
+                        recordPackageSkipped(courseName, skipped, tabNumber, "time budget");
+                    }
+                    break;
+                }
+                Log.info("  📦 Package [{}/{}]", (pkgIdx+1), packageCount);
+                
+                PreflightProbe.Result check = preflight.get(pkgIdx);
+                if (check != null && check.status == PreflightProbe.Status.UNAVAILABLE) {
+                    Log.info("    ⏭️  Skipped, unavailable: {}", check.reason);
+                    recordPackageSkipped(courseName, pkgIdx, tabNumber, check.reason);
+                    continue;
+                }
+                if (check != null && check.status == PreflightProbe.Status.CHANGED) {
+                    Log.info("    💱 Changed since last run: {}", check.reason);
+                }
+                
+                StepTimer timer = new StepTimer(step -> metrics.setStep(tabNumber, step), budget);
+                int attempt = qrRetries + 1;
+                qrRetries = 0;
+                
+                if (pkgIdx > progress.resumeAt || attempt > 1) {
+                    timer.begin("navigate");
+                    DamsCore.home(driver, NETWORK);
+                    clickGoProButton(driver, wait, js, tabNumber);
+                    packageButtons = findAllPackageButtons(driver, js, tabNumber);
+                }
+                
+                if (pkgIdx < packageButtons.size()) {
+                    timer.begin("package_click");
+                    WebElement pkgButton = packageButtons.get(pkgIdx);
+                    js.executeScript("arguments[0].scrollIntoView({block: 'center'});", pkgButton);
+                    DamsCore.sleep(1);
+                    
+                    try (NetworkGovernor.Permit permit = NETWORK.acquire()) {
+                        js.executeScript("arguments[0].click();", pkgButton);
+                        Log.info("    ✓ Clicked package");
+                        DamsCore.settle(driver, 2);
+                    }
+                    
+                    ScreenshotInfo screenshot = processPackageCheckout(driver, courseName, pkgIdx, tabNumber, timer);
+                    Future<QrValidator.Check> qrCheck = null;
+                    if (screenshot != null) {
+                        // decoded on the pool while this tab goes back to the home page
+                        List<Double> seenPrices = pkgIdx < cards.size()
+                            ? PreflightProbe.amounts(String.valueOf(cards.get(pkgIdx).get(1))) : Collections.emptyList();
+                        qrCheck = QrValidator.submit(screenshot.filepath, screenshot.qrPayload, seenPrices);
+                    } else if (!BrowserWatchdog.isAlive(driver)) {
+                        recordPackageResult(courseName, pkgIdx, tabNumber, timer, null, null, attempt);
+                        throw new BrowserWatchdog.SessionLost(pkgIdx, new Exception(timer.error()));
+                    }
+                    
+                    timer.begin("return_home");
+                    DamsCore.home(driver, NETWORK);
+                    
+                    QrValidator.Check qr = null;
+                    if (qrCheck != null) {
+                        timer.begin("qr_check");
+                        qr = QrValidator.await(qrCheck);
+                        if (screenshot.qrPayload == null) screenshot.qrPayload = qr.payload;
+                        if (!qr.valid()) timer.fail(new Exception("QR capture " + qr));
+                    }
+                    
+                    if (qr != null && !qr.valid() && attempt <= QrValidator.retries()) {
+                        // only the final attempt is recorded and packed; this one still tells the controller how the site is doing
+                        observeAttempt(courseName, pkgIdx, tabNumber, timer, null, true);
+                        DamsCore.discardCapture(screenshot.filepath, screenshot.networkImage);
+                        Log.warn("    🔁 QR capture {}, retrying package {} ({}/{})", qr, (pkgIdx+1),
+                            attempt, QrValidator.retries());
+                        qrRetries = attempt;
+                        pkgIdx--;
+                        continue;
+                    }
+                    recordPackageResult(courseName, pkgIdx, tabNumber, timer, screenshot, qr, attempt);
+                    if (screenshot == null) continue;
+                    if (qr != null && qr.valid()) {
+                        Log.info("    ✅ QR valid: ₹{}", qr.amount);
+                    } else if (qr != null) {
+                        // kept in the report, marked, so the bad capture is visible next to the good ones
+                        Log.warn("    ⚠️  QR capture {} after {} attempts", qr, attempt);
+                        screenshot.qrStatus = qr.status.name();
+                        screenshot.qrReason = qr.reason;
+                    }
+                    screenshots.add(screenshot);
+                } else {
+                    timer.fail(new Exception("Package button " + (pkgIdx + 1) + " not found after reload"));
+                    recordPackageResult(courseName, pkgIdx, tabNumber, timer, null, null, attempt);
+                }
+            }
+            
+        } catch (BrowserWatchdog.SessionLost e) {
+            throw e;
+        } catch (Exception e) {
+            if (!BrowserWatchdog.isAlive(driver)) {
+                throw new BrowserWatchdog.SessionLost(current, e);
+            }
+            Log.error("  ❌ Course error: {}", e.getMessage());
+        }
+    }
+    
+    /** Link, card text and disabled state of each package button; empty when the page could not be read. */
+    private static List<List<Object>> packageCards(JavascriptExecutor js, List<WebElement> packageButtons) {
+        try {
+            @SuppressWarnings("unchecked")
+            List<List<Object>> cards = (List<List<Object>>) js.executeScript(PACKAGE_CARDS_SCRIPT, packageButtons);
+            return cards != null ? cards : Collections.emptyList();
+        } catch (Exception e) {
+            Log.warn("  ⚠️  Could not read the package cards: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+    
+    private static Map<Integer, PreflightProbe.Result> preflightPackages(WebDriver driver, String courseName,
+                                                                        List<List<Object>> cards) {
+        if (!PREFLIGHT_ENABLED || cards.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        
+        try {
+            String pageUrl = driver.getCurrentUrl();
+            
+            List<PreflightProbe.Target> targets = new ArrayList<>();
+            for (int i = 0; i < cards.size(); i++) {
+                List<Object> card = cards.get(i);
+                String href = String.valueOf(card.get(0));
+                String url = href.startsWith("http") ? href : pageUrl;
+                targets.add(new PreflightProbe.Target(i, url, String.valueOf(card.get(1)), Boolean.TRUE.equals(card.get(2))));
+            }
+            
+            Map<Integer, PreflightProbe.Result> results = PreflightProbe
+                .forSession(driver, Duration.ofSeconds(PREFLIGHT_TIMEOUT), PREFLIGHT_MARKERS)
+                .probe(courseName, targets);
+            
+            long unavailable = results.values().stream()
+                .filter(r -> r.status == PreflightProbe.Status.UNAVAILABLE).count();
+            Log.info("  🔎 Pre-flight: {} of {} packages available", targets.size() - unavailable, targets.size());
+            return results;
+            
+        } catch (Exception e) {
+            Log.warn("  ⚠️  Pre-flight check failed, running every package: {}", e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+    
+    private static ScreenshotInfo processPackageCheckout(WebDriver driver, String courseName, int packageIndex,
+                                                         int tabNumber, StepTimer timer) {
+        Flow.Context checkout = DamsCore.checkout(driver, timer, NETWORK,
+                "screenshots/QR_" + DamsCore.fileSafe(courseName) + "_pkg" + (packageIndex + 1) + "_Tab" + tabNumber,
+                "payment.close")
+            .set("packageIndex", packageIndex)
+            .set("repeatPackage", packageIndex > 0);
+        
+        try {
+            DamsCore.Capture capture = DamsCore.runCheckout(packageFlow, checkout);
+            ScreenshotInfo screenshot = new ScreenshotInfo(capture.filepath, packageIndex, tabNumber, capture.timestamp);
+            screenshot.qrPayload = capture.upi;
+            screenshot.networkImage = capture.networkImage;
+            return screenshot;
+            
+        } catch (Exception e) {
+            timer.fail(e);
+            Log.error("    ❌ Checkout error: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    @SuppressWarnings("try")
+    private static void selectCourse(WebDriver driver, WebDriverWait wait, JavascriptExecutor js, 
+                                    String courseName, int tabNumber) {
+        try {
+            js.executeScript("window.scrollTo(0, 0);");
+            DamsCore.sleep(1);
+            
+            try (NetworkGovernor.Permit permit = NETWORK.acquire()) {
+                WebElement dropdown = Locators.await(wait, Locators.COURSE_DROPDOWN);
+                js.executeScript("arguments[0].click();", dropdown);
+                DamsCore.settle(driver, 2);
+            }
+            
+            List<WebElement> courseOptions = Locators.all(driver, Locators.courseOption(courseName));
+            
+            for (WebElement option : courseOptions) {
+                if (option.isDisplayed()) {
+                    try (NetworkGovernor.Permit permit = NETWORK.acquire()) {
+                        js.executeScript("arguments[0].click();", option);
+                        Log.info("  ✓ Selected course: {}", courseName);
+                        DamsCore.settle(driver, 2);
+                    }
+                    break;
+                }
+            }
+            
+            WebElement closeBtn = Locators.first(driver, Locators.MODAL_CLOSE_BUTTON);
+            if (closeBtn != null) {
+                js.executeScript("arguments[0].click();", closeBtn);
+                DamsCore.sleep(1);
+            }
+            
+        } catch (Exception e) {
+            Log.error("  ❌ Error selecting course: {}", e.getMessage());
+        }
+    }
+    
+    @SuppressWarnings("try")
+    private static void clickGoProButton(WebDriver driver, WebDriverWait wait, JavascriptExecutor js, int tabNumber) {
+        try {
+            js.executeScript("window.scrollTo(0, 0);");
+            DamsCore.sleep(1);
+            
+            try (NetworkGovernor.Permit permit = NETWORK.acquire()) {
+                WebElement goProBtn = Locators.await(wait, Locators.GO_PRO);
+                js.executeScript("arguments[0].click();", goProBtn);
+                Log.info("  ✓ Clicked Go Pro");
+                DamsCore.settle(driver, 2);
+            }
+            
+            js.executeScript("window.scrollTo(0, 0);");
+            DamsCore.sleep(1);
+            long lastHeight = (Long) js.executeScript("return document.body.scrollHeight");
+            int stableCount = 0;
+            
+            while (stableCount < 2) {
+                js.executeScript("window.scrollBy(0, 500);");
+                DamsCore.sleep(1);
+                long newHeight = (Long) js.executeScript("return document.body.scrollHeight");
+                if (newHeight == lastHeight) {
+                    stableCount++;
+                } else {
+                    stableCount = 0;
+                    lastHeight = newHeight;
+                }
+            }
+            
+            js.executeScript("window.scrollTo(0, 0);");
+            DamsCore.sleep(1);
+            
+        } catch (Exception e) {
+            Log.error("  ❌ Error clicking Go Pro: {}", e.getMessage());
+        }
+    }
+    
+    private static List<WebElement> findAllPackageButtons(WebDriver driver, JavascriptExecutor js, int tabNumber) {
+        List<WebElement> buttons = new ArrayList<>();
+        
+        try {
+            buttons.addAll(SelectorCache.findAllDisplayed(driver, "package.buttons", Locators.PACKAGE_BUTTONS));
+            
+            if (buttons.isEmpty()) {
+                List<WebElement> cards = Locators.all(driver, Locators.PACKAGE_CARD_CONTROLS);
+                for (WebElement card : cards) {
+                    if (card.isDisplayed()) {
+                        buttons.add(card);
+                    }
+                }
+            }
+            
+        } catch (Exception e) {
+            Log.error("  ❌ Error finding packages: {}", e.getMessage());
+        }
+        
+        return buttons;
+    }
+    
+    private static List<String> discoverCoursesFromDropdown(WebDriver driver) {
+        Log.info("🔍 Discovering courses from dropdown...");
+        List<String> courseNames = new ArrayList<>();
+        
+        try {
+            WebDriverWait wait = PageEvents.waitFor(driver, Duration.ofSeconds(30));
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            
+            js.executeScript("window.scrollTo(0, 0);");
+            DamsCore.sleep(2);
+            
+            WebElement dropdown = SelectorCache.find(driver, "course.dropdown", Duration.ofSeconds(30), false,
+                Locators.COURSE_DROPDOWN, Locators.COURSE_DROPDOWN_FMGE);
+            
+            if (dropdown == null) {
+                Log.error("❌ Dropdown not found!");
+                return courseNames;
+            }
+            
+            js.executeScript("arguments[0].click();", dropdown);
+            Log.info("  ✓ Opened dropdown");
+            DamsCore.sleep(3);
+            
+            try {
+                List<WebElement> scrollables = Locators.all(driver, Locators.DROPDOWN_SCROLLABLES);
+                for (WebElement scrollable : scrollables) {
+                    for (int i = 0; i < 5; i++) {
+                        js.executeScript("arguments[0].scrollTop = arguments[0].scrollHeight", scrollable);
+                        DamsCore.sleep(1);
+                    }
+                }
+            } catch (Exception e) {}
+            
+            DamsCore.sleep(2);
+            
+            Set<String> uniqueCourses = new LinkedHashSet<>();
+            
+            for (By selector : Locators.DROPDOWN_COURSE_NAMES) {
+                try {
+                    List<WebElement> elements = Locators.all(driver, selector);
+                    for (WebElement elem : elements) {
+                        if (elem.isDisplayed()) {
+                            String text = elem.getText().trim();
+                            
+                            if (isValidCourseName(text)) {
+                                uniqueCourses.add(text);
+                            }
+                        }
+                    }
+                } catch (Exception e) {}
+            }
+            
+            courseNames.addAll(uniqueCourses);
+            
+            try {
+                driver.findElement(Locators.BODY).sendKeys(Keys.ESCAPE);
+                DamsCore.sleep(1);
+            } catch (Exception e) {}
+            
+            Log.info("  ✓ Collected {} valid courses", courseNames.size());
+            
+        } catch (Exception e) {
+            Log.error("❌ Error discovering courses: {}", e.getMessage());
+        }
+        
+        return courseNames;
+    }
+    
+    private static boolean isValidCourseName(String text) {
+        if (text.length() < 4) return false;
+        
+        String lower = text.toLowerCase();
+        
+        String[] invalidTerms = {
+            "home", "logout", "close", "sign in", "sign out", 
+            "login", "cart", "menu", "search", "back", "next", 
+            "previous", "submit", "ok", "yes", "no", "cancel",
+            "noida", "delhi", "mumbai", "bangalore", "chennai", "kolkata",
+            "free", "premium", "pro", "basic", "access", "locked", "unlocked",
+            "select", "choose", "please select"
+        };
+        
+        for (String invalid : invalidTerms) {
+            if (lower.equals(invalid)) return false;
+        }
+        
+        if (!text.matches(".*[A-Za-z].*[A-Za-z].*")) return false;
+        
+        if (!text.contains(" ") && text.length() <= 4 && text.equals(lower)) return false;
+        
+        return true;
+    }
+    
+    private static void startMetrics() {
+        try {
+            if (METRICS_PORT > 0) {
+                metrics.startHttpEndpoint(METRICS_PORT);
+            }
+            if (!METRICS_FILE.isEmpty()) {
+                metrics.startStatusFile(METRICS_FILE, Math.max(1, METRICS_INTERVAL));
+            }
+        } catch (Exception e) {
+            Log.warn("⚠️  Could not start metrics output: {}", e.getMessage());
+        }
+    }
+    
+    private static String phoneForTab(int tabNumber) {
+        return tabPhones.get(tabNumber);
+    }
+    
+    /** Ends one checkout attempt: feeds the controller and labels its capture for the artifact manifest. */
+    private static void observeAttempt(String courseName, int packageIndex, int tabNumber, StepTimer timer,
+                                       ScreenshotInfo screenshot, boolean failed) {
+        timer.end();
+        concurrency.observe(timer.durations(), failed);
+        if (screenshot != null && screenshot.filepath != null) {
+            Map<String, Object> label = new HashMap<>();
+            label.put("course", courseName);
+            label.put("package", packageIndex + 1);
+            label.put("tab", tabNumber);
+            artifactLabels.put(screenshot.filepath, label);
+        }
+    }
+    
+    /** One record per package, for its final attempt; attempts counts the QR retries before it. */
+    private static void recordPackageResult(String courseName, int packageIndex, int tabNumber, StepTimer timer,
+                                            ScreenshotInfo screenshot, QrValidator.Check qr, int attempts) {
+        boolean succeeded = screenshot != null && (qr == null || qr.valid());
+        if (!succeeded) {
+            metrics.packageFailed();
+            totalPackagesFailed.incrementAndGet();
+        }
+        if (screenshot != null) {
+            // counted as each package is recorded, so the live packages metrics move during a course
+            totalPackagesProcessed.incrementAndGet();
+        }
+        observeAttempt(courseName, packageIndex, tabNumber, timer, screenshot, !succeeded);
+        if (resultsStore == null) return;
+        
+        Map<String, Object> record = resultsStore.record("package");
+        record.put("course", courseName);
+        record.put("package", packageIndex + 1);
+        record.put("tab", tabNumber);
+        record.put("phone", phoneForTab(tabNumber));
+        record.put("outcome", succeeded ? "SUCCESS" : "FAILED");
+        record.put("failedStep", timer.failedStep());
+        record.put("error", timer.error());
+        record.put("durationMs", timer.totalMs());
+        record.put("steps", timer.durations());
+        record.put("screenshot", screenshot != null ? screenshot.filepath : null);
+        record.put("sha256", screenshot != null ? RunResultsStore.sha256(screenshot.filepath) : null);
+        record.put("qrPayload", screenshot != null ? screenshot.qrPayload : null);
+        record.put("qrStatus", qr != null ? qr.status.name() : null);
+        record.put("qrAmount", qr != null ? qr.amount : null);
+        record.put("qrReason", qr != null ? qr.reason : null);
+        record.put("qrAttempts", attempts);
+        resultsStore.append(record);
+    }
+    
+    private static void recordPackageSkipped(String courseName, int packageIndex, int tabNumber, String reason) {
+        if (resultsStore == null) return;
+        
+        Map<String, Object> record = resultsStore.record("package");
+        record.put("course", courseName);
+        record.put("package", packageIndex + 1);
+        record.put("tab", tabNumber);
+        record.put("phone", phoneForTab(tabNumber));
+        record.put("outcome", "SKIPPED");
+        record.put("reason", reason);
+        resultsStore.append(record);
+    }
+    
+    private static void recordConcurrencyDecision(ConcurrencyController.Decision decision) {
+        metrics.setActiveTabLimit(decision.to);
+        if (resultsStore == null) return;
+        
+        Map<String, Object> record = resultsStore.record("concurrency");
+        record.put("from", decision.from);
+        record.put("to", decision.to);
+        record.put("reason", decision.reason);
+        record.put("latencyMs", decision.latencyMs);
+        record.put("baselineMs", decision.baselineMs);
+        record.put("errorRate", decision.errorRate);
+        record.put("samples", decision.samples);
+        resultsStore.append(record);
+    }
+    
+    private static void recordBrowserRestart(String courseName, BrowserWatchdog.SessionLost lost, int tabNumber,
+                                             long restartMs, String outcome) {
+        if (resultsStore == null) return;
+        
+        Map<String, Object> record = resultsStore.record("restart");
+        record.put("course", courseName);
+        record.put("package", lost.packageIndex + 1);
+        record.put("tab", tabNumber);
+        record.put("phone", phoneForTab(tabNumber));
+        record.put("outcome", outcome);
+        record.put("restartMs", restartMs);
+        record.put("error", lost.getMessage());
+        resultsStore.append(record);
+    }
+    
+    private static void recordTabResult(int tabNumber, String phoneNumber, int courses, int packages,
+                                        long loginMs, long activeMs) {
+        if (resultsStore == null) return;
+        
+        Map<String, Object> record = resultsStore.record("tab");
+        record.put("tab", tabNumber);
+        record.put("phone", phoneNumber);
+        record.put("courses", courses);
+        record.put("packages", packages);
+        record.put("loginMs", loginMs);
+        record.put("activeMs", activeMs);
+        resultsStore.append(record);
+    }
+    
+    private static void recordAccountResults() {
+        if (accounts == null) return;
+        
+        for (AccountPool.Account account : accounts.accounts()) {
+            Log.info("📱 {}: {} logins ({} failed, avg {}ms), {} courses{}", account.phone, account.logins,
+                account.loginFailures, account.averageLoginMs(), account.courses,
+                account.healthy ? "" : ", out of rotation: " + account.unhealthyReason);
+            if (resultsStore == null) continue;
+            
+            Map<String, Object> record = resultsStore.record("account");
+            record.put("phone", account.phone);
+            record.put("logins", account.logins);
+            record.put("loginFailures", account.loginFailures);
+            record.put("avgLoginMs", account.averageLoginMs());
+            record.put("courses", account.courses);
+            record.put("healthy", account.healthy);
+            record.put("reason", account.unhealthyReason);
+            resultsStore.append(record);
+        }
+    }
+    
+    /** Courses never started because the time budget ran out; listed in the report and the history. */
+    private static void recordShedCourses() {
+        String course;
+        while ((course = courseQueue.poll()) != null) {
+            shedCourses.add(course);
+        }
+        if (shedCourses.isEmpty()) return;
+        
+        Log.warn("⏳ {} courses not run within the time budget: {}", shedCourses.size(), shedCourses);
+        if (resultsStore == null) return;
+        for (String shed : shedCourses) {
+            Map<String, Object> record = resultsStore.record("shed");
+            record.put("course", shed);
+            record.put("priority", budget.priority(shed));
+            record.put("reason", "time budget");
+            resultsStore.append(record);
+        }
+    }
+    
+    private static void recordRunResult(long startTime) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("tabs", NUM_TABS);
+        fields.put("tabsPeak", concurrency != null ? concurrency.peak() : null);
+        fields.put("phones", Arrays.asList(PHONE_NUMBERS));
+        fields.put("courses", totalCoursesProcessed.get());
+        fields.put("packages", totalPackagesProcessed.get());
+        fields.put("packagesFailed", totalPackagesFailed.get());
+        fields.put("browserMode", BROWSER_MODE);
+        DamsCore.recordRun(resultsStore, startTime, fields);
+    }
+    
+    private static void startReport() {
+        String timestamp = RunClock.fileStamp();
+        reportWriter = DamsCore.startReport("DAMS_Parallel_Report_" + timestamp + SHARD.suffix() + ".html",
+                                            reportHeadHtml(timestamp + " (in progress)"));
+    }
+    
+    /** Packs screenshots/ into artifacts/ for upload; the report lists the archives. */
+    private static void packArtifacts() {
+        if (!ARTIFACT_PACK) return;
+        try {
+            artifactManifest = ArtifactPacker.pack(new File("screenshots"), new File(ArtifactPacker.DEFAULT_DIR),
+                "screenshots" + SHARD.suffix(), ARTIFACT_CHUNK_MB * 1024L * 1024L, artifactLabels);
+        } catch (Exception e) {
+            Log.warn("⚠️  Could not pack screenshots: {}", e.getMessage());
+        }
+    }
+    
+    private static void generateReport() {
+        String timestamp = RunClock.fileStamp();
+        DamsCore.finishReport(reportWriter, "DAMS_Parallel_Report_" + timestamp + SHARD.suffix() + ".html",
+                              reportHeadHtml(timestamp), ReportHtml.DOCUMENT_END, true);
+    }
+    
+    private static String reportHeadHtml(String generated) {
+        StringBuilder html = new StringBuilder();
+        html.append(ReportHtml.documentStart("DAMS Parallel Automation Report"));
+        
+        html.append("<h1>🚀 DAMS Parallel Automation Report</h1>\n");
+        
+        html.append("<div class='summary'>\n");
+        html.append("<h2>📊 Summary</h2>\n");
+        html.append("<div class='stats'>\n");
+        html.append("<div class='stat-item'>Total Courses: ").append(totalCoursesProcessed.get()).append("</div>\n");
+        html.append("<div class='stat-item'>Total Packages: ").append(totalPackagesProcessed.get()).append("</div>\n");
+        if (totalPackagesFailed.get() > 0) {
+            html.append("<div class='stat-item failed'>Failed Packages: ").append(totalPackagesFailed.get()).append("</div>\n");
+        }
+        html.append("<div class='stat-item'>Parallel Tabs: ").append(tabsSummary()).append("</div>\n");
+        if (SHARD.isSharded()) {
+            html.append("<div class='stat-item'>Shard: ").append(SHARD.index).append(" of ").append(SHARD.count).append("</div>\n");
+        }
+        html.append("</div>\n");
+        html.append("<p><strong>Generated:</strong> ").append(generated).append("</p>\n");
+        if (!shedCourses.isEmpty()) {
+            html.append("<p><strong>⏳ Not run within the time budget:</strong> ")
+                .append(String.join(", ", shedCourses)).append("</p>\n");
+        }
+        html.append("<p><strong>Phone Numbers Used:</strong></p>\n<ul>\n");
+        if (accounts != null) {
+            for (AccountPool.Account account : accounts.accounts()) {
+                html.append("<li>").append(account.phone).append(": ").append(account.courses).append(" courses, ")
+                    .append(account.logins).append(" logins");
+                if (!account.healthy) {
+                    html.append(" (out of rotation: ").append(account.unhealthyReason).append(")");
+                }
+                html.append("</li>\n");
+            }
+        } else if (PHONE_NUMBERS != null) {
+            for (String phone : PHONE_NUMBERS) {
+                html.append("<li>").append(phone).append("</li>\n");
+            }
+        }
+        html.append("</ul>\n");
+        html.append(ReportHtml.artifacts(artifactManifest));
+        html.append("</div>\n");
+        return html.toString();
+    }
+    
+    /** The adaptive tab range and the highest level reached, e.g. "1–4 (peak 3)". */
+    private static String tabsSummary() {
+        if (concurrency == null) return TABS_MIN + "–" + NUM_TABS;
+        return concurrency.min() + "–" + concurrency.max() + " (peak " + concurrency.peak() + ")";
+    }
+    
+    /**
+     * Adds a finished course to the live report. Small runs keep every gallery on the
+     * main page; large runs get one page per course and an index entry linking to it.
+     */
+    private static void appendCourseToReport(String courseName, List<ScreenshotInfo> screenshots) {
+        if (reportWriter == null) return;
+        
+        List<String> paths = new ArrayList<>();
+        for (ScreenshotInfo screenshot : screenshots) {
+            if (screenshot.filepath != null) paths.add(screenshot.filepath);
+        }
+        Map<String, String> thumbnails = ReportThumbnails.createAll(paths);
+        String section = ReportHtml.courseSection(courseName, screenshots, thumbnails);
+        
+        if (!paginateReport) {
+            reportWriter.appendSection(courseName, section);
+            return;
+        }
+        
+        String baseName = reportWriter.getFilename().replaceAll("\\.html$", "");
+        String pageName = baseName + "_course" + String.format("%03d", coursePageCounter.incrementAndGet()) + ".html";
+        
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(pageName), "UTF-8")) {
+            writer.write(ReportHtml.documentStart("DAMS Report - " + courseName));
+            writer.write("<p><a class='page-link' href='" + new File(reportWriter.getFilename()).getName() + "'>← All courses</a></p>\n");
+            writer.write(section);
+            writer.write(ReportHtml.DOCUMENT_END);
+        } catch (IOException e) {
+            Log.warn("⚠️  Could not write course page for {}: {}", courseName, e.getMessage());
+            reportWriter.appendSection(courseName, section);
+            return;
+        }
+        
+        reportWriter.appendSection(courseName, ReportHtml.courseLink(courseName, screenshots, new File(pageName).getName()));
+    }
+}
@@ -0,0 +1,543 @@
+import org.openqa.selenium.*;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.File;
+import java.util.*;
+
+public class DamsDelhiLogin {
+    private static WebDriver driver;
+    private static WebDriverWait wait;
+    private static JavascriptExecutor js;
+    
+    // Tracking data
+    private static int coursesAttempted = 0;
+    private static int totalSuccessful = 0;
+    private static int totalFailed = 0;
+    
+    private static String executionStartTime;
+    
+    // Checkout steps, locators and timings
+    private static final String CHECKOUT_FLOW = "flows/cbt-checkout.json";
+    private static Flow checkoutFlow;
+    
+    // Report is streamed to disk as each course completes
+    private static StreamingReportWriter reportWriter;
+    
+    // Machine-readable results, appended to the history store as they happen
+    private static RunResultsStore resultsStore;
+    private static final String PHONE_NUMBER = "+919456628016";
+    private static final String OTP = "2000";
+    
+    public static void main(String[] args) {
+        long startMillis = RunClock.millis();
+        try {
+            new File("screenshots").mkdirs();
+            SelectorCache.load(SelectorCache.DEFAULT_PATH);
+            checkoutFlow = Flow.load(CHECKOUT_FLOW);
+            executionStartTime = RunClock.fileStamp(startMillis);
+            startReport();
+            resultsStore = new RunResultsStore(RunResultsStore.DEFAULT_HISTORY, "cbt", executionStartTime);
+
+            Log.info("╔════════════════════════════════════════════╗");
+            Log.info("║  DAMS CBT AUTOMATION - ALL CBT COURSES    ║");
+            Log.info("╚════════════════════════════════════════════╝\n");
+
+            setupDriver();
+            if (!DamsCore.login(driver, PHONE_NUMBER, OTP, null)) {
+                throw new IllegalStateException("login failed for " + PHONE_NUMBER);
+            }
+
+            // Navigate to CBT section using hamburger menu
+            navigateToCBTSectionViaHamburger();
+
+            // Discover all CBT courses
+            List<String> cbtCourses = discoverCBTCourses();
+            Log.info("\n✓ Found {} CBT courses", cbtCourses.size());
+            for (int i = 0; i < cbtCourses.size(); i++) {
+                Log.info("  [{}] {}", (i + 1), cbtCourses.get(i));
+            }
+
+            // Process each CBT course
+            for (int i = 0; i < cbtCourses.size(); i++) {
+                String courseName = cbtCourses.get(i);
+                Log.info("\n{}", "=".repeat(60));
+                Log.info("PROCESSING: {} [{}/{}]", courseName, (i+1), cbtCourses.size());
+                Log.info("{}", "=".repeat(60));
+
+                processCBTCourse(courseName, i);
+                
+                // Return to CBT section after each course (except last)
+                if (i < cbtCourses.size() - 1) {
+                    returnToCBTSection();
+                }
+            }
+
+            Log.info("\n╔════════════════════════════════════════════╗");
+            Log.info("║  EXECUTION COMPLETED!                      ║");
+            Log.info("║  Successful: {}                              ║", totalSuccessful);
+            Log.info("║  Failed: {}                                  ║", totalFailed);
+            Log.info("╚════════════════════════════════════════════╝");
+
+        } catch (Exception e) {
+            Log.error("CRITICAL ERROR: {}", e.getMessage(), e);
+        } finally {
+            Locators.logStats();
+            Locators.record(resultsStore);
+            recordRunResult(startMillis);
+            SelectorCache.save();
+            generateDetailedReport();
+            Log.info("\nClosing in 10 seconds...");
+            DamsCore.sleep(10);
+            DamsCore.closeDriver(driver);
+        }
+    }
+
+    private static void setupDriver() {
+        Log.info("Setting up Chrome driver...");
+        driver = DamsCore.openDriver();
+        driver.manage().window().maximize();
+        wait = DamsCore.waitFor(driver);
+        js = (JavascriptExecutor) driver;
+        Log.info("✓ Driver ready\n");
+    }
+
+    private static void navigateToCBTSectionViaHamburger() {
+        Log.info("Navigating to CBT section via Hamburger menu...");
+        
+        try {
+            // Step 1: Click the course dropdown button to select NEET PG
+            try {
+                WebElement dropdown = Locators.await(wait, Locators.COURSE_DROPDOWN);
+                js.executeScript("arguments[0].scrollIntoView({block: 'center'});", dropdown);
+                DamsCore.sleep(1);
+                js.executeScript("arguments[0].click();", dropdown);
+                Log.info("  ✓ Clicked: Course Dropdown");
+                DamsCore.sleep(3);
+            } catch (Exception e) {
+                Log.warn("  ⚠ Skipping dropdown: {}", e.getMessage());
+            }
+            
+            // Step 2: Select NEET PG from dropdown
+            try {
+                List<WebElement> options = Locators.all(driver, Locators.NEET_PG_OPTION);
+                for (WebElement option : options) {
+                    if (option.isDisplayed()) {
+                        js.executeScript("arguments[0].click();", option);
+                        Log.info("  ✓ Selected: NEET PG");
+                        DamsCore.sleep(3);
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                Log.warn("  ⚠ Skipping NEET PG selection");
+            }
+            
+            // Step 3: Close any modal if present
+            WebElement closeBtn = Locators.first(driver, Locators.MODAL_CLOSE_ANY);
+            if (closeBtn != null) {
+                js.executeScript("arguments[0].click();", closeBtn);
+                Log.info("  ✓ Closed modal");
+                DamsCore.sleep(2);
+            } else {
+                Log.info("  ℹ No modal to close");
+            }
+            
+            // Step 4: Click Hamburger menu button
+            boolean hamburgerClicked = false;
+            try {
+                WebElement hamburger = Locators.await(wait, Locators.HAMBURGER);
+                js.executeScript("arguments[0].scrollIntoView({block: 'center'});", hamburger);
+                DamsCore.sleep(1);
+                js.executeScript("arguments[0].click();", hamburger);
+                Log.info("  ✓ Clicked: Hamburger Menu");
+                hamburgerClicked = true;
+                DamsCore.sleep(3);
+            } catch (Exception e) {
+                Log.error("  ✗ Failed to click hamburger: {}", e.getMessage());
+            }
+            
+            if (!hamburgerClicked) {
+                Log.error("  ✗ Could not open hamburger menu!");
+                return;
+            }
+            
+            // Step 5: Click CBT button in the sidebar
+            boolean cbtClicked = false;
+            
+            for (By selector : Locators.CBT_MENU_ENTRY) {
+                try {
+                    List<WebElement> cbtElements = Locators.all(driver, selector);
+                    for (WebElement cbtElem : cbtElements) {
+                        if (cbtElem.isDisplayed()) {
+                            String elemText = cbtElem.getText().trim();
+                            
+                            if (elemText.equals("CBT") || elemText.equalsIgnoreCase("cbt")) {
+                                js.executeScript("arguments[0].scrollIntoView({block: 'center'});", cbtElem);
+                                DamsCore.sleep(1);
+                                js.executeScript("arguments[0].click();", cbtElem);
+                                Log.info("  ✓ Clicked: CBT button");
+                                cbtClicked = true;
+                                DamsCore.sleep(3);
+                                break;
+                            }
+                        }
+                    }
+                    if (cbtClicked) break;
+                } catch (Exception e) {
+                    Log.info("    Trying next selector...");
+                }
+            }
+            
+            if (!cbtClicked) {
+                Log.error("  ✗ Could not click CBT button!");
+                return;
+            }
+            
+            // Step 6: Click OK button (Red button) if it appears
+            try {
+                WebElement okBtn = Locators.await(wait, Locators.CBT_OK);
+                js.executeScript("arguments[0].scrollIntoView({block: 'center'});", okBtn);
+                DamsCore.sleep(1);
+                js.executeScript("arguments[0].click();", okBtn);
+                Log.info("  ✓ Clicked: OK Button (Red)");
+                DamsCore.sleep(3);
+            } catch (Exception e) {
+                Log.info("  ℹ No OK button to click");
+            }
+            
+            Log.info("✓ Successfully navigated to CBT section\n");
+            
+        } catch (Exception e) {
+            Log.error("✗ Error navigating to CBT section: {}", e.getMessage(), e);
+        }
+    }
+
+    private static List<String> discoverCBTCourses() {
+        Log.info("Discovering CBT courses...");
+        List<String> courses = new ArrayList<>();
+        
+        try {
+            // CRITICAL FIX: Wait for page to fully load after navigation
+            Log.info("  → Waiting for CBT page to load completely...");
+            DamsCore.sleep(5); // Give time for JavaScript to render
+            
+            // Scroll to load all courses
+            js.executeScript("window.scrollTo(0, 0);");
+            DamsCore.sleep(2);
+            
+            long lastHeight = (Long) js.executeScript("return document.body.scrollHeight");
+            int stableCount = 0;
+            
+            Log.info("  → Scrolling to load all courses...");
+            while (stableCount < 3) {
+                js.executeScript("window.scrollBy(0, 500);");
+                DamsCore.sleep(1);
+                long newHeight = (Long) js.executeScript("return document.body.scrollHeight");
+                if (newHeight == lastHeight) {
+                    stableCount++;
+                } else {
+                    stableCount = 0;
+                    lastHeight = newHeight;
+                }
+            }
+            
+            js.executeScript("window.scrollTo(0, 0);");
+            DamsCore.sleep(2);
+            
+            // Find all Buy Now buttons - use the EXACT working selector
+            List<WebElement> buyNowButtons = Locators.all(driver, Locators.CBT_BUY_NOW);
+            
+            Log.info("  → Found {} Buy Now buttons", buyNowButtons.size());
+            
+            if (buyNowButtons.isEmpty()) {
+                Log.error("  ✗ No Buy Now buttons found!");
+                return courses;
+            }
+            
+            // CRITICAL FIX: Limit to EXACTLY 3 courses only
+            int coursesToProcess = Math.min(3, buyNowButtons.size());
+            Log.info("  → Processing EXACTLY {} courses (LIMITED TO 3)", coursesToProcess);
+            
+            // For each button, find the course name
+            for (int i = 0; i < coursesToProcess; i++) {
+                WebElement button = buyNowButtons.get(i);
+                try {
+                    // Scroll button into view
+                    js.executeScript("arguments[0].scrollIntoView({block: 'center'});", button);
+                    DamsCore.sleep(1);
+                    
+                    // Navigate up to find the course container
+                    WebElement container = button.findElement(Locators.CBT_CARD);
+                    
+                    String courseName = "";
+                    
+                    // Method 1: Look for heading tags (h3, h4, h5)
+                    try {
+                        WebElement titleElem = container.findElement(Locators.CBT_CARD_TITLE);
+                        courseName = titleElem.getText().trim();
+                        Log.info("  → Method 1: Found title: {}", courseName);
+                    } catch (Exception e) {}
+                    
+                    // Method 2: Look for anchor with substantial text
+                    if (courseName.isEmpty()) {
+                        try {
+                            WebElement linkElem = container.findElement(Locators.CBT_CARD_LINK);
+                            courseName = linkElem.getText().trim();
+                            Log.info("  → Method 2: Found link text: {}", courseName);
+                        } catch (Exception e) {}
+                    }
+                    
+                    // Method 3: Get all text and find first valid line
+                    if (courseName.isEmpty()) {
+                        String allText = container.getText();
+                        String[] lines = allText.split("\n");
+                        for (String line : lines) {
+                            line = line.trim();
+                            if (isValidCBTCourseName(line)) {
+                                courseName = line;
+                                Log.info("  → Method 3: Found from text: {}", courseName);
+                                break;
+                            }
+                        }
+                    }
+                    
+                    // Only add if valid course name found, otherwise use generic
+                    if (!courseName.isEmpty() && isValidCBTCourseName(courseName)) {
+                        courses.add(courseName);
+                        Log.info("  ✓ Found course: {}", courseName);
+                    } else {
+                        // Use generic name only as last resort
+                        courseName = "CBT Course " + (i + 1);
+                        courses.add(courseName);
+                        Log.info("  → Using generic name: {}", courseName);
+                    }
+                } catch (Exception e) {
+                    Log.warn("  ⚠ Skipped course {}: {}", (i + 1), e.getMessage());
+                }
+            }
+            
+            // Remove duplicates while preserving order
+            List<String> uniqueCourses = new ArrayList<>(new LinkedHashSet<>(courses));
+            
+            return uniqueCourses;
+            
+        } catch (Exception e) {
+            Log.error("✗ Error discovering courses: {}", e.getMessage(), e);
+            return courses;
+        }
+    }
+
+    private static boolean isValidCBTCourseName(String text) {
+        if (text == null || text.length() < 10) return false;
+        
+        String lower = text.toLowerCase();
+        
+        // Must contain relevant keywords
+        if (!lower.contains("all india") && !lower.contains("dams") && 
+            !lower.contains("neet") && !lower.contains("mds") && 
+            !lower.contains("fmge") && !lower.contains("combo") && 
+            !lower.contains("cbt") && !lower.contains("test")) {
+            return false;
+        }
+        
+        // Filter out invalid terms
+        String[] invalid = {
+            "test instructions", "buy now", "registration", "exam date", 
+            "noida", "delhi", "select", "choose", "click here", "view details",
+            "registration last date", "download app", "app store", "google play",
+            "view qr", "screenshot"
+        };
+        
+        for (String term : invalid) {
+            if (lower.equals(term) || lower.contains("₹")) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+
+    private static void processCBTCourse(String courseName, int courseIndex) {
+        String timestamp = RunClock.time();
+        StepTimer timer = null;
+        CourseResult result = null;
+        
+        // an invalid QR capture reruns the checkout; only the last attempt is recorded and counted
+        for (int attempt = 1; attempt <= QrValidator.retries() + 1; attempt++) {
+            if (attempt > 1) {
+                returnToCBTSection();
+            }
+            timer = new StepTimer();
+            String screenshotPath = null;
+            
+            try {
+                Flow.Context checkout = DamsCore.checkout(driver, timer, null,
+                        "screenshots/CBT_QR_" + DamsCore.fileSafe(courseName), "cbt.payment.close")
+                    .set("courseIndex", courseIndex)
+                    .handler("cbtModal", flow -> handleCBTModal());
+                
+                DamsCore.Capture capture = DamsCore.runCheckout(checkoutFlow, checkout);
+                screenshotPath = capture.filepath;
+                
+                timer.begin("qr_check");
+                QrValidator.Check qr = QrValidator.await(QrValidator.submit(screenshotPath, capture.upi));
+                if (qr.valid()) {
+                    timer.end();
+                    result = new CourseResult(courseName, "SUCCESS", timestamp, screenshotPath, null);
+                    result.qrPayload = qr.payload;
+                    result.qrStatus = qr.status.name();
+                    result.qrAttempts = attempt;
+                    Log.info("  ✅ Course processed successfully (QR ₹{})", qr.amount);
+                    break;
+                }
+                
+                timer.fail(new Exception("QR capture " + qr));
+                result = new CourseResult(courseName, "FAILED", timestamp, screenshotPath, "QR capture " + qr);
+                result.qrPayload = qr.payload;
+                result.qrStatus = qr.status.name();
+                result.qrAttempts = attempt;
+                if (attempt <= QrValidator.retries()) {
+                    Log.warn("  🔁 QR capture {}, retrying course ({}/{})", qr, attempt, QrValidator.retries());
+                    DamsCore.discardCapture(screenshotPath, capture.networkImage);
+                } else {
+                    Log.error("  ❌ QR capture {}, no retries left", qr);
+                }
+                
+            } catch (Exception e) {
+                timer.fail(e);
+                result = new CourseResult(courseName, "FAILED", timestamp, screenshotPath, e.getMessage());
+                result.qrAttempts = attempt;
+                Log.error("  ❌ Course processing failed: {}", e.getMessage(), e);
+                break;
+            }
+        }
+        
+        if ("SUCCESS".equals(result.status)) {
+            totalSuccessful++;
+        } else {
+            totalFailed++;
+        }
+        recordResult(result, timer);
+    }
+
+    // Step 1.5: CBT (Center Based Test) modal, scoped to the popup that opens after Buy Now
+    private static void handleCBTModal() throws Exception {
+        WebElement cbtModal = wait.until(ExpectedConditions.visibilityOfElementLocated(Locators.CBT_POPUP));
+        Log.info("  ✓ CBT Modal detected");
+        
+        WebElement cbtRadioLabel = cbtModal.findElement(Locators.CBT_POPUP_OPTION);
+        js.executeScript("arguments[0].click();", cbtRadioLabel);
+        Log.info("  ✓ Clicked 'CBT (Center Based Test)'");
+        DamsCore.sleep(1);
+        
+        WebElement modalOkButton = cbtModal.findElement(Locators.CBT_POPUP_OK);
+        js.executeScript("arguments[0].click();", modalOkButton);
+        Log.info("  ✓ Clicked OK on CBT modal");
+        DamsCore.sleep(3);
+    }
+
+    private static void returnToCBTSection() {
+        try {
+            Log.info("\n  → Returning to CBT section...");
+            
+            DamsCore.home(driver, null);
+            
+            boolean hamburgerClicked = false;
+            try {
+                WebElement hamburger = Locators.await(wait, Locators.HAMBURGER);
+                js.executeScript("arguments[0].click();", hamburger);
+                Log.info("  ✓ Clicked Hamburger");
+                hamburgerClicked = true;
+                DamsCore.sleep(2);
+            } catch (Exception e) {
+                Log.error("  ✗ Failed hamburger");
+            }
+            
+            if (!hamburgerClicked) return;
+            
+            boolean cbtClicked = false;
+            for (By selector : Locators.CBT_MENU_ENTRY_RETURN) {
+                try {
+                    List<WebElement> cbtElements = Locators.all(driver, selector);
+                    for (WebElement cbtElem : cbtElements) {
+                        if (cbtElem.isDisplayed() && cbtElem.getText().trim().equals("CBT")) {
+                            js.executeScript("arguments[0].click();", cbtElem);
+                            Log.info("  ✓ Clicked CBT");
+                            cbtClicked = true;
+                            DamsCore.sleep(2);
+                            break;
+                        }
+                    }
+                    if (cbtClicked) break;
+                } catch (Exception e) {}
+            }
+            
+            if (!cbtClicked) {
+                Log.error("  ✗ Failed to click CBT");
+                return;
+            }
+            
+            // Click OK button
+            try {
+                WebElement okBtn = Locators.await(wait, Locators.CBT_OK);
+                js.executeScript("arguments[0].click();", okBtn);
+                Log.info("  ✓ Clicked OK Button");
+                DamsCore.sleep(3);
+            } catch (Exception e) {
+                Log.error("  ✗ Failed OK button");
+            }
+            
+        } catch (Exception e) {
+            Log.warn("  ⚠ Error returning to CBT: {}", e.getMessage());
+        }
+    }
+
+    private static void recordResult(CourseResult result, StepTimer timer) {
+        coursesAttempted++;
+        if (reportWriter != null) {
+            String key = String.format("%05d", coursesAttempted);
+            reportWriter.appendSection(key, ReportHtml.cbtRow(coursesAttempted, result));
+        }
+        
+        if (resultsStore != null) {
+            Map<String, Object> record = resultsStore.record("course");
+            record.put("course", result.courseName);
+            record.put("package", 1);
+            record.put("tab", 1);
+            record.put("phone", PHONE_NUMBER);
+            record.put("outcome", result.status);
+            record.put("failedStep", timer.failedStep());
+            record.put("error", result.errorMessage);
+            record.put("durationMs", timer.totalMs());
+            record.put("steps", timer.durations());
+            record.put("screenshot", result.screenshotPath);
+            record.put("sha256", RunResultsStore.sha256(result.screenshotPath));
+            record.put("qrPayload", result.qrPayload);
+            record.put("qrStatus", result.qrStatus);
+            record.put("qrAttempts", result.qrAttempts);
+            resultsStore.append(record);
+        }
+    }
+
+    private static void recordRunResult(long startMillis) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("tabs", 1);
+        fields.put("courses", coursesAttempted);
+        fields.put("packages", totalSuccessful);
+        DamsCore.recordRun(resultsStore, startMillis, fields);
+    }
+
+    private static void startReport() {
+        reportWriter = DamsCore.startReport("DAMS_CBT_Report_" + executionStartTime + ".html", reportHeadHtml());
+    }
+
+    private static void generateDetailedReport() {
+        DamsCore.finishReport(reportWriter, "DAMS_CBT_Report_" + RunClock.fileStamp() + ".html",
+                              reportHeadHtml(), ReportHtml.cbtTail(), false);
+    }
+
+    private static String reportHeadHtml() {
+        return ReportHtml.cbtHead(coursesAttempted, totalSuccessful, totalFailed, executionStartTime);
+    }
+}
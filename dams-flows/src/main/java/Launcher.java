@@ -0,0 +1,238 @@
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Entry point of dams.jar: starts a runner or tool in a JVM set up for a fast start.
+ *
+ * Most of a run's startup goes to loading and verifying Selenium, its HTTP client
+ * and the CDP classes. The launcher keeps an AppCDS archive of those classes next
+ * to the jar (dams-&lt;java version&gt;.jsa) and starts the main class with it, so they
+ * are mapped in instead of loaded from the jar. The archive is made by a training
+ * run of StartupProbe the first time, and again whenever the jar is newer than the
+ * archive: on Java 13+ as a dynamic archive (ArchiveClassesAtExit), on older JVMs
+ * from a dumped class list. --train=fixture trains against the fixture site, which
+ * also covers a real page load; the default opens Chrome on about:blank.
+ *
+ * The child JVM uses the serial collector (a run is one process with a small heap
+ * and mostly waits on Chrome); tools that finish in seconds (TrendDashboard,
+ * ShardMerge, Shard, PreflightProbe, StartupProbe) also stop at the C1 compiler.
+ * If the archive cannot be used the JVM just starts without it. The -D and -X
+ * options given to the launcher (java -Dshard.index=1 -Xmx1g -jar dams.jar) are
+ * passed on to the child after these, so they win; a collector chosen there
+ * replaces the serial one. Class-data sharing options are left out, since the
+ * launcher sets those itself.
+ *
+ * --bench[=N] runs StartupProbe N times (3) without and with the archive and prints
+ * the time from JVM start to main and to the first ChromeDriver.
+ *
+ * Usage: java -jar dams.jar [--cds=auto|off|retrain] [--train=driver|fixture] [--bench[=N]]
+ *                           [MainClass] [args...]
+ *   MainClass defaults to DAMSParallel.
+ */
+public class Launcher {
+
+    private static final String DEFAULT_MAIN = "DAMSParallel";
+    private static final Set<String> SHORT_LIVED = new HashSet<>(Arrays.asList(
+        "TrendDashboard", "ShardMerge", "Shard", "PreflightProbe", "StartupProbe", "FixtureServer"));
+    private static final List<String> CLASS_DATA_OPTIONS = Arrays.asList(
+        "-Xshare", "-XX:SharedArchiveFile=", "-XX:ArchiveClassesAtExit=", "-XX:DumpLoadedClassList=",
+        "-XX:SharedClassListFile=", "-XX:+AutoCreateSharedArchive", "-XX:-AutoCreateSharedArchive");
+
+    // the launcher's own -D and -X options, for every child JVM
+    private static final List<String> FORWARDED = forwardedOptions(ManagementFactory.getRuntimeMXBean().getInputArguments());
+
+    public static void main(String[] args) throws Exception {
+        String cds = "auto";
+        String training = "driver";
+        int benchRuns = 0;
+        int i = 0;
+        for (; i < args.length && args[i].startsWith("--"); i++) {
+            String arg = args[i];
+            if (arg.startsWith("--cds=")) cds = arg.substring("--cds=".length());
+            else if (arg.startsWith("--train=")) training = arg.substring("--train=".length());
+            else if (arg.equals("--bench")) benchRuns = 3;
+            else if (arg.startsWith("--bench=")) benchRuns = Integer.parseInt(arg.substring("--bench=".length()));
+            else {
+                Log.error("❌ Unknown launcher option: {}", arg);
+                System.exit(2);
+            }
+        }
+        if (!Arrays.asList("auto", "off", "retrain").contains(cds) || !Arrays.asList("driver", "fixture").contains(training)) {
+            Log.error("❌ Usage: java -jar dams.jar [--cds=auto|off|retrain] [--train=driver|fixture] [--bench[=N]] [MainClass] [args...]");
+            System.exit(2);
+        }
+
+        File jar = jarFile();
+        File archive = new File(jar.getParentFile(), "dams-" + Runtime.version().feature() + "-"
+            + System.getProperty("java.vm.version").replaceAll("[^A-Za-z0-9.+-]", "_") + ".jsa");
+
+        if (benchRuns > 0) {
+            bench(jar, archive, training, benchRuns);
+            return;
+        }
+
+        String mainClass = i < args.length ? args[i++] : DEFAULT_MAIN;
+        List<String> mainArgs = Arrays.asList(args).subList(i, args.length);
+
+        boolean useArchive = !cds.equals("off") && ensureArchive(jar, archive, training, cds.equals("retrain"));
+        System.exit(run(jar, useArchive ? archive : null, mainClass, mainArgs, false).exitCode);
+    }
+
+    /** Exit code and (when captured) the output of a child JVM. */
+    static class Result {
+        final int exitCode;
+        final String output;
+
+        Result(int exitCode, String output) {
+            this.exitCode = exitCode;
+            this.output = output;
+        }
+    }
+
+    /** True when a usable archive exists afterwards, training a new one when there is none or the jar is newer. */
+    static boolean ensureArchive(File jar, File archive, String training, boolean retrain) {
+        if (!retrain && archive.exists() && archive.lastModified() >= jar.lastModified()) return true;
+
+        long start = System.currentTimeMillis();
+        Log.info("🧊 Training class-data archive {} ({})...", archive.getName(), training);
+        List<String> probeArgs = training.equals("fixture")
+            ? Collections.singletonList("--fixture") : Collections.<String>emptyList();
+        try {
+            archive.delete();
+            if (Runtime.version().feature() >= 13) {
+                exec(jar, Collections.singletonList("-XX:ArchiveClassesAtExit=" + archive.getPath()),
+                     "StartupProbe", probeArgs, true);
+            } else {
+                File classList = new File(archive.getPath().replaceAll("\\.jsa$", ".classlist"));
+                exec(jar, Collections.singletonList("-XX:DumpLoadedClassList=" + classList.getPath()),
+                     "StartupProbe", probeArgs, true);
+                exec(jar, Arrays.asList("-Xshare:dump", "-XX:SharedClassListFile=" + classList.getPath(),
+                     "-XX:SharedArchiveFile=" + archive.getPath()), null, Collections.<String>emptyList(), true);
+                classList.delete();
+            }
+        } catch (Exception e) {
+            // the JVM still dumps at exit; drop that partial archive so the next start trains again
+            Log.warn("⚠️  Class-data archive training failed: {}", e.getMessage());
+            archive.delete();
+        }
+
+        if (!archive.exists()) {
+            Log.warn("⚠️  No class-data archive, starting without one");
+            return false;
+        }
+        Log.info("🧊 Class-data archive ready in {} ms ({} KB)", System.currentTimeMillis() - start,
+            archive.length() / 1024);
+        return true;
+    }
+
+    /** Runs mainClass in a child JVM with the archive (or none) and the flags for its kind of run. */
+    static Result run(File jar, File archive, String mainClass, List<String> mainArgs, boolean capture) throws Exception {
+        List<String> flags = new ArrayList<>();
+        if (archive != null) {
+            flags.add("-XX:SharedArchiveFile=" + archive.getPath());
+        }
+        if (FORWARDED.stream().noneMatch(option -> option.matches("-XX:\\+Use\\w+GC"))) {
+            flags.add("-XX:+UseSerialGC");
+        }
+        if (SHORT_LIVED.contains(mainClass)) {
+            flags.add("-XX:TieredStopAtLevel=1");
+        }
+        return exec(jar, flags, mainClass, mainArgs, capture);
+    }
+
+    private static Result exec(File jar, List<String> flags, String mainClass, List<String> mainArgs,
+                               boolean capture) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(flags);
+        command.addAll(FORWARDED);
+        // the archive records the class path, so every JVM here uses exactly this one
+        command.add("-cp");
+        command.add(jar.getPath());
+        if (mainClass != null) command.add(mainClass);
+        command.addAll(mainArgs);
+
+        ProcessBuilder builder = new ProcessBuilder(command);
+        if (!capture) {
+            builder.inheritIO();
+            return new Result(builder.start().waitFor(), null);
+        }
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IOException((mainClass != null ? mainClass : "archive dump") + " exited with " + exitCode
+                + ": " + lastLines(output, 5));
+        }
+        return new Result(exitCode, output);
+    }
+
+    private static void bench(File jar, File archive, String training, int runs) throws Exception {
+        boolean haveArchive = ensureArchive(jar, archive, training, false);
+        List<String> probeArgs = training.equals("fixture")
+            ? Collections.singletonList("--fixture") : Collections.<String>emptyList();
+
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%n%-10s %4s %10s %12s %10s%n", "mode", "run", "main (ms)", "driver (ms)", "total (ms)"));
+        for (boolean withArchive : new boolean[]{false, true}) {
+            if (withArchive && !haveArchive) break;
+            long[] driverMs = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                Map<String, Long> probe = parseProbe(
+                    run(jar, withArchive ? archive : null, "StartupProbe", probeArgs, true).output);
+                driverMs[run] = probe.getOrDefault("driver", -1L);
+                table.append(String.format("%-10s %4d %10d %12d %10d%n", withArchive ? "appcds" : "default", run + 1,
+                    probe.getOrDefault("main", -1L), driverMs[run], probe.getOrDefault("total", -1L)));
+            }
+            Arrays.sort(driverMs);
+            table.append(String.format("%-10s %4s %10s %12d %10s%n", withArchive ? "appcds" : "default", "p50", "",
+                driverMs[runs / 2], ""));
+        }
+        Log.info("⏱️  Time from JVM start to first ChromeDriver ({} runs each):{}", runs, table);
+    }
+
+    /** The -D and -X options among a JVM's input arguments, less the class-data sharing ones. */
+    static List<String> forwardedOptions(List<String> inputArguments) {
+        List<String> options = new ArrayList<>();
+        for (String arg : inputArguments) {
+            if (!arg.startsWith("-D") && !arg.startsWith("-X")) continue;
+            if (CLASS_DATA_OPTIONS.stream().anyMatch(arg::startsWith)) continue;
+            options.add(arg);
+        }
+        return options;
+    }
+
+    /** The key=value pairs of StartupProbe's result line. */
+    static Map<String, Long> parseProbe(String output) {
+        Map<String, Long> values = new HashMap<>();
+        for (String line : output.split("\\R")) {
+            if (!line.startsWith(StartupProbe.RESULT_PREFIX)) continue;
+            for (String pair : line.substring(StartupProbe.RESULT_PREFIX.length()).trim().split("\\s+")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) values.put(pair.substring(0, eq), Long.parseLong(pair.substring(eq + 1)));
+            }
+        }
+        return values;
+    }
+
+    private static File jarFile() throws Exception {
+        File location = new File(Launcher.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        if (!location.isFile()) {
+            Log.error("❌ The launcher runs from dams.jar (mvn package), not from {}", location);
+            System.exit(2);
+        }
+        return location;
+    }
+
+    private static String lastLines(String text, int count) {
+        String[] lines = text.split("\\R");
+        return String.join(" | ", Arrays.asList(lines).subList(Math.max(0, lines.length - count), lines.length));
+    }
+}
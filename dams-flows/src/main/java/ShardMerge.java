@@ -0,0 +1,325 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Combines the outputs of a sharded run into one report and one history run.
+ *
+ * Each argument is a shard's output directory (its results/history.jsonl and
+ * screenshots/, e.g. a downloaded CI artifact, or "." when all shards ran in the
+ * same checkout). The latest run of every shard index is taken; its screenshots
+ * are copied into screenshots/ here (unpacked first when the shard uploaded them as
+ * archives) and packed again, one HTML report is written with all courses
+ * in course order, and the records are appended to the history as a single
+ * "parallel" run, with tab numbers mapped to their position across all shards
+ * so the trend dashboard sees one run of N tabs. Missing shards are listed in
+ * the report and make the exit code 1.
+ *
+ * Usage: java ShardMerge [--out=DAMS_Sharded_Report_<time>.html] [--history=results/history.jsonl] dir...
+ */
+public class ShardMerge {
+
+    static class ShardRun {
+        final int index;
+        final String runId;
+        final File dir;
+        final List<Map<String, Object>> records = new ArrayList<>();
+
+        ShardRun(int index, String runId, File dir) {
+            this.index = index;
+            this.runId = runId;
+            this.dir = dir;
+        }
+
+        Map<String, Object> runRecord() {
+            for (Map<String, Object> record : records) {
+                if ("run".equals(record.get("type"))) return record;
+            }
+            return null;
+        }
+    }
+
+    public static void main(String[] args) {
+        String outPath = "DAMS_Sharded_Report_" + RunClock.fileStamp() + ".html";
+        String historyPath = RunResultsStore.DEFAULT_HISTORY;
+        List<File> dirs = new ArrayList<>();
+
+        for (String arg : args) {
+            if (arg.startsWith("--out=")) outPath = arg.substring("--out=".length());
+            else if (arg.startsWith("--history=")) historyPath = arg.substring("--history=".length());
+            else if (arg.startsWith("--")) {
+                Log.error("❌ Unknown argument: {}", arg);
+                System.exit(2);
+            } else dirs.add(new File(arg));
+        }
+        if (dirs.isEmpty()) {
+            Log.error("❌ Usage: java ShardMerge [--out=report.html] [--history=results/history.jsonl] dir...");
+            System.exit(2);
+        }
+
+        try {
+            Map<Integer, ShardRun> shards = new TreeMap<>();
+            int count = loadLatestShards(dirs, shards);
+            if (count == 0) {
+                Log.warn("⚠️  No sharded runs found in {}", dirs);
+                System.exit(1);
+            }
+
+            List<Integer> missing = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (!shards.containsKey(i)) missing.add(i);
+            }
+
+            for (ShardRun shard : shards.values()) {
+                ArtifactPacker.unpack(new File(shard.dir, ArtifactPacker.DEFAULT_DIR), shard.dir);
+                copyScreenshots(shard);
+            }
+            ArtifactPacker.Manifest manifest = packScreenshots(shards, count);
+            writeReport(outPath, shards, count, missing, manifest);
+            String mergedRunId = appendHistory(historyPath, shards, count);
+
+            Log.info("✅ Merged {} of {} shards into {} (run {})", shards.size(), count, outPath, mergedRunId);
+            if (!missing.isEmpty()) {
+                Log.warn("⚠️  Missing shards: {}", missing);
+                System.exit(1);
+            }
+        } catch (IOException e) {
+            Log.error("❌ Shard merge failed: {}", e.getMessage());
+            System.exit(1);
+        } finally {
+            Log.flush();
+        }
+    }
+
+    /**
+     * Keeps the latest run of each shard index, among runs split the same way as
+     * the most recent sharded run. Returns that shard count (0 if none was found).
+     */
+    static int loadLatestShards(List<File> dirs, Map<Integer, ShardRun> shards) throws IOException {
+        Map<String, File> runDirs = new HashMap<>();
+        Map<String, List<Map<String, Object>>> runRecords = new HashMap<>();
+        Map<String, int[]> runShard = new HashMap<>();
+
+        for (File dir : dirs) {
+            File history = new File(dir, RunResultsStore.DEFAULT_HISTORY);
+            if (!history.exists()) {
+                Log.warn("⚠️  No history in {}", dir);
+                continue;
+            }
+            RunResultsStore.forEach(history, record -> {
+                Object shard = record.get("shard");
+                Object split = record.get("shards");
+                String runId = (String) record.get("runId");
+                // merged runs carry the shard fields too, but under the plain "parallel" runner
+                if (!"parallel-shard".equals(record.get("runner"))) return;
+                if (!(shard instanceof Number) || !(split instanceof Number) || runId == null) return;
+                runDirs.putIfAbsent(runId, dir);
+                runShard.putIfAbsent(runId, new int[]{((Number) shard).intValue(), ((Number) split).intValue()});
+                runRecords.computeIfAbsent(runId, k -> new ArrayList<>()).add(record);
+            });
+        }
+        if (runRecords.isEmpty()) return 0;
+
+        // run ids start with the start time, so the greatest is the most recent
+        String latest = Collections.max(runRecords.keySet());
+        int count = runShard.get(latest)[1];
+        for (Map.Entry<String, List<Map<String, Object>>> run : runRecords.entrySet()) {
+            int[] shard = runShard.get(run.getKey());
+            if (shard[1] != count) continue;
+            ShardRun current = shards.get(shard[0]);
+            if (current == null || run.getKey().compareTo(current.runId) > 0) {
+                ShardRun candidate = new ShardRun(shard[0], run.getKey(), runDirs.get(run.getKey()));
+                candidate.records.addAll(run.getValue());
+                shards.put(shard[0], candidate);
+            }
+        }
+        return count;
+    }
+
+    private static void copyScreenshots(ShardRun shard) {
+        for (Map<String, Object> record : shard.records) {
+            String screenshot = (String) record.get("screenshot");
+            if (screenshot == null) continue;
+
+            Path source = new File(shard.dir, screenshot).toPath();
+            Path target = Paths.get(screenshot);
+            try {
+                if (Files.exists(target) && Files.isSameFile(source, target)) continue;
+                if (target.getParent() != null) Files.createDirectories(target.getParent());
+                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Log.warn("⚠️  Could not copy screenshot {} from shard {}: {}", screenshot, shard.index, e.getMessage());
+                record.put("screenshot", null);
+            }
+        }
+    }
+
+    /** Packs the merged screenshots, labelled with their course, package and tab across all shards. */
+    private static ArtifactPacker.Manifest packScreenshots(Map<Integer, ShardRun> shards, int count) {
+        Map<String, Map<String, Object>> labels = new HashMap<>();
+        for (ShardRun shard : shards.values()) {
+            for (Map<String, Object> record : shard.records) {
+                if (!"package".equals(record.get("type")) || record.get("screenshot") == null) continue;
+                Map<String, Object> label = new HashMap<>(record);
+                if (record.get("tab") instanceof Number) {
+                    label.put("tab", new Shard(shard.index, count).globalTab(((Number) record.get("tab")).intValue()));
+                }
+                labels.put((String) record.get("screenshot"), label);
+            }
+        }
+        try {
+            return ArtifactPacker.pack(new File("screenshots"), new File(ArtifactPacker.DEFAULT_DIR), "screenshots",
+                ArtifactPacker.DEFAULT_CHUNK_MB * 1024L * 1024L, labels);
+        } catch (IOException e) {
+            Log.warn("⚠️  Could not pack screenshots: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeReport(String outPath, Map<Integer, ShardRun> shards, int count,
+                                    List<Integer> missing, ArtifactPacker.Manifest manifest) throws IOException {
+        Map<String, List<ScreenshotInfo>> courses = new TreeMap<>();
+        int packages = 0;
+        int failed = 0;
+        int skipped = 0;
+        int tabs = 0;
+        List<String> paths = new ArrayList<>();
+
+        for (ShardRun shard : shards.values()) {
+            Map<String, Object> run = shard.runRecord();
+            if (run != null && run.get("tabs") instanceof Number) tabs += ((Number) run.get("tabs")).intValue();
+
+            for (Map<String, Object> record : shard.records) {
+                if (!"package".equals(record.get("type"))) continue;
+                String course = (String) record.get("course");
+                List<ScreenshotInfo> screenshots = courses.computeIfAbsent(course, k -> new ArrayList<>());
+                if ("SKIPPED".equals(record.get("outcome"))) {
+                    skipped++;
+                    continue;
+                }
+                String screenshot = (String) record.get("screenshot");
+                String qrPayload = (String) record.get("qrPayload");
+                // a capture that failed the QR check is shown, marked; other failures have nothing to show
+                boolean badQr = record.get("qrStatus") != null && !"VALID".equals(record.get("qrStatus"));
+                boolean captured = screenshot != null || qrPayload != null;
+                boolean succeeded = "SUCCESS".equals(record.get("outcome")) && captured;
+                if (!succeeded) failed++;
+                if (!captured || (!succeeded && !badQr)) continue;
+                packages++;
+                if (screenshot != null) paths.add(screenshot);
+                ScreenshotInfo info = new ScreenshotInfo(screenshot,
+                    ((Number) record.get("package")).intValue() - 1,
+                    new Shard(shard.index, count).globalTab(((Number) record.get("tab")).intValue()),
+                    (String) record.get("ts"));
+                info.qrPayload = qrPayload;
+                if (badQr) {
+                    info.qrStatus = (String) record.get("qrStatus");
+                    info.qrReason = (String) record.get("qrReason");
+                }
+                screenshots.add(info);
+            }
+        }
+
+        Map<String, String> thumbnails = ReportThumbnails.createAll(paths);
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(outPath), StandardCharsets.UTF_8)) {
+            writer.write(ReportHtml.documentStart("DAMS Sharded Automation Report"));
+            writer.write("<h1>🧩 DAMS Sharded Automation Report</h1>\n");
+
+            StringBuilder html = new StringBuilder();
+            html.append("<div class='summary'>\n");
+            html.append("<h2>📊 Summary</h2>\n");
+            html.append("<div class='stats'>\n");
+            html.append("<div class='stat-item'>Total Courses: ").append(courses.size()).append("</div>\n");
+            html.append("<div class='stat-item'>Total Packages: ").append(packages).append("</div>\n");
+            html.append("<div class='stat-item'>Shards: ").append(shards.size()).append(" of ").append(count).append("</div>\n");
+            html.append("<div class='stat-item'>Parallel Tabs: ").append(tabs).append("</div>\n");
+            html.append("</div>\n");
+            html.append("<p><strong>Generated:</strong> ").append(RunClock.fileStamp()).append("</p>\n");
+            if (failed > 0 || skipped > 0) {
+                html.append("<p><strong>Failed packages:</strong> ").append(failed)
+                    .append(" &nbsp; <strong>Skipped (unavailable):</strong> ").append(skipped).append("</p>\n");
+            }
+            if (!missing.isEmpty()) {
+                html.append("<p><strong>⚠️ Missing shards:</strong> ").append(missing).append("</p>\n");
+            }
+            html.append("<p><strong>Shards:</strong></p>\n<ul>\n");
+            for (ShardRun shard : shards.values()) {
+                Map<String, Object> run = shard.runRecord();
+                html.append("<li>Shard ").append(shard.index).append(": run ").append(shard.runId);
+                if (run != null) {
+                    html.append(", ").append(run.get("courses")).append(" courses, ")
+                        .append(run.get("packages")).append(" packages, phones ").append(run.get("phones"));
+                } else {
+                    html.append(" (did not finish)");
+                }
+                html.append("</li>\n");
+            }
+            html.append("</ul>\n");
+            html.append(ReportHtml.artifacts(manifest));
+            html.append("</div>\n");
+            writer.write(html.toString());
+
+            for (Map.Entry<String, List<ScreenshotInfo>> course : courses.entrySet()) {
+                Collections.sort(course.getValue());
+                writer.write(ReportHtml.courseSection(course.getKey(), course.getValue(), thumbnails));
+            }
+            writer.write(ReportHtml.DOCUMENT_END);
+        }
+    }
+
+    /** Appends the shards' records as one run; returns its run id. */
+    private static String appendHistory(String historyPath, Map<Integer, ShardRun> shards, int count) {
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        int tabs = 0;
+        int courses = 0;
+        int packages = 0;
+        for (ShardRun shard : shards.values()) {
+            Map<String, Object> run = shard.runRecord();
+            if (run == null) continue;
+            long shardStart = Instant.parse((String) run.get("start")).toEpochMilli();
+            start = Math.min(start, shardStart);
+            end = Math.max(end, shardStart + ((Number) run.get("durationMs")).longValue());
+            tabs += ((Number) run.get("tabs")).intValue();
+            courses += ((Number) run.get("courses")).intValue();
+            packages += ((Number) run.get("packages")).intValue();
+        }
+        if (start == Long.MAX_VALUE) {
+            start = RunClock.millis();
+            end = start;
+        }
+
+        String runId = RunClock.fileStamp(start) + "_merged" + count;
+        RunResultsStore store = new RunResultsStore(historyPath, "parallel", runId);
+        for (ShardRun shard : shards.values()) {
+            Shard position = new Shard(shard.index, count);
+            for (Map<String, Object> original : shard.records) {
+                if ("run".equals(original.get("type"))) continue;
+                Map<String, Object> record = new LinkedHashMap<>(original);
+                record.put("runId", runId);
+                record.put("runner", "parallel");
+                record.put("shardRunId", shard.runId);
+                if (record.get("tab") instanceof Number) {
+                    record.put("tab", position.globalTab(((Number) record.get("tab")).intValue()));
+                }
+                store.append(record);
+            }
+        }
+
+        Map<String, Object> run = store.record("run");
+        run.put("ts", Instant.ofEpochMilli(end).toString());
+        run.put("start", Instant.ofEpochMilli(start).toString());
+        run.put("durationMs", end - start);
+        run.put("tabs", tabs);
+        run.put("courses", courses);
+        run.put("packages", packages);
+        run.put("shards", count);
+        run.put("shardsMerged", shards.size());
+        store.append(run);
+        store.close();
+        return runId;
+    }
+}
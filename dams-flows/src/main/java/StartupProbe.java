@@ -0,0 +1,69 @@
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.WebDriver;
+
+import java.nio.file.*;
+
+/**
+ * What a run does before its first real step: load the flows, open Chrome with
+ * page events and load a page. Used by Launcher as the training run for the
+ * class-data archive and as the workload of its startup benchmark.
+ *
+ * With --fixture the page comes from a FixtureServer on a free port (serving
+ * fixtures/preflight), so the HTTP server, the CDP events of a real page load and
+ * the waits are exercised too; without it the page is about:blank. The result is
+ * printed as one line, e.g. "STARTUP main=85 driver=1630 total=2210", in ms since
+ * JVM start. That line is the one machine-readable stdout line (Launcher parses it),
+ * so it is printed directly rather than through Log, after the log queue has been
+ * flushed, so it never lands between queued log lines.
+ *
+ * Usage: java StartupProbe [--fixture] [--dir=fixtures/preflight]
+ */
+public class StartupProbe {
+
+    static final String RESULT_PREFIX = "STARTUP ";
+
+    public static void main(String[] args) throws Exception {
+        long mainMs = DamsCore.sinceJvmStartMs();
+        boolean fixture = false;
+        String dir = "fixtures/preflight";
+
+        for (String arg : args) {
+            if (arg.equals("--fixture")) fixture = true;
+            else if (arg.startsWith("--dir=")) dir = arg.substring("--dir=".length());
+            else {
+                Log.error("❌ Unknown argument: {}", arg);
+                System.exit(2);
+            }
+        }
+
+        Flow.load("flows/package-checkout.json");
+        Flow.load("flows/cbt-checkout.json");
+
+        HttpServer server = null;
+        String url = "about:blank";
+        if (fixture && Files.isDirectory(Paths.get(dir))) {
+            server = FixtureServer.start(Paths.get(dir), 0, null);
+            url = "http://localhost:" + server.getAddress().getPort() + "/available.html";
+        } else if (fixture) {
+            Log.warn("⚠️  No fixtures in {}, loading about:blank", dir);
+        }
+
+        WebDriver driver = null;
+        try {
+            driver = DamsCore.openDriver();
+            driver.get(url);
+            DamsCore.settle(driver, 2);
+        } finally {
+            DamsCore.closeDriver(driver);
+            if (server != null) server.stop(0);
+        }
+
+        String result = RESULT_PREFIX + "main=" + mainMs + " driver=" + DamsCore.firstDriverMs()
+            + " total=" + DamsCore.sinceJvmStartMs();
+        Log.flush();
+        System.out.println(result);
+        System.out.flush();
+        // Selenium's HTTP client keeps non-daemon threads alive after quit
+        System.exit(0);
+    }
+}
@@ -0,0 +1,26 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Which of the launcher's own JVM options reach the child JVM. */
+class LauncherTest {
+
+    @Test
+    void systemPropertiesAndJvmOptionsAreForwarded() {
+        List<String> options = Launcher.forwardedOptions(Arrays.asList(
+            "-Dshard.index=1", "-Dshard.count=4", "-Xmx1g", "-XX:+UseG1GC", "-Dfile.encoding=UTF-8"));
+        assertEquals(Arrays.asList("-Dshard.index=1", "-Dshard.count=4", "-Xmx1g", "-XX:+UseG1GC", "-Dfile.encoding=UTF-8"),
+            options);
+    }
+
+    @Test
+    void classDataSharingAndOtherOptionsStayBehind() {
+        List<String> options = Launcher.forwardedOptions(Arrays.asList(
+            "-Xshare:auto", "-XX:SharedArchiveFile=old.jsa", "-XX:ArchiveClassesAtExit=new.jsa",
+            "-XX:DumpLoadedClassList=dams.classlist", "-XX:SharedClassListFile=dams.classlist",
+            "-javaagent:agent.jar", "-ea", "-Dshard.index=2"));
+        assertEquals(Collections.singletonList("-Dshard.index=2"), options);
+    }
+}
@@ -0,0 +1,120 @@
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A sharded run end to end: one FixtureShard process per shard against a
+ * FixtureServer, then ShardMerge in its own process over their outputs.
+ */
+class ShardMergeTest {
+
+    private static final int SHARDS = 3;
+    private static final Pattern COURSE_HEADING = Pattern.compile("<h2>📚 (.*?)</h2>");
+
+    @TempDir
+    Path temp;
+
+    private HttpServer server;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) server.stop(0);
+    }
+
+    @Test
+    void everyCourseAppearsOnceInTheMergedReport() throws Exception {
+        Path catalogueFile = fixtures("shards").resolve("catalogue.txt");
+        Map<String, List<String>> catalogue = FixtureShard.readCatalogue(catalogueFile);
+        server = FixtureServer.start(fixtures("preflight"), 0, null);
+        String site = "http://localhost:" + server.getAddress().getPort() + "/";
+
+        List<Process> shards = new ArrayList<>();
+        List<String> shardDirs = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            Path dir = temp.resolve("shard" + i);
+            shardDirs.add(dir.toString());
+            shards.add(java(temp, "shard" + i + ".log", "FixtureShard", "--index=" + i, "--count=" + SHARDS,
+                "--site=" + site, "--catalogue=" + catalogueFile, "--out=" + dir));
+        }
+        for (int i = 0; i < SHARDS; i++) {
+            assertEquals(0, exitCode(shards.get(i)), "shard " + i + ": " + read(temp.resolve("shard" + i + ".log")));
+        }
+
+        Path merged = Files.createDirectories(temp.resolve("merged"));
+        List<String> mergeArgs = new ArrayList<>(Arrays.asList("ShardMerge", "--out=report.html",
+            "--history=" + RunResultsStore.DEFAULT_HISTORY));
+        mergeArgs.addAll(shardDirs);
+        Process merge = java(merged, "merge.log", mergeArgs.toArray(new String[0]));
+        assertEquals(0, exitCode(merge), read(merged.resolve("merge.log")));
+
+        List<String> reported = new ArrayList<>();
+        Matcher heading = COURSE_HEADING.matcher(read(merged.resolve("report.html")));
+        while (heading.find()) {
+            reported.add(heading.group(1));
+        }
+        List<String> expected = new ArrayList<>(catalogue.keySet());
+        Collections.sort(expected);
+        assertEquals(expected, reported, "each catalogue course exactly once, in course order");
+
+        // one merged run in the history, covering every course and every available package
+        int available = 0;
+        for (List<String> pages : catalogue.values()) {
+            for (String page : pages) {
+                if (page.equals("available.html") || page.equals("price-changed.html")) available++;
+            }
+        }
+        List<Map<String, Object>> runs = new ArrayList<>();
+        for (Map<String, Object> record : RunResultsStore.readAll(merged.resolve(RunResultsStore.DEFAULT_HISTORY).toFile())) {
+            if ("run".equals(record.get("type"))) runs.add(record);
+        }
+        assertEquals(1, runs.size());
+        assertEquals(catalogue.size(), ((Number) runs.get(0).get("courses")).intValue());
+        assertEquals(available, ((Number) runs.get(0).get("packages")).intValue());
+        assertEquals(SHARDS, ((Number) runs.get(0).get("shardsMerged")).intValue());
+    }
+
+    /** Starts a class from this test's class path in its own JVM, output to a log file in dir. */
+    private static Process java(Path dir, String log, String... mainAndArgs) throws IOException {
+        List<String> command = new ArrayList<>(Arrays.asList(
+            Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+            "-cp", System.getProperty("java.class.path")));
+        command.addAll(Arrays.asList(mainAndArgs));
+        return new ProcessBuilder(command)
+            .directory(dir.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(dir.resolve(log).toFile())
+            .start();
+    }
+
+    private static int exitCode(Process process) throws InterruptedException {
+        if (!process.waitFor(60, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            fail("process did not finish within 60s");
+        }
+        return process.exitValue();
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    /** fixtures/<name> of the repository, whether the build runs from the root or this module. */
+    static Path fixtures(String name) {
+        for (Path dir = Paths.get("").toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            Path candidate = dir.resolve("fixtures").resolve(name);
+            if (Files.isDirectory(candidate)) return candidate;
+        }
+        throw new IllegalStateException("fixtures/" + name + " not found above " + Paths.get("").toAbsolutePath());
+    }
+}
@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Runs a sharded job against the fixture site and merges it, without a browser:
+# one FixtureShard process per shard (in parallel), then ShardMerge over their outputs.
+#
+# Usage (from the repository root, after mvn -B package -DskipTests):
+#   fixtures/shards/run-local.sh [shards=3] [work dir=target/shard-run]
+set -euo pipefail
+
+SHARDS="${1:-3}"
+WORK="${2:-target/shard-run}"
+JAR="$(pwd)/dams-flows/target/dams.jar"
+PORT=8089
+
+rm -rf "$WORK"
+mkdir -p "$WORK/merged"
+
+java -cp "$JAR" FixtureServer --dir=fixtures/preflight --port=$PORT &
+SERVER=$!
+trap 'kill $SERVER' EXIT
+sleep 1
+
+PIDS=()
+for ((i = 0; i < SHARDS; i++)); do
+  java -cp "$JAR" FixtureShard --index=$i --count="$SHARDS" --site=http://localhost:$PORT/ \
+    --catalogue=fixtures/shards/catalogue.txt --out="$WORK/shard$i" > "$WORK/shard$i.log" 2>&1 &
+  PIDS+=($!)
+done
+for pid in "${PIDS[@]}"; do
+  wait "$pid"
+done
+
+SHARD_DIRS=()
+for ((i = 0; i < SHARDS; i++)); do
+  SHARD_DIRS+=("$(pwd)/$WORK/shard$i")
+done
+(cd "$WORK/merged" && java -cp "$JAR" ShardMerge --out=report.html "${SHARD_DIRS[@]}")
+
+echo "Merged report: $WORK/merged/report.html"